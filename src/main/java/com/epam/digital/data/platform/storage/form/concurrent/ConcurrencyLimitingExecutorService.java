@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.concurrent;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor service that limits the number of concurrently running tasks of an unbounded delegate,
+ * such as a thread-per-task executor. Tasks over the limit either wait for a permit in their own
+ * thread, which is cheap for virtual threads, or are rejected.
+ */
+public class ConcurrencyLimitingExecutorService extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final Semaphore permits;
+  private final boolean rejecting;
+
+  /**
+   * @param delegate       executor running the tasks
+   * @param maxConcurrency max number of concurrently running tasks
+   * @param rejecting      true to reject tasks over the limit, false to make them wait
+   */
+  public ConcurrencyLimitingExecutorService(ExecutorService delegate, int maxConcurrency,
+      boolean rejecting) {
+    this.delegate = delegate;
+    this.permits = new Semaphore(maxConcurrency);
+    this.rejecting = rejecting;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Objects.requireNonNull(command);
+    if (!rejecting) {
+      delegate.execute(() -> runWhenPermitted(command));
+      return;
+    }
+    if (!permits.tryAcquire()) {
+      throw new RejectedExecutionException("Max number of concurrent tasks is reached");
+    }
+    try {
+      delegate.execute(() -> {
+        try {
+          command.run();
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  private void runWhenPermitted(Runnable command) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      // the executor is shut down, the waiting task is never run
+      if (command instanceof Future) {
+        ((Future<?>) command).cancel(false);
+      }
+      return;
+    }
+    try {
+      command.run();
+    } finally {
+      permits.release();
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
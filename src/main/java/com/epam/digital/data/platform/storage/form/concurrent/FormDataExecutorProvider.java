@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.concurrent;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Provider of executors for the fan-out of blocking storage calls (multipart transfers, part
+ * listings, hedged reads). Executors are shut down by the owner of the storage services.
+ * <p>
+ * The {@link #defaultProvider() default provider} runs tasks in virtual threads on JDK 21+ and in
+ * bounded pools of platform threads otherwise.
+ */
+public interface FormDataExecutorProvider {
+
+  /**
+   * Create executor running at most the specified number of tasks at once, tasks submitted over
+   * the limit wait for their turn
+   *
+   * @param name           name of the executor, used as thread name prefix
+   * @param maxConcurrency max number of concurrently running tasks
+   * @return executor
+   */
+  ExecutorService newExecutor(String name, int maxConcurrency);
+
+  /**
+   * Create executor running at most the specified number of tasks at once, tasks submitted over
+   * the limit are rejected with {@link java.util.concurrent.RejectedExecutionException}
+   *
+   * @param name           name of the executor, used as thread name prefix
+   * @param maxConcurrency max number of concurrently running tasks
+   * @return executor
+   */
+  ExecutorService newRejectingExecutor(String name, int maxConcurrency);
+
+  /**
+   * @return virtual thread provider if the runtime supports virtual threads, platform thread pool
+   * provider otherwise
+   */
+  static FormDataExecutorProvider defaultProvider() {
+    return VirtualThreadExecutorProvider.isSupported()
+        ? new VirtualThreadExecutorProvider()
+        : new PlatformThreadExecutorProvider();
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.concurrent;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor provider backed by bounded pools of daemon platform threads, idle threads are released
+ * after a minute
+ */
+public class PlatformThreadExecutorProvider implements FormDataExecutorProvider {
+
+  private static final long KEEP_ALIVE_SECONDS = 60L;
+
+  @Override
+  public ExecutorService newExecutor(String name, int maxConcurrency) {
+    var executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), newThreadFactory(name));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  @Override
+  public ExecutorService newRejectingExecutor(String name, int maxConcurrency) {
+    return new ThreadPoolExecutor(0, maxConcurrency, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), newThreadFactory(name));
+  }
+
+  private ThreadFactory newThreadFactory(String name) {
+    return new ThreadFactoryBuilder()
+        .setNameFormat(name + "-%d")
+        .setDaemon(true)
+        .build();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executor provider that starts a virtual thread per task, so that blocking calls don't hold
+ * platform threads, and bounds the concurrency with {@link ConcurrencyLimitingExecutorService}.
+ * <p>
+ * The library targets Java 11, so the virtual thread API of JDK 21+ is looked up reflectively,
+ * {@link #isSupported()} tells whether it's available in the current runtime.
+ */
+@Slf4j
+public class VirtualThreadExecutorProvider implements FormDataExecutorProvider {
+
+  private static final int VIRTUAL_THREADS_FEATURE_VERSION = 21;
+
+  private static final Method OF_VIRTUAL;
+  private static final Method NAME;
+  private static final Method FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null;
+    Method name = null;
+    Method factory = null;
+    Method newThreadPerTaskExecutor = null;
+    if (Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE_VERSION) {
+      try {
+        var builderClass = Class.forName("java.lang.Thread$Builder");
+        ofVirtual = Thread.class.getMethod("ofVirtual");
+        name = builderClass.getMethod("name", String.class, long.class);
+        factory = builderClass.getMethod("factory");
+        newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+            ThreadFactory.class);
+      } catch (ReflectiveOperationException ex) {
+        log.warn("Virtual threads aren't available, platform threads are used", ex);
+        ofVirtual = null;
+      }
+    }
+    OF_VIRTUAL = ofVirtual;
+    NAME = name;
+    FACTORY = factory;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  /**
+   * @return true if the runtime supports virtual threads
+   */
+  public static boolean isSupported() {
+    return Objects.nonNull(OF_VIRTUAL);
+  }
+
+  @Override
+  public ExecutorService newExecutor(String name, int maxConcurrency) {
+    return new ConcurrencyLimitingExecutorService(newThreadPerTaskExecutor(name), maxConcurrency,
+        false);
+  }
+
+  @Override
+  public ExecutorService newRejectingExecutor(String name, int maxConcurrency) {
+    return new ConcurrencyLimitingExecutorService(newThreadPerTaskExecutor(name), maxConcurrency,
+        true);
+  }
+
+  private ExecutorService newThreadPerTaskExecutor(String name) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Virtual threads aren't supported by the runtime");
+    }
+    try {
+      var builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+      var threadFactory = (ThreadFactory) FACTORY.invoke(builder);
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+    } catch (IllegalAccessException | InvocationTargetException ex) {
+      throw new IllegalStateException("Couldn't create virtual thread executor", ex);
+    }
+  }
+}
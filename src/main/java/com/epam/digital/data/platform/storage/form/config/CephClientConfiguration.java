@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * The configuration class that represents client side limits applied to requests sent to ceph
+ */
+@Data
+public class CephClientConfiguration {
+
+  /**
+   * Max number of concurrent requests, matches default connection pool size of the S3 client
+   */
+  private int maxConnections = 50;
+  /**
+   * Max time to wait for a free connection before the request is rejected
+   */
+  private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+  /**
+   * Number of retries of a request failed due to communication error, served by the resilience
+   * policy with a fixed concurrency limit if {@link CephStorageConfiguration#getResilience()} isn't
+   * set, ignored otherwise
+   *
+   * @deprecated use {@link ResilienceConfiguration#getMaxAttempts()}
+   */
+  @Deprecated
+  private int maxRetries = 0;
+  /**
+   * Upper bound of the randomized pause between retries
+   *
+   * @deprecated use {@link ResilienceConfiguration#getRetryBackoff()}
+   */
+  @Deprecated
+  private Duration retryBackoff = Duration.ofMillis(100);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of uploading large form data to ceph as a set
+ * of separate part objects
+ */
+@Data
+public class CephMultipartConfiguration {
+
+  /**
+   * Serialized form data length (in characters) starting from which the form is uploaded in parts
+   */
+  private int threshold = 8 * 1024 * 1024;
+  private int partSize = 2 * 1024 * 1024;
+  /**
+   * Max number of parts transferred or part prefixes listed concurrently
+   */
+  private int parallelism = 4;
+}
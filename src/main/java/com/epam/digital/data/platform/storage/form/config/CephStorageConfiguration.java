@@ -30,4 +30,48 @@ public class CephStorageConfiguration {
   private String accessKey;
   private String secretKey;
   private String bucket;
+  private CephClientConfiguration client = new CephClientConfiguration();
+  /**
+   * Enables uploading of large form data in parts, forms are uploaded in one request if not set
+   */
+  private CephMultipartConfiguration multipart;
+  /**
+   * Enables deletion of parts of forms uploaded before {@link #multipart} was disabled
+   */
+  private boolean legacyMultipart;
+  /**
+   * Endpoint of another gateway of the same cluster, hedged reads are sent to it
+   */
+  private String alternateHttpEndpoint;
+  /**
+   * Enables hedged reads to {@link #alternateHttpEndpoint}
+   */
+  private HedgingConfiguration hedging;
+  /**
+   * Enables adaptive concurrency limiting and retries of ceph requests
+   */
+  private ResilienceConfiguration resilience;
+  /**
+   * Enables coalescing of concurrent reads of the same key into a single ceph request
+   */
+  private boolean coalesceReads;
+  /**
+   * Enables storing of content fingerprints next to the form data, puts of unchanged content are
+   * skipped. Must be enabled only once every node writing to the bucket removes fingerprints on
+   * puts with it disabled, writes of older nodes would leave them stale
+   */
+  private boolean skipUnchangedWrites;
+  /**
+   * Enables storing of signatures under their own keys, so that they are loaded only on demand
+   */
+  private boolean separateSignatures;
+  /**
+   * Enables keeping previous revisions of forms as deltas, disabled if not set
+   */
+  private RevisionHistoryConfiguration revisionHistory;
+  /**
+   * Enables zstd compression of form data with dictionaries trained per task or process
+   * definition, disabled if not set
+   */
+  private CompressionConfiguration compression;
 }
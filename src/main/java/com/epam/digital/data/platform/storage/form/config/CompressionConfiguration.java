@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.config;
+
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of zstd compression of form data with
+ * dictionaries trained per task or process definition
+ */
+@Data
+public class CompressionConfiguration {
+
+  /**
+   * zstd compression level
+   */
+  private int level = 3;
+  /**
+   * Min length of serialized form data compressed, in bytes
+   */
+  private int minSize = 64;
+  /**
+   * Max size of a trained dictionary, in bytes
+   */
+  private int dictionarySize = 16 * 1024;
+  /**
+   * Number of forms of a definition sampled to train its dictionary
+   */
+  private int trainingSamples = 100;
+  /**
+   * Number of forms of a definition compressed with a dictionary after which a new version of the
+   * dictionary is trained, dictionaries aren't retrained if 0
+   */
+  private long retrainInterval;
+  /**
+   * Max number of dictionary versions trained per definition, it isn't retrained once reached.
+   * Dictionaries are never deleted, since stored forms may refer to any of them.
+   */
+  private int maxDictionaries = 4;
+}
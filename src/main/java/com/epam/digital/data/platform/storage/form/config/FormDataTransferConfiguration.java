@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of streaming export and import of form data
+ */
+@Data
+public class FormDataTransferConfiguration {
+
+  /**
+   * Number of forms read or written concurrently, twice as many are buffered
+   */
+  private int parallelism = 16;
+  /**
+   * Enables gzip compression of the export, compressed input is detected on import
+   */
+  private boolean compress;
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of hedged form data reads: a duplicate read
+ * is sent to the alternate target if the first one doesn't complete within the delay
+ */
+@Data
+public class HedgingConfiguration {
+
+  /**
+   * Latency percentile of the recent reads used as the hedging delay
+   */
+  private double percentile = 0.95;
+  private Duration minDelay = Duration.ofMillis(2);
+  /**
+   * Upper bound of the hedging delay, also used until enough reads are observed
+   */
+  private Duration maxDelay = Duration.ofMillis(100);
+  /**
+   * Max share of hedged reads, in percent of all reads
+   */
+  private double budgetPercent = 5;
+  /**
+   * Number of recent reads the latency percentile is calculated from
+   */
+  private int window = 1000;
+  /**
+   * Max number of primary and hedged reads in flight, reads above the limit are not hedged
+   */
+  private int maxConcurrency = 64;
+}
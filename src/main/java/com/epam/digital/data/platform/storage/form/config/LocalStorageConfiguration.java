@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * The configuration class that represents required properties for storage services based on local
+ * segment log repository
+ */
+@Data
+public class LocalStorageConfiguration {
+
+  /**
+   * Directory the segment files are kept in
+   */
+  private String directory;
+  private int segmentSize = 64 * 1024 * 1024;
+  /**
+   * Sealed segments with live data ratio below this value are compacted
+   */
+  private double compactionThreshold = 0.5;
+  private Duration compactionInterval = Duration.ofMinutes(1);
+  /**
+   * Flush every write to the disk before returning
+   */
+  private boolean syncOnWrite;
+}
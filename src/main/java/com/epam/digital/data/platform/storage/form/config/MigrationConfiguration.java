@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.nio.file.Path;
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of form data migration between storages
+ */
+@Data
+public class MigrationConfiguration {
+
+  /**
+   * Number of keys scanned and migrated between checkpoints
+   */
+  private int batchSize = 500;
+  /**
+   * Number of forms copied concurrently
+   */
+  private int parallelism = 16;
+  /**
+   * Max number of forms copied per second, unlimited if not positive
+   */
+  private double maxRatePerSecond = 0;
+  /**
+   * Enables reading back of the copied forms and comparison of their checksums
+   */
+  private boolean verify = true;
+  /**
+   * Directory of the checkpoint files
+   */
+  private Path checkpointDirectory;
+}
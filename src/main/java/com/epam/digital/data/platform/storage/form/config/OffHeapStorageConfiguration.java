@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import lombok.Data;
+
+/**
+ * The configuration class that represents required properties for storage services based on
+ * off-heap in-memory repository
+ */
+@Data
+public class OffHeapStorageConfiguration {
+
+  /**
+   * Max size of off-heap memory used for form data, in bytes
+   */
+  private long capacity = 256L * 1024 * 1024;
+  /**
+   * Allocation unit, each form occupies a whole number of pages
+   */
+  private int pageSize = 4 * 1024;
+  /**
+   * Size of a single direct buffer, memory is reserved slab by slab when needed
+   */
+  private int slabSize = 4 * 1024 * 1024;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+  public enum OverflowPolicy {
+    /**
+     * Fail the write that doesn't fit
+     */
+    REJECT,
+    /**
+     * Evict least recently used forms until the write fits
+     */
+    EVICT
+  }
+}
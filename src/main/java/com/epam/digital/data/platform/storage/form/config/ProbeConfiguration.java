@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of the synthetic storage probe: periodic
+ * put, get and delete round trips on a reserved key, evaluated against health thresholds
+ */
+@Data
+public class ProbeConfiguration {
+
+  private Duration interval = Duration.ofSeconds(10);
+  /**
+   * Number of recent round trips the latency percentiles are calculated from
+   */
+  private int window = 60;
+  /**
+   * The storage is degraded if the 99th latency percentile of any operation or the round trip in
+   * progress exceeds the threshold
+   */
+  private Duration latencyThreshold = Duration.ofMillis(500);
+  /**
+   * The storage is down after the number of consecutive failed round trips, or once a round trip
+   * is in progress longer than the number of intervals
+   */
+  private int failureThreshold = 3;
+  /**
+   * The storage is degraded within the period after a change of the redis master
+   */
+  private Duration failoverGracePeriod = Duration.ofSeconds(30);
+  private String keyPrefix = "probe/";
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.config;
+
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of splitting large form data values into
+ * separate redis chunk keys
+ */
+@Data
+public class RedisChunkingConfiguration {
+
+  /**
+   * Serialized form data length (in bytes) starting from which the data is stored in chunks
+   */
+  private int threshold = 512 * 1024;
+  private int chunkSize = 256 * 1024;
+}
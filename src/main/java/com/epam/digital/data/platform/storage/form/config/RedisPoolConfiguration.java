@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * The configuration class that represents connection pool properties used for blocking and
+ * transactional redis commands
+ */
+@Data
+public class RedisPoolConfiguration {
+
+  private int maxTotal = 8;
+  private int maxIdle = 8;
+  private int minIdle = 0;
+  private Duration maxWait;
+}
@@ -17,6 +17,7 @@
 
 package com.epam.digital.data.platform.storage.form.config;
 
+import java.time.Duration;
 import lombok.Data;
 
 /**
@@ -29,4 +30,64 @@ public class RedisStorageConfiguration {
   private String password;
   private String username;
   private SentinelConfiguration sentinel;
+  /**
+   * Lettuce {@link io.lettuce.core.ReadFrom} name (e.g. {@code replicaPreferred}, {@code nearest})
+   * used for form data reads and key discovery. Reads go to the master if not set.
+   */
+  private String readFrom;
+  /**
+   * Period after a write during which reads of the written key are served by the master only
+   */
+  private Duration readYourWritesWindow;
+  private Duration commandTimeout;
+  private Duration connectTimeout;
+  private Duration shutdownTimeout;
+  private boolean keepAlive;
+  /**
+   * Connection pool used for blocking and transactional commands. Single shared connection is used
+   * if not set
+   */
+  private RedisPoolConfiguration pool;
+  /**
+   * Enables hedging of replica reads to the master, used only if {@link #readFrom} is set
+   */
+  private HedgingConfiguration hedging;
+  /**
+   * Enables adaptive concurrency limiting and retries of redis requests
+   */
+  private ResilienceConfiguration resilience;
+  /**
+   * Enables coalescing of concurrent reads of the same key into a single redis request
+   */
+  private boolean coalesceReads;
+  /**
+   * Enables storing of content fingerprints next to the form data, puts of unchanged content are
+   * skipped
+   */
+  private boolean skipUnchangedWrites;
+  /**
+   * Enables storing of signatures under their own keys, so that they are loaded only on demand
+   */
+  private boolean separateSignatures;
+  /**
+   * Enables deduplication of large form data values, disabled if not set
+   */
+  private DeduplicationConfiguration deduplication;
+  /**
+   * Enables keeping previous revisions of forms as deltas, disabled if not set
+   */
+  private RevisionHistoryConfiguration revisionHistory;
+  /**
+   * Enables zstd compression of form data with dictionaries trained per task or process
+   * definition, disabled if not set
+   */
+  private CompressionConfiguration compression;
+  /**
+   * Enables splitting of large form data values into separate chunk keys, disabled if not set
+   */
+  private RedisChunkingConfiguration chunking;
+  /**
+   * Enables compact encoding of task form and system signature keys, disabled if not set
+   */
+  private CompactKeysConfiguration compactKeys;
 }
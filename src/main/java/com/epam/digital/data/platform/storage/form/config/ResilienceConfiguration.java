@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.config;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of adaptive concurrency limiting and retries
+ * of storage requests
+ */
+@Data
+public class ResilienceConfiguration {
+
+  /**
+   * Concurrency limit used on start, adjusted by observed latency afterwards
+   */
+  private int initialLimit = 20;
+  private int minLimit = 1;
+  private int maxLimit = 200;
+  /**
+   * Max number of attempts of a request failed due to transient error
+   */
+  private int maxAttempts = 1;
+  /**
+   * Base of the exponential backoff between attempts, actual pause is randomized
+   */
+  private Duration retryBackoff = Duration.ofMillis(50);
+  private Duration maxRetryBackoff = Duration.ofSeconds(1);
+}
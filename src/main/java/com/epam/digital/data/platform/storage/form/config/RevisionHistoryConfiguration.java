@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.config;
+
+import lombok.Data;
+
+/**
+ * The configuration class that represents properties of the form revision history, previous
+ * revisions are stored as deltas from the next ones
+ */
+@Data
+public class RevisionHistoryConfiguration {
+
+  /**
+   * Max number of previous revisions kept per form
+   */
+  private int maxRevisions = 10;
+  /**
+   * Max total size of the deltas kept per form, in bytes of serialized patches
+   */
+  private long maxBytes = 1024 * 1024;
+  /**
+   * Max number of history indexes read concurrently when forms are deleted
+   */
+  private int deleteParallelism = 8;
+}
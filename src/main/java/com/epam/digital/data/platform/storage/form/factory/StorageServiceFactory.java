@@ -19,24 +19,81 @@ package com.epam.digital.data.platform.storage.form.factory;
 
 import com.epam.digital.data.platform.integration.ceph.factory.CephS3Factory;
 import com.epam.digital.data.platform.integration.ceph.service.CephService;
+import com.epam.digital.data.platform.storage.form.concurrent.FormDataExecutorProvider;
+import com.epam.digital.data.platform.storage.form.config.CephMultipartConfiguration;
 import com.epam.digital.data.platform.storage.form.config.CephStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.CompactKeysConfiguration;
+import com.epam.digital.data.platform.storage.form.config.CompressionConfiguration;
+import com.epam.digital.data.platform.storage.form.config.FormDataTransferConfiguration;
+import com.epam.digital.data.platform.storage.form.config.HedgingConfiguration;
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.MigrationConfiguration;
+import com.epam.digital.data.platform.storage.form.config.OffHeapStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.ProbeConfiguration;
+import com.epam.digital.data.platform.storage.form.config.RedisPoolConfiguration;
 import com.epam.digital.data.platform.storage.form.config.RedisStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.ResilienceConfiguration;
+import com.epam.digital.data.platform.storage.form.config.RevisionHistoryConfiguration;
+import com.epam.digital.data.platform.storage.form.health.FormDataStorageProbe;
+import com.epam.digital.data.platform.storage.form.migration.FileMigrationCheckpointStore;
+import com.epam.digital.data.platform.storage.form.migration.FormDataExporter;
+import com.epam.digital.data.platform.storage.form.migration.FormDataImporter;
+import com.epam.digital.data.platform.storage.form.migration.FormDataMigrator;
 import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
 import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.repository.CephFormDataKeyScanner;
 import com.epam.digital.data.platform.storage.form.repository.CephFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.CephRequestExecutor;
+import com.epam.digital.data.platform.storage.form.repository.CoalescingFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.CompactKeyFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.CompressingFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.DeduplicatingFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.FingerprintWriteFilter;
+import com.epam.digital.data.platform.storage.form.repository.FormDataKeyScanner;
 import com.epam.digital.data.platform.storage.form.repository.FormDataKeyValueRepository;
 import com.epam.digital.data.platform.storage.form.repository.FormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.HedgingFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.LocalFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.OffHeapFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.ReadYourWritesFence;
+import com.epam.digital.data.platform.storage.form.repository.RedisContentBlobStore;
+import com.epam.digital.data.platform.storage.form.repository.RedisFormDataChunker;
+import com.epam.digital.data.platform.storage.form.repository.RedisFormDataKeyInterner;
+import com.epam.digital.data.platform.storage.form.repository.RedisFormDataKeyScanner;
 import com.epam.digital.data.platform.storage.form.repository.RedisFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.RevisionHistoryFormDataRepository;
+import com.epam.digital.data.platform.storage.form.repository.SignatureSeparatingFormDataRepository;
+import com.epam.digital.data.platform.storage.form.resilience.AdaptiveResiliencePolicy;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
 import com.epam.digital.data.platform.storage.form.service.CephFormDataStorageService;
+import com.epam.digital.data.platform.storage.form.service.CompactFormDataKeyCodec;
 import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
 import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import com.epam.digital.data.platform.storage.form.service.LocalFormDataStorageService;
 import com.epam.digital.data.platform.storage.form.service.RedisFormDataStorageService;
+import com.epam.digital.data.platform.storage.form.tracing.StorageTracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
 import io.lettuce.core.internal.HostAndPort;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisKeyValueAdapter;
 import org.springframework.data.redis.core.RedisKeyValueTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -45,25 +102,84 @@ import org.springframework.data.redis.repository.support.RedisRepositoryFactory;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
- * The class for creation storage services based on supported configuration
+ * The class for creation storage services based on supported configuration.
+ * <p>
+ * Redis connection factories created by this class share single {@link ClientResources} instance
+ * (event loops, timers), which is released on {@link #close()} if it was created by the factory.
+ * The connection factories themselves are destroyed on {@link #close()} before that. Ceph request
+ * executors are shared by all services and probes of the same bucket, so that the connection
+ * limit and its metrics cover all of them; the client configuration of the first one is used.
+ * Executors created for ceph multipart transfers and hedged reads and local repositories are
+ * closed on {@link #close()} as well. Those executors are created by the
+ * {@link FormDataExecutorProvider}, virtual threads are used by default on JDK 21+.
+ * <p>
+ * Client resources, meter registry, tracer and executor provider are optional and set with
+ * {@link #builder()}.
  */
-public class StorageServiceFactory {
+@Slf4j
+public class StorageServiceFactory implements AutoCloseable {
+
+  private static final int LEGACY_KEYS_SCAN_PAGE_SIZE = 1000;
 
   private final ObjectMapper objectMapper;
-  private CephS3Factory cephFactory;
+  private final CephS3Factory cephFactory;
+  private ClientResources clientResources;
+  private boolean ownClientResources;
+  private final MeterRegistry meterRegistry;
+  private final Tracer tracer;
+  private final FormDataExecutorProvider executorProvider;
+  private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+  private final List<LocalFormDataRepository> localRepositories = new CopyOnWriteArrayList<>();
+  private final List<LettuceConnectionFactory> connectionFactories = new CopyOnWriteArrayList<>();
+  private final Map<String, CephRequestExecutor> cephRequestExecutors = new ConcurrentHashMap<>();
 
   public StorageServiceFactory(ObjectMapper objectMapper) {
-    this.objectMapper = objectMapper;
+    this(objectMapper, null);
   }
 
   public StorageServiceFactory(ObjectMapper objectMapper,
       CephS3Factory cephFactory) {
+    this(objectMapper, cephFactory, null, null, null, null);
+  }
+
+  /**
+   * @param objectMapper     form data serializer
+   * @param cephFactory      factory of ceph services, required for ceph storages only
+   * @param clientResources  redis client resources shared by the connection factories, created by
+   *                         the factory if not set
+   * @param meterRegistry    registry of storage metrics, the global registry if not set
+   * @param tracer           tracer of storage operation phases, phases aren't traced if not set
+   * @param executorProvider provider of the executors used by storages, the default one if not set
+   */
+  @Builder
+  private StorageServiceFactory(ObjectMapper objectMapper, CephS3Factory cephFactory,
+      ClientResources clientResources, MeterRegistry meterRegistry, Tracer tracer,
+      FormDataExecutorProvider executorProvider) {
     this.objectMapper = objectMapper;
     this.cephFactory = cephFactory;
+    this.clientResources = clientResources;
+    this.meterRegistry = Objects.requireNonNullElse(meterRegistry, Metrics.globalRegistry);
+    this.tracer = tracer;
+    this.executorProvider = Objects.requireNonNullElseGet(executorProvider,
+        FormDataExecutorProvider::defaultProvider);
   }
+
   public FormDataStorageService<CephKeysSearchParams> formDataStorageService(CephStorageConfiguration config) {
     return CephFormDataStorageService.builder()
         .repository(newCephFormDataRepository(config))
@@ -71,15 +187,340 @@ public class StorageServiceFactory {
         .build();
   }
 
+  /**
+   * Create storage service that keeps form data in a segment log on the local disk, doesn't need
+   * any external service. Intended for single node installations and tests
+   *
+   * @param config local storage configuration
+   * @return local storage service
+   */
+  public FormDataStorageService<LocalKeysSearchParams> formDataStorageService(LocalStorageConfiguration config) {
+    var repository = new LocalFormDataRepository(config, objectMapper);
+    localRepositories.add(repository);
+    return LocalFormDataStorageService.builder()
+        .repository(repository)
+        .keyProvider(newFormDataKeyProvider())
+        .build();
+  }
+
+  /**
+   * Create storage service that keeps form data in off-heap memory of the current process. Data
+   * doesn't survive restart, intended for single node installations and tests
+   *
+   * @param config off-heap storage configuration
+   * @return off-heap storage service
+   */
+  public FormDataStorageService<LocalKeysSearchParams> formDataStorageService(OffHeapStorageConfiguration config) {
+    return LocalFormDataStorageService.builder()
+        .repository(new OffHeapFormDataRepository(config, objectMapper))
+        .keyProvider(newFormDataKeyProvider())
+        .build();
+  }
+
   public FormDataStorageService<RedisKeysSearchParams> formDataStorageService(RedisConnectionFactory connectionFactory) {
+    var repository = newRedisFormDataRepository(connectionFactory);
+    backfillStartFormKeySets(repository);
+    return RedisFormDataStorageService.builder()
+        .repository(repository)
+        .keyProvider(newFormDataKeyProvider())
+        .build();
+  }
+
+  /**
+   * Create redis storage service that sends writes to the master and reads to the replicas
+   * selected by the provided connection factory, falling back to the master on a replica miss
+   *
+   * @param connectionFactory        master bound connection factory
+   * @param replicaConnectionFactory replica bound connection factory
+   * @param readYourWritesWindow     period after a write during which the written key is read
+   *                                 from the master only (optional)
+   * @return redis storage service
+   */
+  public FormDataStorageService<RedisKeysSearchParams> formDataStorageService(
+      RedisConnectionFactory connectionFactory, RedisConnectionFactory replicaConnectionFactory,
+      Duration readYourWritesWindow) {
+    var repository = newRedisFormDataRepository(connectionFactory, replicaConnectionFactory,
+        readYourWritesWindow);
+    backfillStartFormKeySets(repository);
     return RedisFormDataStorageService.builder()
-        .repository(newRedisFormDataRepository(connectionFactory))
+        .repository(repository)
         .keyProvider(newFormDataKeyProvider())
         .build();
   }
 
+  /**
+   * Create redis storage service with read routing defined by
+   * {@link RedisStorageConfiguration#getReadFrom()}
+   *
+   * @param configuration redis storage configuration
+   * @return redis storage service
+   */
+  public FormDataStorageService<RedisKeysSearchParams> formDataStorageService(
+      RedisStorageConfiguration configuration) {
+    var template = newRedisTemplate(redisConnectionFactory(configuration));
+    var resiliencePolicy = newResiliencePolicy("redis", configuration.getResilience());
+    var fingerprintFilter = newFingerprintWriteFilter("redis",
+        configuration.isSkipUnchangedWrites());
+    var chunker = Optional.ofNullable(configuration.getChunking())
+        .map(chunking -> new RedisFormDataChunker(chunking.getThreshold(),
+            chunking.getChunkSize()))
+        .orElse(null);
+    var masterRepository = newRedisFormDataRepository(template, null, null, resiliencePolicy,
+        fingerprintFilter, chunker);
+    backfillStartFormKeySets(masterRepository);
+    FormDataRepository<RedisKeysSearchParams> repository = masterRepository;
+    var readTemplate = template;
+    if (Objects.nonNull(configuration.getReadFrom())) {
+      readTemplate = newRedisTemplate(redisReplicaConnectionFactory(configuration));
+      repository = newRedisFormDataRepository(template, readTemplate,
+          configuration.getReadYourWritesWindow(), resiliencePolicy, fingerprintFilter, chunker);
+    }
+    if (Objects.nonNull(configuration.getReadFrom())
+        && Objects.nonNull(configuration.getHedging())) {
+      repository = newHedgingFormDataRepository(repository, masterRepository,
+          configuration.getHedging());
+    }
+    var keyProvider = newFormDataKeyProvider(configuration, template, readTemplate,
+        resiliencePolicy);
+    if (Objects.nonNull(configuration.getCompactKeys())) {
+      repository = new CompactKeyFormDataRepository<>(repository, keyProvider,
+          configuration.getCompactKeys().isLegacyFallback());
+    }
+    if (configuration.isSeparateSignatures()) {
+      repository = new SignatureSeparatingFormDataRepository<>(repository);
+    }
+    if (Objects.nonNull(configuration.getCompression())) {
+      repository = newCompressingFormDataRepository(repository, configuration.getCompression());
+    }
+    if (Objects.nonNull(configuration.getDeduplication())) {
+      repository = new DeduplicatingFormDataRepository<>(repository,
+          new RedisContentBlobStore(template, resiliencePolicy),
+          configuration.getDeduplication().getThreshold());
+    }
+    if (Objects.nonNull(configuration.getRevisionHistory())) {
+      repository = newRevisionHistoryFormDataRepository(repository,
+          configuration.getRevisionHistory());
+    }
+    if (configuration.isCoalesceReads()) {
+      repository = new CoalescingFormDataRepository<>(repository, meterRegistry);
+    }
+    return newRedisFormDataStorageService(repository, keyProvider);
+  }
+
+  /**
+   * Create scanner of all form data keys stored in redis
+   *
+   * @param configuration redis storage configuration
+   * @return redis key scanner
+   */
+  public FormDataKeyScanner formDataKeyScanner(RedisStorageConfiguration configuration) {
+    var template = newRedisTemplate(redisConnectionFactory(configuration));
+    return new RedisFormDataKeyScanner(template, null,
+        newFormDataKeyProvider(configuration, template, template, null));
+  }
+
+  /**
+   * Count the forms left under their legacy keys after the compact keys were enabled, the legacy
+   * fallback can be disabled once none are left
+   *
+   * @param configuration redis storage configuration
+   * @return number of legacy keys
+   * @see CompactKeysConfiguration#isLegacyFallback()
+   */
+  public long countLegacyFormDataKeys(RedisStorageConfiguration configuration) {
+    var template = newRedisTemplate(redisConnectionFactory(configuration));
+    return CompactKeyFormDataRepository.countLegacyKeys(
+        new RedisFormDataKeyScanner(template, null), LEGACY_KEYS_SCAN_PAGE_SIZE);
+  }
+
+  /**
+   * Create scanner of form data keys stored in ceph bucket
+   *
+   * @param config ceph storage configuration
+   * @param prefix key prefix, all keys of the bucket are scanned if empty
+   * @return ceph key scanner
+   */
+  public FormDataKeyScanner formDataKeyScanner(CephStorageConfiguration config, String prefix) {
+    return CephFormDataKeyScanner.builder()
+        .cephBucketName(config.getBucket())
+        .cephService(newCephServiceS3(config, config.getHttpEndpoint()))
+        .prefix(prefix)
+        .build();
+  }
+
+  /**
+   * Create migrator of forms between storages
+   *
+   * @param source        storage service forms are read from
+   * @param sourceScanner scanner of the source storage keys
+   * @param target        storage service forms are written to
+   * @param configuration migration configuration
+   * @return form data migrator
+   */
+  public FormDataMigrator formDataMigrator(FormDataStorageService<?> source,
+      FormDataKeyScanner sourceScanner, FormDataStorageService<?> target,
+      MigrationConfiguration configuration) {
+    return FormDataMigrator.builder()
+        .source(source)
+        .sourceScanner(sourceScanner)
+        .target(target)
+        .checkpointStore(Objects.isNull(configuration.getCheckpointDirectory()) ? null
+            : new FileMigrationCheckpointStore(configuration.getCheckpointDirectory(), objectMapper))
+        .configuration(configuration)
+        .keyProvider(newFormDataKeyProvider())
+        .objectMapper(objectMapper)
+        .build();
+  }
+
+  /**
+   * Create streaming exporter of forms as newline-delimited json
+   *
+   * @param source        storage service forms are read from
+   * @param configuration transfer configuration
+   * @return form data exporter
+   */
+  public FormDataExporter formDataExporter(FormDataStorageService<?> source,
+      FormDataTransferConfiguration configuration) {
+    return FormDataExporter.builder()
+        .source(source)
+        .configuration(configuration)
+        .keyProvider(newFormDataKeyProvider())
+        .objectMapper(objectMapper)
+        .build();
+  }
+
+  /**
+   * Create streaming importer of forms exported as newline-delimited json
+   *
+   * @param target        storage service forms are written to
+   * @param configuration transfer configuration
+   * @return form data importer
+   */
+  public FormDataImporter formDataImporter(FormDataStorageService<?> target,
+      FormDataTransferConfiguration configuration) {
+    return FormDataImporter.builder()
+        .target(target)
+        .configuration(configuration)
+        .objectMapper(objectMapper)
+        .build();
+  }
+
+  /**
+   * Create and start synthetic probe of the redis storage, which also tracks the sentinel master
+   *
+   * @param configuration      redis storage configuration
+   * @param probeConfiguration probe configuration
+   * @return started probe
+   */
+  public FormDataStorageProbe formDataStorageProbe(RedisStorageConfiguration configuration,
+      ProbeConfiguration probeConfiguration) {
+    var connectionFactory = redisConnectionFactory(configuration);
+    var masterName = configuration.getSentinel().getMaster();
+    Supplier<String> masterSupplier = () -> {
+      try (var sentinelConnection = connectionFactory.getSentinelConnection()) {
+        return sentinelConnection.masters().stream()
+            .filter(master -> masterName.equals(master.getName()))
+            .map(master -> master.getHost() + ":" + master.getPort())
+            .findFirst()
+            .orElse(null);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    };
+    return newFormDataStorageProbe("redis",
+        newRedisFormDataRepository(connectionFactory), probeConfiguration, masterSupplier);
+  }
+
+  /**
+   * Create and start synthetic probe of the ceph storage
+   *
+   * @param configuration      ceph storage configuration
+   * @param probeConfiguration probe configuration
+   * @return started probe
+   */
+  public FormDataStorageProbe formDataStorageProbe(CephStorageConfiguration configuration,
+      ProbeConfiguration probeConfiguration) {
+    var repository = newCephFormDataRepository(configuration, configuration.getHttpEndpoint(),
+        newCephRequestExecutor(configuration), null, null, null);
+    return newFormDataStorageProbe("ceph", repository, probeConfiguration, null);
+  }
 
   public RedisConnectionFactory redisConnectionFactory(RedisStorageConfiguration configuration) {
+    return newLettuceConnectionFactory(configuration,
+        newLettuceClientConfiguration(configuration, null));
+  }
+
+  /**
+   * Create connection factory that routes commands to the nodes selected by
+   * {@link RedisStorageConfiguration#getReadFrom()}. Intended for read-only usage
+   *
+   * @param configuration redis storage configuration
+   * @return replica bound connection factory
+   */
+  public RedisConnectionFactory redisReplicaConnectionFactory(RedisStorageConfiguration configuration) {
+    var clientConfiguration = newLettuceClientConfiguration(configuration,
+        ReadFrom.valueOf(configuration.getReadFrom()));
+    return newLettuceConnectionFactory(configuration, clientConfiguration);
+  }
+
+  @Override
+  public synchronized void close() {
+    executors.forEach(ExecutorService::shutdown);
+    executors.clear();
+    localRepositories.forEach(LocalFormDataRepository::close);
+    localRepositories.clear();
+    connectionFactories.forEach(LettuceConnectionFactory::destroy);
+    connectionFactories.clear();
+    if (ownClientResources && Objects.nonNull(clientResources)) {
+      clientResources.shutdown();
+      clientResources = null;
+      ownClientResources = false;
+    }
+  }
+
+  private synchronized ClientResources getClientResources() {
+    if (Objects.isNull(clientResources)) {
+      clientResources = DefaultClientResources.create();
+      ownClientResources = true;
+    }
+    return clientResources;
+  }
+
+  private LettuceClientConfiguration newLettuceClientConfiguration(
+      RedisStorageConfiguration configuration, ReadFrom readFrom) {
+    var builder = Objects.isNull(configuration.getPool())
+        ? LettuceClientConfiguration.builder()
+        : LettucePoolingClientConfiguration.builder()
+            .poolConfig(newPoolConfig(configuration.getPool()));
+
+    builder.clientResources(getClientResources())
+        .clientOptions(newClientOptions(configuration));
+    Optional.ofNullable(configuration.getCommandTimeout()).ifPresent(builder::commandTimeout);
+    Optional.ofNullable(configuration.getShutdownTimeout()).ifPresent(builder::shutdownTimeout);
+    Optional.ofNullable(readFrom).ifPresent(builder::readFrom);
+    return builder.build();
+  }
+
+  private ClientOptions newClientOptions(RedisStorageConfiguration configuration) {
+    var socketOptions = SocketOptions.builder().keepAlive(configuration.isKeepAlive());
+    Optional.ofNullable(configuration.getConnectTimeout()).ifPresent(socketOptions::connectTimeout);
+    return ClientOptions.builder()
+        .timeoutOptions(TimeoutOptions.enabled())
+        .socketOptions(socketOptions.build())
+        .build();
+  }
+
+  private <T> GenericObjectPoolConfig<T> newPoolConfig(RedisPoolConfiguration poolConfiguration) {
+    var poolConfig = new GenericObjectPoolConfig<T>();
+    poolConfig.setMaxTotal(poolConfiguration.getMaxTotal());
+    poolConfig.setMaxIdle(poolConfiguration.getMaxIdle());
+    poolConfig.setMinIdle(poolConfiguration.getMinIdle());
+    Optional.ofNullable(poolConfiguration.getMaxWait()).ifPresent(poolConfig::setMaxWait);
+    return poolConfig;
+  }
+
+  private LettuceConnectionFactory newLettuceConnectionFactory(
+      RedisStorageConfiguration configuration, LettuceClientConfiguration clientConfiguration) {
     var redisSentinelConfig = new RedisSentinelConfiguration();
 
     redisSentinelConfig.setMaster(configuration.getSentinel().getMaster());
@@ -87,38 +528,228 @@ public class StorageServiceFactory {
     redisSentinelConfig.setUsername(configuration.getUsername());
     redisSentinelConfig.setPassword(configuration.getPassword());
 
-    var connectionFactory = new LettuceConnectionFactory(redisSentinelConfig);
+    var connectionFactory = new LettuceConnectionFactory(redisSentinelConfig, clientConfiguration);
     connectionFactory.afterPropertiesSet();
+    connectionFactories.add(connectionFactory);
     return connectionFactory;
   }
 
+  private FormDataStorageService<RedisKeysSearchParams> newRedisFormDataStorageService(
+      FormDataRepository<RedisKeysSearchParams> repository, FormDataKeyProviderImpl keyProvider) {
+    return RedisFormDataStorageService.builder()
+        .repository(repository)
+        .keyProvider(keyProvider)
+        .build();
+  }
+
+  private FormDataStorageProbe newFormDataStorageProbe(String backend,
+      FormDataRepository<?> repository, ProbeConfiguration probeConfiguration,
+      Supplier<String> masterSupplier) {
+    var threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("form-data-probe-" + backend + "-%d")
+        .setDaemon(true)
+        .build();
+    var scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    executors.add(scheduler);
+    var probe = new FormDataStorageProbe(backend, repository, probeConfiguration, masterSupplier,
+        scheduler, meterRegistry, Clock.systemUTC());
+    probe.start();
+    return probe;
+  }
+
   private FormDataKeyProviderImpl newFormDataKeyProvider() {
     return new FormDataKeyProviderImpl();
   }
 
+  private FormDataKeyProviderImpl newFormDataKeyProvider(RedisStorageConfiguration configuration,
+      RedisTemplate<String, Object> template, RedisTemplate<String, Object> readTemplate,
+      ResiliencePolicy resiliencePolicy) {
+    if (Objects.isNull(configuration.getCompactKeys())) {
+      return newFormDataKeyProvider();
+    }
+    return new FormDataKeyProviderImpl(new CompactFormDataKeyCodec(
+        new RedisFormDataKeyInterner(template, readTemplate, resiliencePolicy)));
+  }
+
   private FormDataRepository<CephKeysSearchParams> newCephFormDataRepository(CephStorageConfiguration config) {
+    var requestExecutor = newCephRequestExecutor(config);
+    var multipartExecutor = newCephMultipartExecutor(config);
+    var resiliencePolicy = newResiliencePolicy("ceph", getCephResilienceConfiguration(config));
+    var fingerprintFilter = newFingerprintWriteFilter("ceph", config.isSkipUnchangedWrites());
+    var repository = newCephFormDataRepository(config, config.getHttpEndpoint(), requestExecutor,
+        multipartExecutor, resiliencePolicy, fingerprintFilter);
+    if (Objects.nonNull(config.getHedging()) && Objects.nonNull(config.getAlternateHttpEndpoint())) {
+      var alternateRepository = newCephFormDataRepository(config,
+          config.getAlternateHttpEndpoint(), requestExecutor, multipartExecutor, resiliencePolicy,
+          fingerprintFilter);
+      repository = newHedgingFormDataRepository(repository, alternateRepository,
+          config.getHedging());
+    }
+    if (config.isSeparateSignatures()) {
+      repository = new SignatureSeparatingFormDataRepository<>(repository);
+    }
+    if (Objects.nonNull(config.getCompression())) {
+      repository = newCompressingFormDataRepository(repository, config.getCompression());
+    }
+    if (Objects.nonNull(config.getRevisionHistory())) {
+      repository = newRevisionHistoryFormDataRepository(repository,
+          config.getRevisionHistory());
+    }
+    if (config.isCoalesceReads()) {
+      repository = new CoalescingFormDataRepository<>(repository, meterRegistry);
+    }
+    return repository;
+  }
+
+  private FormDataRepository<CephKeysSearchParams> newCephFormDataRepository(
+      CephStorageConfiguration config, String httpEndpoint, CephRequestExecutor requestExecutor,
+      ExecutorService multipartExecutor, ResiliencePolicy resiliencePolicy,
+      FingerprintWriteFilter fingerprintFilter) {
     return CephFormDataRepository.builder()
         .cephBucketName(config.getBucket())
-        .cephService(newCephServiceS3(config))
+        .cephService(newCephServiceS3(config, httpEndpoint))
+        .requestExecutor(requestExecutor)
+        .multipart(config.getMultipart())
+        .multipartExecutor(multipartExecutor)
+        .legacyMultipart(config.isLegacyMultipart())
+        .resiliencePolicy(resiliencePolicy)
+        .fingerprintFilter(fingerprintFilter)
+        .tracer(new StorageTracer(tracer, "ceph"))
         .objectMapper(objectMapper)
         .build();
   }
 
-  private CephService newCephServiceS3(CephStorageConfiguration config) {
-    return cephFactory.createCephService(config.getHttpEndpoint(),
+  private CephService newCephServiceS3(CephStorageConfiguration config, String httpEndpoint) {
+    return cephFactory.createCephService(httpEndpoint,
         config.getAccessKey(), config.getSecretKey());
   }
 
-  private FormDataRepository<RedisKeysSearchParams> newRedisFormDataRepository(RedisConnectionFactory connectionFactory) {
-    var template = newRedisTemplate(connectionFactory);
+  private CephRequestExecutor newCephRequestExecutor(CephStorageConfiguration config) {
+    return Optional.ofNullable(config.getClient())
+        .map(client -> cephRequestExecutors.computeIfAbsent(config.getBucket(),
+            bucket -> new CephRequestExecutor(client, meterRegistry, bucket)))
+        .orElse(null);
+  }
+
+  /**
+   * Retries set up with the deprecated client settings are served by a policy with a fixed
+   * unbounded limit, so that requests are bounded by the request executor only, as before
+   */
+  @SuppressWarnings("deprecation")
+  private ResilienceConfiguration getCephResilienceConfiguration(CephStorageConfiguration config) {
+    var client = config.getClient();
+    if (Objects.nonNull(config.getResilience()) || Objects.isNull(client)
+        || client.getMaxRetries() <= 0) {
+      return config.getResilience();
+    }
+    var resilience = new ResilienceConfiguration();
+    resilience.setInitialLimit(Integer.MAX_VALUE);
+    resilience.setMinLimit(Integer.MAX_VALUE);
+    resilience.setMaxLimit(Integer.MAX_VALUE);
+    resilience.setMaxAttempts(client.getMaxRetries() + 1);
+    resilience.setRetryBackoff(client.getRetryBackoff());
+    resilience.setMaxRetryBackoff(client.getRetryBackoff());
+    return resilience;
+  }
+
+  private ResiliencePolicy newResiliencePolicy(String backend,
+      ResilienceConfiguration configuration) {
+    return Objects.isNull(configuration) ? null
+        : new AdaptiveResiliencePolicy(backend, configuration, meterRegistry);
+  }
 
+  private FingerprintWriteFilter newFingerprintWriteFilter(String backend, boolean enabled) {
+    return enabled ? new FingerprintWriteFilter(backend, meterRegistry) : null;
+  }
+
+  /**
+   * The executor is created even if multipart uploads are disabled, as it also lists the parts of
+   * deleted forms uploaded before they were disabled
+   */
+  private ExecutorService newCephMultipartExecutor(CephStorageConfiguration config) {
+    var parallelism = Optional.ofNullable(config.getMultipart())
+        .orElseGet(CephMultipartConfiguration::new)
+        .getParallelism();
+    var executor = executorProvider.newExecutor("ceph-multipart-" + config.getBucket(),
+        parallelism);
+    executors.add(executor);
+    return executor;
+  }
+
+  /**
+   * The start form index is backfilled in the background, at most one node at a time scans the
+   * keyspace and the scan is skipped once completed
+   */
+  private void backfillStartFormKeySets(RedisFormDataRepository repository) {
+    var executor = executorProvider.newExecutor("form-data-start-form-index-backfill", 1);
+    executors.add(executor);
+    executor.execute(() -> {
+      try {
+        repository.backfillStartFormKeySets();
+      } catch (RuntimeException ex) {
+        log.warn("Couldn't backfill start form index", ex);
+      }
+    });
+    executor.shutdown();
+  }
+
+  private RedisFormDataRepository newRedisFormDataRepository(RedisConnectionFactory connectionFactory) {
+    return newRedisFormDataRepository(newRedisTemplate(connectionFactory), null, null, null, null,
+        null);
+  }
+
+  private RedisFormDataRepository newRedisFormDataRepository(
+      RedisConnectionFactory connectionFactory, RedisConnectionFactory replicaConnectionFactory,
+      Duration readYourWritesWindow) {
+    return newRedisFormDataRepository(newRedisTemplate(connectionFactory),
+        newRedisTemplate(replicaConnectionFactory), readYourWritesWindow, null, null, null);
+  }
+
+  private RedisFormDataRepository newRedisFormDataRepository(
+      RedisTemplate<String, Object> template, RedisTemplate<String, Object> replicaTemplate,
+      Duration readYourWritesWindow, ResiliencePolicy resiliencePolicy,
+      FingerprintWriteFilter fingerprintFilter, RedisFormDataChunker chunker) {
     return RedisFormDataRepository.builder()
         .repository(newFormDataKeyValueRepository(template))
         .template(template)
+        .replicaRepository(Objects.isNull(replicaTemplate) ? null
+            : newFormDataKeyValueRepository(replicaTemplate))
+        .replicaTemplate(replicaTemplate)
+        .readYourWritesFence(Objects.isNull(readYourWritesWindow) ? null
+            : new ReadYourWritesFence(readYourWritesWindow))
+        .resiliencePolicy(resiliencePolicy)
+        .fingerprintFilter(fingerprintFilter)
+        .chunker(chunker)
+        .tracer(new StorageTracer(tracer, "redis"))
         .objectMapper(objectMapper)
         .build();
   }
 
+  private <T> FormDataRepository<T> newCompressingFormDataRepository(
+      FormDataRepository<T> repository, CompressionConfiguration compression) {
+    var executor = executorProvider.newExecutor("form-data-dictionary-training", 1);
+    executors.add(executor);
+    return new CompressingFormDataRepository<>(repository, compression, objectMapper, executor);
+  }
+
+  private <T> FormDataRepository<T> newRevisionHistoryFormDataRepository(
+      FormDataRepository<T> repository, RevisionHistoryConfiguration revisionHistory) {
+    var executor = executorProvider.newExecutor("form-data-revision-history",
+        revisionHistory.getDeleteParallelism());
+    executors.add(executor);
+    return new RevisionHistoryFormDataRepository<>(repository, revisionHistory, objectMapper,
+        executor);
+  }
+
+  private <T> FormDataRepository<T> newHedgingFormDataRepository(FormDataRepository<T> primary,
+      FormDataRepository<T> alternate, HedgingConfiguration hedging) {
+    var executor = executorProvider.newRejectingExecutor("form-data-hedging",
+        hedging.getMaxConcurrency());
+    executors.add(executor);
+    return new HedgingFormDataRepository<>(primary, alternate, hedging, executor, meterRegistry,
+        tracer);
+  }
+
   private FormDataKeyValueRepository newFormDataKeyValueRepository(
       RedisTemplate<String, Object> template) {
     RedisKeyValueAdapter keyValueAdapter = new RedisKeyValueAdapter(
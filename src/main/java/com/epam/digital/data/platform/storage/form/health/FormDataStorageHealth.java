@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.health;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Snapshot of the storage health observed by {@link FormDataStorageProbe}. Intended to be exposed
+ * as a health or readiness indicator of the application.
+ */
+@Value
+@Builder(toBuilder = true)
+public class FormDataStorageHealth {
+
+  HealthStatus status;
+  int consecutiveFailures;
+  String lastError;
+  /**
+   * Address of the current redis master, null for the storages without a master
+   */
+  String master;
+  Instant masterChangedAt;
+  /**
+   * Latency percentiles of the recent round trips by operation
+   */
+  Map<String, Duration> p50Latencies;
+  Map<String, Duration> p99Latencies;
+
+  /**
+   * A degraded storage still serves requests. Nodes share the storage and observe the same
+   * degradation, so draining them on it, e.g. on a single failed round trip or a failover, would
+   * take the whole fleet out of traffic at once.
+   *
+   * @return true if the node may receive traffic, i.e. the storage is up or degraded
+   */
+  public boolean isReady() {
+    return status == HealthStatus.UP || status == HealthStatus.DEGRADED;
+  }
+}
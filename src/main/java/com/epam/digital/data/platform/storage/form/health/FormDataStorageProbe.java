@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.health;
+
+import com.epam.digital.data.platform.storage.form.config.ProbeConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.repository.FormDataRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background prober of a storage. Periodically runs put, get and delete round trips through the
+ * repository on a key reserved for the probe instance and keeps rolling latency percentiles of each
+ * operation. Optionally tracks the identity of the redis master, so that failovers are reported.
+ * The resulting {@link FormDataStorageHealth} lets load balancers drain a node once the storage is
+ * down, slowness and failovers are reported as degradation only. A round trip that hangs is
+ * reported while in progress: as degradation once it exceeds the latency threshold and as an
+ * outage once the failure threshold of round trips could have run in the meantime.
+ */
+@Slf4j
+public class FormDataStorageProbe {
+
+  private static final String METRIC_PREFIX = "form.data.storage.probe";
+  private static final String[] OPERATIONS = {"put", "get", "delete"};
+
+  private final FormDataRepository<?> repository;
+  private final ProbeConfiguration configuration;
+  private final Supplier<String> masterSupplier;
+  private final ScheduledExecutorService scheduler;
+  private final Clock clock;
+  private final String key;
+
+  private final Map<String, long[]> latencies = new LinkedHashMap<>();
+  private final Map<String, Timer> timers = new LinkedHashMap<>();
+  private final Counter failures;
+  private int latenciesCount;
+  private int latenciesPosition;
+  private int consecutiveFailures;
+  private String lastError;
+  private String master;
+  private Instant masterChangedAt;
+  private volatile FormDataStorageHealth health;
+  private volatile Instant roundTripStartedAt;
+
+  public FormDataStorageProbe(String backend, FormDataRepository<?> repository,
+      ProbeConfiguration configuration, Supplier<String> masterSupplier,
+      ScheduledExecutorService scheduler, MeterRegistry meterRegistry, Clock clock) {
+    this.repository = repository;
+    this.configuration = configuration;
+    this.masterSupplier = masterSupplier;
+    this.scheduler = scheduler;
+    this.clock = clock;
+    this.key = configuration.getKeyPrefix() + UUID.randomUUID();
+    for (var operation : OPERATIONS) {
+      latencies.put(operation, new long[configuration.getWindow()]);
+      timers.put(operation, Timer.builder(METRIC_PREFIX + ".latency")
+          .tag("backend", backend)
+          .tag("operation", operation)
+          .publishPercentiles(0.5, 0.99)
+          .register(meterRegistry));
+    }
+    this.failures = Counter.builder(METRIC_PREFIX + ".failures")
+        .tag("backend", backend)
+        .register(meterRegistry);
+    this.health = FormDataStorageHealth.builder()
+        .status(HealthStatus.UNKNOWN)
+        .p50Latencies(Map.of())
+        .p99Latencies(Map.of())
+        .build();
+    Gauge.builder(METRIC_PREFIX + ".ready", this, probe -> probe.getHealth().isReady() ? 1 : 0)
+        .tag("backend", backend)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Schedule round trips with the configured interval, the first one is run immediately
+   */
+  public void start() {
+    scheduler.scheduleWithFixedDelay(this::probe, 0,
+        configuration.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return health observed by the latest round trip, downgraded if the current one is overdue
+   */
+  public FormDataStorageHealth getHealth() {
+    var currentHealth = health;
+    var startedAt = roundTripStartedAt;
+    if (Objects.isNull(startedAt) || currentHealth.getStatus() == HealthStatus.DOWN) {
+      return currentHealth;
+    }
+    var elapsed = Duration.between(startedAt, clock.instant());
+    if (elapsed.compareTo(configuration.getLatencyThreshold()) <= 0) {
+      return currentHealth;
+    }
+    var outage = configuration.getInterval().multipliedBy(configuration.getFailureThreshold());
+    return currentHealth.toBuilder()
+        .status(elapsed.compareTo(outage) > 0 ? HealthStatus.DOWN : HealthStatus.DEGRADED)
+        .lastError("Round trip is in progress for " + elapsed)
+        .build();
+  }
+
+  /**
+   * Run a single round trip and update the health
+   */
+  public synchronized void probe() {
+    trackMaster();
+    roundTripStartedAt = clock.instant();
+    try {
+      var put = measure(() -> repository.putFormData(FormDataInputWrapperDto.builder()
+          .key(key)
+          .formData(FormDataDto.builder()
+              .data(new LinkedHashMap<>(Map.of("probedAt", clock.millis())))
+              .build())
+          .build()));
+      var found = new boolean[1];
+      var get = measure(() -> found[0] = repository.getFormData(key).isPresent());
+      var delete = measure(() -> repository.delete(Set.of(key)));
+      if (!found[0]) {
+        throw new IllegalStateException("Probe form data is missing after put");
+      }
+      record(put, get, delete);
+      consecutiveFailures = 0;
+      lastError = null;
+    } catch (RuntimeException ex) {
+      log.warn("Storage probe failed", ex);
+      failures.increment();
+      consecutiveFailures++;
+      lastError = Objects.toString(ex.getMessage(), ex.getClass().getName());
+    }
+    health = evaluate();
+    roundTripStartedAt = null;
+  }
+
+  private void trackMaster() {
+    if (Objects.isNull(masterSupplier)) {
+      return;
+    }
+    try {
+      var currentMaster = masterSupplier.get();
+      if (Objects.nonNull(master) && !master.equals(currentMaster)) {
+        log.warn("Redis master changed from {} to {}", master, currentMaster);
+        masterChangedAt = clock.instant();
+      }
+      master = currentMaster;
+    } catch (RuntimeException ex) {
+      log.warn("Couldn't resolve redis master", ex);
+    }
+  }
+
+  private long measure(Runnable operation) {
+    var start = System.nanoTime();
+    operation.run();
+    return System.nanoTime() - start;
+  }
+
+  private void record(long... operationLatencies) {
+    for (var i = 0; i < OPERATIONS.length; i++) {
+      latencies.get(OPERATIONS[i])[latenciesPosition] = operationLatencies[i];
+      timers.get(OPERATIONS[i]).record(operationLatencies[i], TimeUnit.NANOSECONDS);
+    }
+    latenciesPosition = (latenciesPosition + 1) % configuration.getWindow();
+    latenciesCount = Math.min(configuration.getWindow(), latenciesCount + 1);
+  }
+
+  private FormDataStorageHealth evaluate() {
+    var p50Latencies = new LinkedHashMap<String, Duration>();
+    var p99Latencies = new LinkedHashMap<String, Duration>();
+    latencies.forEach((operation, window) -> {
+      if (latenciesCount > 0) {
+        var sorted = Arrays.copyOf(window, latenciesCount);
+        Arrays.sort(sorted);
+        p50Latencies.put(operation, Duration.ofNanos(percentile(sorted, 0.5)));
+        p99Latencies.put(operation, Duration.ofNanos(percentile(sorted, 0.99)));
+      }
+    });
+    return FormDataStorageHealth.builder()
+        .status(status(p99Latencies))
+        .consecutiveFailures(consecutiveFailures)
+        .lastError(lastError)
+        .master(master)
+        .masterChangedAt(masterChangedAt)
+        .p50Latencies(p50Latencies)
+        .p99Latencies(p99Latencies)
+        .build();
+  }
+
+  private HealthStatus status(Map<String, Duration> p99Latencies) {
+    if (consecutiveFailures >= configuration.getFailureThreshold()) {
+      return HealthStatus.DOWN;
+    }
+    if (latenciesCount == 0) {
+      return consecutiveFailures > 0 ? HealthStatus.DOWN : HealthStatus.UNKNOWN;
+    }
+    var slow = p99Latencies.values().stream()
+        .anyMatch(latency -> latency.compareTo(configuration.getLatencyThreshold()) > 0);
+    var failingOver = Objects.nonNull(masterChangedAt) && clock.instant()
+        .isBefore(masterChangedAt.plus(configuration.getFailoverGracePeriod()));
+    return slow || failingOver || consecutiveFailures > 0 ? HealthStatus.DEGRADED
+        : HealthStatus.UP;
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+  }
+}
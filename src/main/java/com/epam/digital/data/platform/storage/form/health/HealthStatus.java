@@ -0,0 +1,35 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.health;
+
+/**
+ * Health status of the storage evaluated by {@link FormDataStorageProbe}
+ */
+public enum HealthStatus {
+
+  /**
+   * No round trip is completed yet
+   */
+  UNKNOWN,
+  UP,
+  /**
+   * The storage responds, but slower than the threshold, fails occasionally or has just failed
+   * over. Reported without making the node unready.
+   */
+  DEGRADED,
+  DOWN
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.migration;
+
+import com.epam.digital.data.platform.storage.form.exception.FormDataMigrationException;
+import com.epam.digital.data.platform.storage.form.model.MigrationCheckpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores migration checkpoints as json files named by the migration id. A checkpoint is written to
+ * a temporary file first and moved over the previous one, so a crash never leaves it torn.
+ */
+public class FileMigrationCheckpointStore implements MigrationCheckpointStore {
+
+  private final Path directory;
+  private final ObjectMapper objectMapper;
+
+  public FileMigrationCheckpointStore(Path directory, ObjectMapper objectMapper) {
+    this.directory = directory;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public Optional<MigrationCheckpoint> load(String migrationId) {
+    var file = getFile(migrationId);
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(objectMapper.readValue(file.toFile(), MigrationCheckpoint.class));
+    } catch (IOException ex) {
+      throw new FormDataMigrationException(
+          String.format("Couldn't read checkpoint of migration %s", migrationId), ex);
+    }
+  }
+
+  @Override
+  public void save(MigrationCheckpoint checkpoint) {
+    var file = getFile(checkpoint.getMigrationId());
+    var temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(directory);
+      objectMapper.writeValue(temporaryFile.toFile(), checkpoint);
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      throw new FormDataMigrationException(String.format("Couldn't save checkpoint of migration %s",
+          checkpoint.getMigrationId()), ex);
+    }
+  }
+
+  private Path getFile(String migrationId) {
+    return directory.resolve(migrationId + ".json");
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.migration;
+
+import com.epam.digital.data.platform.storage.form.config.FormDataTransferConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataMigrationException;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProvider;
+import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exports forms as newline-delimited json, a line per form in the format of
+ * {@link FormDataInputWrapperDto}. Forms are fetched in parallel within a bounded window and
+ * written in the order of the keys, so memory use doesn't depend on the number of exported forms.
+ */
+@Slf4j
+@Builder
+public class FormDataExporter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FormDataStorageService<?> source;
+  private final FormDataTransferConfiguration configuration;
+  private final FormDataKeyProvider keyProvider;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Export forms, the output stream is flushed but not closed
+   *
+   * @param keys   keys of the exported forms, the keys of missing forms are skipped
+   * @param output stream the forms are written to
+   * @return number of exported forms
+   */
+  public long export(Stream<String> keys, OutputStream output) {
+    var executor = Executors.newFixedThreadPool(configuration.getParallelism(),
+        new ThreadFactoryBuilder()
+            .setNameFormat("form-data-export-%d")
+            .setDaemon(true)
+            .build());
+    var window = new ArrayDeque<Future<Optional<FormDataInputWrapperDto>>>();
+    var windowSize = 2 * configuration.getParallelism();
+    try {
+      var compressed = configuration.isCompress()
+          ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+      var writer = new BufferedWriter(new OutputStreamWriter(
+          Objects.nonNull(compressed) ? compressed : output, StandardCharsets.UTF_8), BUFFER_SIZE);
+      var exported = 0L;
+      var iterator = keys.iterator();
+      while (iterator.hasNext() || !window.isEmpty()) {
+        while (iterator.hasNext() && window.size() < windowSize) {
+          var key = iterator.next();
+          window.add(executor.submit(() -> fetch(key)));
+        }
+        var record = await(window.poll());
+        if (record.isPresent()) {
+          writer.write(objectMapper.writeValueAsString(record.get()));
+          writer.write('\n');
+          exported++;
+        }
+      }
+      writer.flush();
+      if (Objects.nonNull(compressed)) {
+        compressed.finish();
+      }
+      output.flush();
+      log.info("Exported {} forms", exported);
+      return exported;
+    } catch (IOException ex) {
+      throw new FormDataMigrationException("Couldn't export form data", ex);
+    } finally {
+      window.forEach(future -> future.cancel(true));
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @param processInstanceId specified process instance id
+   * @return filter of the task form and system signature keys of the process instance
+   */
+  public Predicate<String> processInstanceKeys(String processInstanceId) {
+    var taskFormPrefix = keyProvider.getKeyPrefixByProcessInstanceId(processInstanceId);
+    var systemSignaturePrefix = keyProvider.getSystemSignatureKeyPrefix(processInstanceId);
+    return key -> key.startsWith(taskFormPrefix) || key.startsWith(systemSignaturePrefix);
+  }
+
+  /**
+   * @param processDefinitionKey specified process definition key
+   * @return filter of the start form and external system form keys of the process definition
+   */
+  public Predicate<String> processDefinitionKeys(String processDefinitionKey) {
+    var startFormPrefix = keyProvider.getStartFormKeyPrefix(processDefinitionKey);
+    var externalSystemPrefix = keyProvider.getExternalSystemFormKeyPrefix(processDefinitionKey);
+    return key -> key.startsWith(startFormPrefix) || key.startsWith(externalSystemPrefix);
+  }
+
+  private Optional<FormDataInputWrapperDto> fetch(String key) {
+    return source.getFormDataWithSignature(key)
+        .map(formData -> FormDataInputWrapperDto.builder()
+            .key(key)
+            .formData(formData)
+            .processInstanceId(keyProvider.getProcessInstanceIdByKey(key))
+            .build());
+  }
+
+  private Optional<FormDataInputWrapperDto> await(
+      Future<Optional<FormDataInputWrapperDto>> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataMigrationException("Interrupted during export", ex);
+    } catch (ExecutionException ex) {
+      throw new FormDataMigrationException("Couldn't export form data", ex.getCause());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.migration;
+
+import com.epam.digital.data.platform.storage.form.config.FormDataTransferConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataMigrationException;
+import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports forms exported by {@link FormDataExporter}, plain or gzip compressed. Lines are read
+ * sequentially and written by parallel workers, the number of forms waiting to be written is
+ * bounded.
+ */
+@Slf4j
+@Builder
+public class FormDataImporter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FormDataStorageService<?> target;
+  private final FormDataTransferConfiguration configuration;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Import forms, the input stream isn't closed
+   *
+   * @param input stream of newline-delimited json forms
+   * @return number of imported forms
+   * @throws FormDataMigrationException if the input can't be read or a form can't be written
+   */
+  public long importForms(InputStream input) {
+    var executor = Executors.newFixedThreadPool(configuration.getParallelism(),
+        new ThreadFactoryBuilder()
+            .setNameFormat("form-data-import-%d")
+            .setDaemon(true)
+            .build());
+    var windowSize = 2 * configuration.getParallelism();
+    var window = new Semaphore(windowSize);
+    var failure = new AtomicReference<RuntimeException>();
+    try {
+      var reader = new BufferedReader(
+          new InputStreamReader(decompress(input), StandardCharsets.UTF_8), BUFFER_SIZE);
+      var imported = 0L;
+      String line;
+      while (Objects.isNull(failure.get()) && (line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        var record = objectMapper.readValue(line, FormDataInputWrapperDto.class);
+        window.acquire();
+        executor.execute(() -> {
+          try {
+            target.putFormData(record);
+          } catch (RuntimeException ex) {
+            failure.compareAndSet(null, ex);
+          } finally {
+            window.release();
+          }
+        });
+        imported++;
+      }
+      window.acquire(windowSize);
+      if (Objects.nonNull(failure.get())) {
+        throw new FormDataMigrationException("Couldn't import form data", failure.get());
+      }
+      log.info("Imported {} forms", imported);
+      return imported;
+    } catch (IOException ex) {
+      throw new FormDataMigrationException("Couldn't import form data", ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataMigrationException("Interrupted during import", ex);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private InputStream decompress(InputStream input) throws IOException {
+    var pushbackInput = new PushbackInputStream(input, 2);
+    var header = pushbackInput.readNBytes(2);
+    pushbackInput.unread(header);
+    var gzipped = header.length == 2 && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b;
+    return gzipped ? new GZIPInputStream(pushbackInput, BUFFER_SIZE) : pushbackInput;
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.migration;
+
+import com.epam.digital.data.platform.storage.form.config.MigrationConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataMigrationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.MigrationCheckpoint;
+import com.epam.digital.data.platform.storage.form.repository.FormDataKeyScanner;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProvider;
+import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copies all forms of the source storage to the target storage. Keys are scanned page by page and
+ * the forms of a page are copied by parallel workers, optionally rate limited. Progress is saved
+ * to the checkpoint store after every page, an interrupted migration started again with the same
+ * id continues from the last checkpoint. Copies are verified by reading them back and comparing
+ * content checksums.
+ */
+@Slf4j
+@Builder
+public class FormDataMigrator {
+
+  private static final HashFunction CHECKSUM_FUNCTION = Hashing.farmHashFingerprint64();
+
+  private final FormDataStorageService<?> source;
+  private final FormDataKeyScanner sourceScanner;
+  private final FormDataStorageService<?> target;
+  /**
+   * Optional checkpoint store, migration can't be resumed if not set
+   */
+  private final MigrationCheckpointStore checkpointStore;
+  private final MigrationConfiguration configuration;
+  private final FormDataKeyProvider keyProvider;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Migrate forms or continue the interrupted migration
+   *
+   * @param migrationId id of the migration the checkpoints are saved with
+   * @return the final checkpoint with the counts and checksums of the migrated forms
+   * @throws FormDataMigrationException if a form couldn't be copied, the migration can be resumed
+   */
+  public MigrationCheckpoint migrate(String migrationId) {
+    var checkpoint = Optional.ofNullable(checkpointStore)
+        .flatMap(store -> store.load(migrationId))
+        .orElseGet(() -> MigrationCheckpoint.builder().migrationId(migrationId).build());
+    if (checkpoint.isFinished()) {
+      return checkpoint;
+    }
+    var rateLimiter = configuration.getMaxRatePerSecond() > 0
+        ? RateLimiter.create(configuration.getMaxRatePerSecond()) : null;
+    var executor = Executors.newFixedThreadPool(configuration.getParallelism(),
+        new ThreadFactoryBuilder()
+            .setNameFormat("form-data-migration-" + migrationId + "-%d")
+            .setDaemon(true)
+            .build());
+    try {
+      do {
+        var page = sourceScanner.scan(checkpoint.getCursor(), configuration.getBatchSize());
+        checkpoint = merge(checkpoint, page, copyAll(page.getKeys(), executor, rateLimiter));
+        if (Objects.nonNull(checkpointStore)) {
+          checkpointStore.save(checkpoint);
+        }
+        log.info("Migration {}: scanned {}, copied {}, missing {}, mismatched {}", migrationId,
+            checkpoint.getScanned(), checkpoint.getCopied(), checkpoint.getMissing(),
+            checkpoint.getMismatched());
+      } while (!checkpoint.isFinished());
+      return checkpoint;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<CopyResult> copyAll(List<String> keys, ExecutorService executor,
+      RateLimiter rateLimiter) {
+    var futures = new ArrayList<Future<CopyResult>>(keys.size());
+    keys.forEach(key -> futures.add(executor.submit(() -> copy(key, rateLimiter))));
+    var results = new ArrayList<CopyResult>(keys.size());
+    try {
+      for (var i = 0; i < futures.size(); i++) {
+        try {
+          results.add(futures.get(i).get());
+        } catch (ExecutionException ex) {
+          throw new FormDataMigrationException(
+              String.format("Couldn't migrate form data %s", keys.get(i)), ex.getCause());
+        }
+      }
+      return results;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataMigrationException("Interrupted during migration", ex);
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private CopyResult copy(String key, RateLimiter rateLimiter) {
+    if (Objects.nonNull(rateLimiter)) {
+      rateLimiter.acquire();
+    }
+    var formData = source.getFormDataWithSignature(key);
+    if (formData.isEmpty()) {
+      // deleted after the scan
+      return CopyResult.MISSING;
+    }
+    var sourceContent = serialize(formData.get());
+    target.putFormData(FormDataInputWrapperDto.builder()
+        .key(key)
+        .formData(formData.get())
+        .processInstanceId(keyProvider.getProcessInstanceIdByKey(key))
+        .build());
+    var sourceChecksum = checksum(sourceContent);
+    if (!configuration.isVerify()) {
+      return new CopyResult(false, false, sourceChecksum, sourceChecksum);
+    }
+    var targetContent = target.getFormDataWithSignature(key).map(this::serialize).orElse(null);
+    var mismatched = !sourceContent.equals(targetContent);
+    if (mismatched) {
+      log.warn("Form data {} differs from the source after migration", key);
+    }
+    return new CopyResult(false, mismatched, sourceChecksum,
+        Objects.isNull(targetContent) ? 0 : checksum(targetContent));
+  }
+
+  private MigrationCheckpoint merge(MigrationCheckpoint checkpoint, FormDataKeyPage page,
+      List<CopyResult> results) {
+    var merged = checkpoint.toBuilder()
+        .cursor(page.getCursor())
+        .finished(Objects.isNull(page.getCursor()))
+        .scanned(checkpoint.getScanned() + page.getKeys().size());
+    var copied = checkpoint.getCopied();
+    var missing = checkpoint.getMissing();
+    var mismatched = checkpoint.getMismatched();
+    var sourceChecksum = checkpoint.getSourceChecksum();
+    var targetChecksum = checkpoint.getTargetChecksum();
+    for (var result : results) {
+      if (result.missing) {
+        missing++;
+        continue;
+      }
+      copied++;
+      mismatched += result.mismatched ? 1 : 0;
+      sourceChecksum += result.sourceChecksum;
+      targetChecksum += result.targetChecksum;
+    }
+    return merged.copied(copied)
+        .missing(missing)
+        .mismatched(mismatched)
+        .sourceChecksum(sourceChecksum)
+        .targetChecksum(targetChecksum)
+        .build();
+  }
+
+  private long checksum(String content) {
+    return CHECKSUM_FUNCTION.hashString(content, StandardCharsets.UTF_8).asLong();
+  }
+
+  private String serialize(FormDataDto formData) {
+    try {
+      return objectMapper.writeValueAsString(formData);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Couldn't serialize form data", e);
+    }
+  }
+
+  private static class CopyResult {
+
+    private static final CopyResult MISSING = new CopyResult(true, false, 0, 0);
+
+    private final boolean missing;
+    private final boolean mismatched;
+    private final long sourceChecksum;
+    private final long targetChecksum;
+
+    private CopyResult(boolean missing, boolean mismatched, long sourceChecksum,
+        long targetChecksum) {
+      this.missing = missing;
+      this.mismatched = mismatched;
+      this.sourceChecksum = sourceChecksum;
+      this.targetChecksum = targetChecksum;
+    }
+  }
+}
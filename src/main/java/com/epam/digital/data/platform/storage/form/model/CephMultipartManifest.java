@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored under the form data key instead of the content when form data is uploaded in parts
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"x-multipart-upload-id", "x-multipart-parts", "x-multipart-length"})
+public class CephMultipartManifest {
+
+  public static final String MARKER = "{\"x-multipart-upload-id\"";
+
+  @JsonProperty("x-multipart-upload-id")
+  private String uploadId;
+  @JsonProperty("x-multipart-parts")
+  private int parts;
+  @JsonProperty("x-multipart-length")
+  private int length;
+}
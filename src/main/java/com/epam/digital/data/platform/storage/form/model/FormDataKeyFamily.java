@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.model;
+
+import com.epam.digital.data.platform.storage.form.repository.RedisFormDataRepository;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Families of form data keys generated by
+ * {@link com.epam.digital.data.platform.storage.form.service.FormDataKeyProvider}
+ */
+public enum FormDataKeyFamily {
+
+  SIGNATURE(".+~signature"),
+  TASK("process/[^/]+/task/([^/~]+)"),
+  START_FORM("process-definition/([^/~]+)/start-form/[^/~]+"),
+  BATCH_SYSTEM_SIGNATURE("lowcode_.+_system_signature_ceph_key_.+"),
+  SYSTEM_SIGNATURE("lowcode_.+_system_signature_ceph_key"),
+  EXTERNAL_SYSTEM_FORM("lowcode_(.+)_start_form_.+"),
+  OTHER(".*");
+
+  private static final String REDIS_KEY_PREFIX = RedisFormDataRepository.KEY_PREFIX + ":";
+
+  private final Pattern pattern;
+
+  FormDataKeyFamily(String regex) {
+    this.pattern = Pattern.compile(regex);
+  }
+
+  /**
+   * @param key form data key, the redis key prefix is ignored
+   * @return family of the key
+   */
+  public static FormDataKeyFamily of(String key) {
+    var formKey = toFormKey(key);
+    return Arrays.stream(values())
+        .filter(family -> family.pattern.matcher(formKey).matches())
+        .findFirst()
+        .orElse(OTHER);
+  }
+
+  /**
+   * @param key form data key, the redis key prefix is ignored
+   * @return task definition key of a task form, process definition key of a start form, empty
+   * for other families
+   */
+  public static Optional<String> getDefinitionKey(String key) {
+    var matcher = of(key).pattern.matcher(toFormKey(key));
+    return matcher.matches() && matcher.groupCount() > 0
+        ? Optional.of(matcher.group(1)) : Optional.empty();
+  }
+
+  private static String toFormKey(String key) {
+    return key.startsWith(REDIS_KEY_PREFIX) ? key.substring(REDIS_KEY_PREFIX.length()) : key;
+  }
+}
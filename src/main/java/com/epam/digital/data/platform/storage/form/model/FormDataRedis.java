@@ -31,4 +31,10 @@ public class FormDataRedis {
   private String data;
   private String accessToken;
   private String signature;
+  private String fingerprint;
+  /**
+   * Reference to the chunks the data is split into, the data itself is null if set
+   */
+  private String chunkId;
+  private Integer chunkCount;
 }
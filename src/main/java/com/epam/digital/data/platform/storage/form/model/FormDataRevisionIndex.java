@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Index of the revision history of a form: number and content hash of the latest revision, the
+ * deltas of the previous ones, oldest first, and the deltas of the broken histories
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormDataRevisionIndex {
+
+  private int latest;
+  private String hash;
+  @Builder.Default
+  private List<Delta> deltas = new ArrayList<>();
+  /**
+   * Deltas of the previous histories that no longer match the form, oldest first. They can't be
+   * applied, but are kept for recovery within the retention limits.
+   */
+  @Builder.Default
+  private List<Delta> detachedDeltas = new ArrayList<>();
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Delta {
+
+    /**
+     * Number of the revision the delta restores from the next one
+     */
+    private int revision;
+    private long bytes;
+  }
+}
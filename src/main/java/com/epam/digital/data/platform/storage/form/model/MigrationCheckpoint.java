@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a migration saved after every migrated page of keys
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class MigrationCheckpoint {
+
+  private String migrationId;
+  /**
+   * Scan cursor of the next page, null if the migration is finished
+   */
+  private String cursor;
+  private boolean finished;
+  private long scanned;
+  private long copied;
+  private long missing;
+  private long mismatched;
+  /**
+   * Order independent sums of the source and target content fingerprints of the copied forms
+   */
+  private long sourceChecksum;
+  private long targetChecksum;
+}
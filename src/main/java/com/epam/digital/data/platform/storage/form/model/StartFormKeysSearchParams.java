@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Search parameters of a page of the start form keys of a process definition
+ */
+@Data
+@Builder
+public class StartFormKeysSearchParams {
+
+  private String processDefinitionKey;
+  /**
+   * Prefix of the start form keys of the process definition
+   */
+  private String prefix;
+  /**
+   * Cursor returned with the previous page, null for the first page
+   */
+  private String cursor;
+  /**
+   * Hint of the number of keys in the page
+   */
+  private int count;
+}
@@ -21,16 +21,37 @@ import com.epam.digital.data.platform.integration.ceph.exception.CephCommunicati
 import com.epam.digital.data.platform.integration.ceph.exception.MisconfigurationException;
 import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
 import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryMisconfigurationException;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 @Slf4j
 public abstract class BaseCephRepository {
 
+    /**
+     * @return executor that bounds and retries ceph requests, requests are sent directly if null
+     */
+    protected abstract CephRequestExecutor getRequestExecutor();
+
+    /**
+     * @return policy that limits and retries ceph requests, requests are sent as is if null
+     */
+    protected abstract ResiliencePolicy getResiliencePolicy();
+
+    /**
+     * Execute ceph request, the request is retried on communication errors if the policy allows,
+     * so it has to be repeatable
+     */
     protected  <T> T execute(Supplier<T> supplier) {
         try {
-            return supplier.get();
+            var requestExecutor = getRequestExecutor();
+            Supplier<T> request = Objects.isNull(requestExecutor) ? supplier
+                : () -> requestExecutor.execute(supplier);
+            return Optional.ofNullable(getResiliencePolicy()).orElse(ResiliencePolicy.NONE)
+                .execute(request, CephCommunicationException.class::isInstance);
         } catch (CephCommunicationException ex) {
             log.warn("Couldn't get form data from ceph", ex);
             throw new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
@@ -41,14 +62,9 @@ public abstract class BaseCephRepository {
     }
 
     protected void execute(Runnable runnable) {
-        try {
+        execute(() -> {
             runnable.run();
-        } catch (CephCommunicationException ex) {
-            log.warn("Couldn't get form data from ceph", ex);
-            throw new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
-        } catch (MisconfigurationException ex) {
-            log.warn("Ceph configuration error", ex);
-            throw new FormDataRepositoryMisconfigurationException(ex.getMessage(), ex);
-        }
+            return null;
+        });
     }
 }
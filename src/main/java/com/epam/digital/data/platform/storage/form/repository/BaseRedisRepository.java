@@ -18,15 +18,46 @@
 package com.epam.digital.data.platform.storage.form.repository;
 
 import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 
 @Slf4j
 public abstract class BaseRedisRepository {
 
+  /**
+   * @return policy that limits and retries redis requests, requests are sent as is if null
+   */
+  protected abstract ResiliencePolicy getResiliencePolicy();
+
+  /**
+   * Execute redis request, the request is retried on transient errors if the policy allows, so it
+   * has to be repeatable
+   */
   protected <T> T execute(Supplier<T> supplier) {
     try {
-      return supplier.get();
+      return Optional.ofNullable(getResiliencePolicy()).orElse(ResiliencePolicy.NONE)
+          .execute(supplier, BaseRedisRepository::isTransient);
+    } catch (FormDataRepositoryCommunicationException ex) {
+      log.warn("Couldn't get form data from redis", ex);
+      throw ex;
     } catch (RuntimeException ex) {
       log.warn("Couldn't get form data from redis", ex);
       throw new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
@@ -34,11 +65,75 @@ public abstract class BaseRedisRepository {
   }
 
   protected void execute(Runnable runnable) {
-    try {
+    execute(() -> {
       runnable.run();
-    } catch (RuntimeException ex) {
-      log.warn("Couldn't get form data from redis", ex);
-      throw new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
+      return null;
+    });
+  }
+
+  /**
+   * Scan members of a redis set with SSCAN, the cursor is the redis scan cursor
+   *
+   * @param template template of the set
+   * @param setKey   key of the set
+   * @param cursor   cursor returned with the previous page, null to start the scan
+   * @param count    hint of the number of members in the page
+   * @return page of members
+   */
+  protected FormDataKeyPage scanSet(RedisTemplate<String, Object> template, String setKey,
+      String cursor, int count) {
+    return scanSet(template, setKey, cursor, count, null);
+  }
+
+  /**
+   * Scan members of a redis set matching a glob-style pattern with SSCAN, pages may be empty as
+   * members are matched after they're read from the set
+   *
+   * @param template template of the set
+   * @param setKey   key of the set
+   * @param cursor   cursor returned with the previous page, null to start the scan
+   * @param count    hint of the number of members read from the set for the page
+   * @param match    pattern of the members, all members are returned if null
+   * @return page of members
+   */
+  @SuppressWarnings("unchecked")
+  protected FormDataKeyPage scanSet(RedisTemplate<String, Object> template, String setKey,
+      String cursor, int count, String match) {
+    var key = setKey.getBytes(StandardCharsets.UTF_8);
+    var scanCursor = Objects.isNull(cursor) ? ScanCursor.INITIAL : ScanCursor.of(cursor);
+    var scanArgs = ScanArgs.Builder.limit(count);
+    if (Objects.nonNull(match)) {
+      scanArgs.match(match);
     }
+    var timeout = getCommandTimeout(template);
+    var result = execute(() -> template.execute((RedisCallback<FormDataKeyPage>) connection -> {
+      var commands = (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+      var page = LettuceFutures.awaitOrCancel(commands.sscan(key, scanCursor, scanArgs),
+          timeout.toNanos(), TimeUnit.NANOSECONDS);
+      return FormDataKeyPage.builder()
+          .keys(page.getValues().stream()
+              .map(member -> new String(member, StandardCharsets.UTF_8))
+              .collect(Collectors.toList()))
+          .cursor(page.isFinished() ? null : page.getCursor())
+          .build();
+    }));
+    return Objects.requireNonNull(result);
+  }
+
+  /**
+   * Async commands sent through the native connection are awaited within the command timeout of
+   * the template connection factory
+   */
+  private static Duration getCommandTimeout(RedisTemplate<String, Object> template) {
+    var connectionFactory = template.getConnectionFactory();
+    return connectionFactory instanceof LettuceConnectionFactory
+        ? ((LettuceConnectionFactory) connectionFactory).getClientConfiguration()
+            .getCommandTimeout()
+        : RedisURI.DEFAULT_TIMEOUT_DURATION;
+  }
+
+  private static boolean isTransient(RuntimeException ex) {
+    return ex instanceof TransientDataAccessException
+        || ex instanceof DataAccessResourceFailureException;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.integration.ceph.service.CephService;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Scans form data keys of a ceph bucket under the prefix. The ceph client lists all keys under a
+ * prefix at once, so the listing is fetched on the first scan and paged in key order, the cursor
+ * is the last key of the page. Multipart parts and fingerprints are skipped.
+ */
+@Builder
+public class CephFormDataKeyScanner extends BaseCephRepository implements FormDataKeyScanner {
+
+  private final String cephBucketName;
+  private final CephService cephService;
+  private final String prefix;
+  @Getter(AccessLevel.PROTECTED)
+  private final CephRequestExecutor requestExecutor;
+  @Getter(AccessLevel.PROTECTED)
+  private final ResiliencePolicy resiliencePolicy;
+  private NavigableSet<String> keys;
+
+  @Override
+  public synchronized FormDataKeyPage scan(String cursor, int count) {
+    if (Objects.isNull(keys)) {
+      keys = execute(() -> cephService.getKeys(cephBucketName, Objects.toString(prefix, "")))
+          .stream()
+          .filter(CephFormDataRepository::isFormDataKey)
+          .collect(Collectors.toCollection(TreeSet::new));
+    }
+    return SortedKeyPages.page(keys, Objects.toString(prefix, ""), cursor, count);
+  }
+}
@@ -18,50 +18,335 @@
 package com.epam.digital.data.platform.storage.form.repository;
 
 import com.epam.digital.data.platform.integration.ceph.service.CephService;
+import com.epam.digital.data.platform.storage.form.config.CephMultipartConfiguration;
 import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
 import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
 import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.model.CephMultipartManifest;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import com.epam.digital.data.platform.storage.form.tracing.FormDataStorageEvent;
+import com.epam.digital.data.platform.storage.form.tracing.StorageTracer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Utf8;
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Builder
 public class CephFormDataRepository extends BaseCephRepository implements FormDataRepository<CephKeysSearchParams> {
 
+  private static final String BACKEND = "ceph";
+  private static final String PARTS_PREFIX_FORMAT = "%s/parts/";
+  private static final String PART_KEY_FORMAT = "%s/parts/%s/%d";
+  private static final String FINGERPRINT_KEY_FORMAT =
+      "%s" + FormDataKeyProviderImpl.DERIVED_KEY_SEPARATOR + "fingerprint";
+  private static final Pattern INTERNAL_KEY_PATTERN = Pattern.compile(
+      ".+(/parts/[^/]+/\\d+|" + Pattern.quote(String.format(FINGERPRINT_KEY_FORMAT, "")) + ")");
+
   private final String cephBucketName;
   private final CephService cephService;
   private final ObjectMapper objectMapper;
+  @Getter(AccessLevel.PROTECTED)
+  private final CephRequestExecutor requestExecutor;
+  @Getter(AccessLevel.PROTECTED)
+  private final ResiliencePolicy resiliencePolicy;
+  /**
+   * Multipart upload properties and executor used for part transfers, form data is always
+   * uploaded in one request if not set
+   */
+  private final CephMultipartConfiguration multipart;
+  private final ExecutorService multipartExecutor;
+  /**
+   * Enables lookup of parts on deletion while multipart upload is disabled, needed only if forms
+   * were uploaded in parts before it was disabled
+   */
+  private final boolean legacyMultipart;
+  /**
+   * Optional filter of unchanged writes, fingerprints are stored in separate objects next to the
+   * form data if set. Puts without the filter remove the fingerprints, so that the ones written
+   * before the filter was disabled don't go stale
+   */
+  private final FingerprintWriteFilter fingerprintFilter;
+  @Builder.Default
+  private final StorageTracer tracer = StorageTracer.NOOP;
 
   @Override
   public Optional<FormDataDto> getFormData(String key) {
-    return execute(
-        () -> cephService.getAsString(cephBucketName, key).map(this::deserializeFormData));
+    return FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.GET, key, event -> tracer.call("ceph.download", key, span -> {
+              var content = execute(() -> cephService.getAsString(cephBucketName, key))
+                  .map(stored -> joinParts(key, stored));
+              content.ifPresent(stored -> {
+                LongSupplier payloadSize = () -> Utf8.encodedLength(stored);
+                span.tag(StorageTracer.PAYLOAD_BYTES, payloadSize::getAsLong);
+                event.setPayloadBytes(payloadSize);
+              });
+              return content;
+            })
+            .map(content -> tracer.call("form-data.deserialize", key,
+                span -> deserializeFormData(content))));
   }
 
   @Override
   public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
-    execute(
-        () ->
-            cephService.put(
-                cephBucketName,
-                formDataInputWrapperDto.getKey(),
-                serializeFormData(formDataInputWrapperDto.getFormData())));
+    var key = formDataInputWrapperDto.getKey();
+    FormDataStorageEvent.run(FormDataStorageEvent.REPOSITORY, BACKEND, FormDataStorageEvent.PUT,
+        key, event -> {
+          var content = tracer.call("form-data.serialize", key, span -> {
+            var serialized = serializeFormData(formDataInputWrapperDto.getFormData());
+            LongSupplier payloadSize = () -> Utf8.encodedLength(serialized);
+            span.tag(StorageTracer.PAYLOAD_BYTES, payloadSize::getAsLong);
+            event.setPayloadBytes(payloadSize);
+            return serialized;
+          });
+          tracer.run("ceph.upload", key, span -> {
+            if (Objects.isNull(fingerprintFilter)) {
+              execute(() -> cephService.delete(cephBucketName, Set.of(getFingerprintKey(key))));
+              putContent(key, content);
+            } else {
+              putIfChanged(key, content);
+            }
+          });
+        });
+  }
+
+  private void putContent(String key, String content) {
+    if (isMultipartEnabled() && content.length() > multipart.getThreshold()) {
+      putParts(key, content);
+    } else {
+      execute(() -> cephService.put(cephBucketName, key, content));
+    }
+  }
+
+  private void putIfChanged(String key, String content) {
+    var fingerprint = fingerprintFilter.fingerprint(content);
+    var fingerprintKey = getFingerprintKey(key);
+    var storedFingerprint = execute(() -> cephService.getAsString(cephBucketName, fingerprintKey));
+    if (storedFingerprint.filter(fingerprint::equals).isPresent()) {
+      fingerprintFilter.recordSkipped(content);
+      return;
+    }
+    if (storedFingerprint.isPresent()) {
+      // the outdated fingerprint must not survive a failure between the content and fingerprint puts
+      execute(() -> cephService.delete(cephBucketName, Set.of(fingerprintKey)));
+    }
+    putContent(key, content);
+    execute(() -> cephService.put(cephBucketName, fingerprintKey, fingerprint));
+    fingerprintFilter.recordWritten(content);
   }
 
   @Override
   public Set<String> getKeysBySearchParams(CephKeysSearchParams cephKeysSearchParams) {
-    return execute(() -> cephService.getKeys(cephBucketName, cephKeysSearchParams.getPrefix()));
+    return FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.SEARCH, cephKeysSearchParams.getPrefix(),
+        event -> tracer.call("ceph.list", null, span -> {
+          var keys = execute(
+              () -> cephService.getKeys(cephBucketName, cephKeysSearchParams.getPrefix()));
+          span.tag(StorageTracer.KEY_COUNT, keys.size());
+          event.setKeyCount(keys.size());
+          return keys;
+        }));
+  }
+
+  /**
+   * The ceph client has no paged listing, so the prefix is listed at once, but only when the
+   * stream is consumed
+   */
+  @Override
+  public Stream<String> streamKeysBySearchParams(CephKeysSearchParams cephKeysSearchParams,
+      int pageSize) {
+    return Stream.of(cephKeysSearchParams)
+        .flatMap(searchParams -> getKeysBySearchParams(searchParams).stream());
+  }
+
+  @Override
+  public CephKeysSearchParams getSearchParamsByPrefix(String prefix) {
+    return CephKeysSearchParams.builder().prefix(prefix).build();
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.SEARCH, searchParams.getPrefix(), event -> {
+          var keys = execute(() -> cephService.getKeys(cephBucketName, searchParams.getPrefix()))
+              .stream()
+              .filter(CephFormDataRepository::isFormDataKey)
+              .collect(Collectors.toCollection(TreeSet::new));
+          event.setKeyCount(keys.size());
+          return SortedKeyPages.page(keys, searchParams.getPrefix(), searchParams.getCursor(),
+              searchParams.getCount());
+        });
   }
 
   @Override
   public void delete(Set<String> keys) {
-    execute(() -> cephService.delete(cephBucketName, keys));
+    FormDataStorageEvent.run(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.DELETE, keys, () -> {
+          var keysToDelete = withRelatedKeys(keys);
+          tracer.run("ceph.delete", keysToDelete,
+              () -> execute(() -> cephService.delete(cephBucketName, keysToDelete)));
+        });
+  }
+
+  /**
+   * Parts are looked up only if multipart upload is configured or was enabled before, each key
+   * costs a listing request
+   */
+  private Set<String> withRelatedKeys(Set<String> keys) {
+    var keysToDelete = Objects.nonNull(multipart) || legacyMultipart ? withPartKeys(keys) : keys;
+    var keysWithFingerprints = new HashSet<>(keysToDelete);
+    keys.forEach(key -> keysWithFingerprints.add(getFingerprintKey(key)));
+    return keysWithFingerprints;
+  }
+
+  /**
+   * @param key ceph object key
+   * @return false if the object is a multipart part, fingerprint, signature or revision history
+   * entry of form data, or a compression dictionary
+   */
+  public static boolean isFormDataKey(String key) {
+    return !INTERNAL_KEY_PATTERN.matcher(key).matches()
+        && !SignatureSeparatingFormDataRepository.isSignatureKey(key)
+        && !RevisionHistoryFormDataRepository.isRevisionKey(key)
+        && !CompressingFormDataRepository.isDictionaryKey(key);
+  }
+
+  private boolean isMultipartEnabled() {
+    return Objects.nonNull(multipart) && Objects.nonNull(multipartExecutor);
+  }
+
+  private void putParts(String key, String content) {
+    var partSize = multipart.getPartSize();
+    var manifest = CephMultipartManifest.builder()
+        .uploadId(UUID.randomUUID().toString())
+        .parts((content.length() + partSize - 1) / partSize)
+        .length(content.length())
+        .build();
+    log.debug("Uploading form data {} in {} parts", key, manifest.getParts());
+
+    var uploads = IntStream.range(0, manifest.getParts())
+        .mapToObj(part -> {
+          var partKey = getPartKey(key, manifest.getUploadId(), part);
+          var partContent = content.substring(part * partSize,
+              Math.min(content.length(), (part + 1) * partSize));
+          return (Supplier<Void>) () -> {
+            execute(() -> cephService.put(cephBucketName, partKey, partContent));
+            return null;
+          };
+        })
+        .collect(Collectors.toList());
+    runAll(uploads);
+
+    execute(() -> cephService.put(cephBucketName, key, serializeManifest(manifest)));
+    deleteStaleParts(key, manifest.getUploadId());
+  }
+
+  private String joinParts(String key, String content) {
+    if (!content.startsWith(CephMultipartManifest.MARKER)) {
+      return content;
+    }
+    var manifest = deserializeManifest(content);
+    var downloads = IntStream.range(0, manifest.getParts())
+        .mapToObj(part -> (Supplier<String>) () -> {
+          var partKey = getPartKey(key, manifest.getUploadId(), part);
+          return execute(() -> cephService.getAsString(cephBucketName, partKey))
+              .orElseThrow(() -> new IllegalStateException(
+                  String.format("Form data part %s is missing", partKey)));
+        })
+        .collect(Collectors.toList());
+
+    var joined = new StringBuilder(manifest.getLength());
+    runAll(downloads).forEach(joined::append);
+    return joined.toString();
+  }
+
+  private void deleteStaleParts(String key, String uploadId) {
+    var currentUploadPrefix = String.format(PARTS_PREFIX_FORMAT, key) + uploadId + "/";
+    var staleParts = execute(
+        () -> cephService.getKeys(cephBucketName, String.format(PARTS_PREFIX_FORMAT, key)))
+        .stream()
+        .filter(partKey -> !partKey.startsWith(currentUploadPrefix))
+        .collect(Collectors.toSet());
+    if (!staleParts.isEmpty()) {
+      execute(() -> cephService.delete(cephBucketName, staleParts));
+    }
+  }
+
+  /**
+   * Part prefixes of the keys are listed concurrently on the multipart executor if it's set
+   */
+  private Set<String> withPartKeys(Set<String> keys) {
+    var keysWithParts = new HashSet<>(keys);
+    var listings = keys.stream()
+        .map(key -> (Supplier<Set<String>>) () -> execute(
+            () -> cephService.getKeys(cephBucketName, String.format(PARTS_PREFIX_FORMAT, key))))
+        .collect(Collectors.toList());
+    runAll(listings).forEach(keysWithParts::addAll);
+    return keysWithParts;
+  }
+
+  private String getFingerprintKey(String key) {
+    return String.format(FINGERPRINT_KEY_FORMAT, key);
+  }
+
+  private String getPartKey(String key, String uploadId, int part) {
+    return String.format(PART_KEY_FORMAT, key, uploadId, part);
+  }
+
+  /**
+   * Tasks run sequentially on the caller thread if multipart is disabled, objects uploaded in
+   * parts before it was disabled stay readable
+   */
+  private <T> List<T> runAll(List<Supplier<T>> tasks) {
+    if (Objects.isNull(multipartExecutor)) {
+      return tasks.stream().map(Supplier::get).collect(Collectors.toList());
+    }
+    var futures = tasks.stream()
+        .map(task -> multipartExecutor.submit(task::get))
+        .collect(Collectors.toList());
+    var results = new ArrayList<T>(futures.size());
+    try {
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataRepositoryCommunicationException("Interrupted during multipart transfer", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
   }
 
   private FormDataDto deserializeFormData(String formData) {
@@ -79,4 +364,20 @@ public class CephFormDataRepository extends BaseCephRepository implements FormDa
       throw new IllegalArgumentException("Couldn't serialize form data", e);
     }
   }
+
+  private CephMultipartManifest deserializeManifest(String manifest) {
+    try {
+      return objectMapper.readValue(manifest, CephMultipartManifest.class);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't deserialize multipart manifest", e);
+    }
+  }
+
+  private String serializeManifest(CephMultipartManifest manifest) {
+    try {
+      return objectMapper.writeValueAsString(manifest);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Couldn't serialize multipart manifest", e);
+    }
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.CephClientConfiguration;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executes ceph requests within a bounded number of concurrent connections. Exposes connection pool
+ * utilisation metrics.
+ */
+public class CephRequestExecutor {
+
+  private static final String METRIC_PREFIX = "form.data.storage.ceph.connections";
+
+  private final int maxConnections;
+  private final Semaphore connections;
+  private final Duration acquisitionTimeout;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Timer acquisitionTimer;
+  private final Counter rejections;
+
+  public CephRequestExecutor(CephClientConfiguration configuration, MeterRegistry meterRegistry,
+      String bucket) {
+    this.maxConnections = configuration.getMaxConnections();
+    this.connections = new Semaphore(maxConnections, true);
+    this.acquisitionTimeout = configuration.getConnectionAcquisitionTimeout();
+
+    Gauge.builder(METRIC_PREFIX + ".active", connections,
+            c -> (double) maxConnections - c.availablePermits())
+        .tag("bucket", bucket)
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + ".max", () -> maxConnections)
+        .tag("bucket", bucket)
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + ".pending", pending, AtomicInteger::get)
+        .tag("bucket", bucket)
+        .register(meterRegistry);
+    this.acquisitionTimer = Timer.builder(METRIC_PREFIX + ".acquire")
+        .tag("bucket", bucket)
+        .register(meterRegistry);
+    this.rejections = Counter.builder(METRIC_PREFIX + ".rejected")
+        .tag("bucket", bucket)
+        .register(meterRegistry);
+  }
+
+  public <T> T execute(Supplier<T> request) {
+    acquire();
+    try {
+      return request.get();
+    } finally {
+      connections.release();
+    }
+  }
+
+  private void acquire() {
+    pending.incrementAndGet();
+    var sample = Timer.start();
+    try {
+      if (!connections.tryAcquire(acquisitionTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        rejections.increment();
+        throw new FormDataRepositoryCommunicationException(
+            String.format("Couldn't acquire ceph connection within %s", acquisitionTimeout), null);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataRepositoryCommunicationException(
+          "Interrupted while waiting for ceph connection", ex);
+    } finally {
+      pending.decrementAndGet();
+      sample.stop(acquisitionTimer);
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that coalesces concurrent reads of the same key: the first read is sent to the
+ * delegate, reads of the key that arrive while it is in flight wait for its result instead of
+ * sending their own requests. Every waiter receives its own copy of the form data, so the callers
+ * can't observe each other's modifications. Reads of a key being written or deleted aren't
+ * coalesced and the in-flight read is detached once the write completes, so reads started after a
+ * write are never served with the data read before it.
+ */
+public class CoalescingFormDataRepository<T> implements FormDataRepository<T> {
+
+  private static final String METRIC_PREFIX = "form.data.storage.coalescing";
+
+  private final FormDataRepository<T> delegate;
+  private final ConcurrentMap<String, CompletableFuture<Optional<FormDataDto>>> inFlight =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Integer> writesInProgress = new ConcurrentHashMap<>();
+
+  private final Counter reads;
+  private final Counter coalescedReads;
+
+  public CoalescingFormDataRepository(FormDataRepository<T> delegate,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.reads = meterRegistry.counter(METRIC_PREFIX + ".reads");
+    this.coalescedReads = meterRegistry.counter(METRIC_PREFIX + ".coalesced");
+    Gauge.builder(METRIC_PREFIX + ".in-flight", inFlight, Map::size).register(meterRegistry);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    reads.increment();
+    if (writesInProgress.containsKey(key)) {
+      return delegate.getFormData(key);
+    }
+    while (true) {
+      var read = new CompletableFuture<Optional<FormDataDto>>();
+      var leaderRead = inFlight.putIfAbsent(key, read);
+      if (leaderRead == null) {
+        return lead(key, read);
+      }
+      coalescedReads.increment();
+      try {
+        return leaderRead.get().map(CoalescingFormDataRepository::copy);
+      } catch (CancellationException ex) {
+        // the leader was interrupted, its failure doesn't concern the waiters, so read again
+      } catch (ExecutionException ex) {
+        throw unwrap(ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new FormDataRepositoryCommunicationException("Interrupted while reading form data",
+            ex);
+      }
+    }
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return delegate.getFormDataWithSignature(key);
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    return delegate.getSignature(key);
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return delegate.getRevisions(key);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return delegate.getFormDataRevision(key, revision);
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    write(Set.of(formDataInputWrapperDto.getKey()),
+        () -> delegate.putFormData(formDataInputWrapperDto));
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return delegate.getKeysBySearchParams(searchParams);
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return delegate.streamKeysBySearchParams(searchParams, pageSize);
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return delegate.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return delegate.getStartFormKeys(searchParams);
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    write(keys, () -> delegate.delete(keys));
+  }
+
+  /**
+   * A read registered concurrently with the write may return the data read before it, so it's
+   * detached once more after the write completes
+   */
+  private void write(Set<String> keys, Runnable write) {
+    keys.forEach(key -> {
+      writesInProgress.merge(key, 1, Integer::sum);
+      inFlight.remove(key);
+    });
+    try {
+      write.run();
+    } finally {
+      keys.forEach(key -> {
+        inFlight.remove(key);
+        writesInProgress.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+      });
+    }
+  }
+
+  private Optional<FormDataDto> lead(String key,
+      CompletableFuture<Optional<FormDataDto>> read) {
+    try {
+      var result = delegate.getFormData(key);
+      inFlight.remove(key, read);
+      read.complete(result);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      inFlight.remove(key, read);
+      if (Thread.currentThread().isInterrupted()) {
+        read.cancel(false);
+      } else {
+        read.completeExceptionally(ex);
+      }
+      throw ex;
+    }
+  }
+
+  private RuntimeException unwrap(Throwable ex) {
+    return ex instanceof RuntimeException ? (RuntimeException) ex
+        : new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
+  }
+
+  private static FormDataDto copy(FormDataDto formData) {
+    return FormDataDto.builder()
+        .data(formData.getData() == null ? null : copyMap(formData.getData()))
+        .accessToken(formData.getAccessToken())
+        .signature(formData.getSignature())
+        .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object copyValue(Object value) {
+    if (value instanceof Map) {
+      return copyMap((Map<String, Object>) value);
+    }
+    if (value instanceof List) {
+      var copy = new ArrayList<>(((List<?>) value).size());
+      ((List<?>) value).forEach(item -> copy.add(copyValue(item)));
+      return copy;
+    }
+    return value;
+  }
+
+  private static LinkedHashMap<String, Object> copyMap(Map<String, Object> map) {
+    var copy = new LinkedHashMap<String, Object>(map.size() * 4 / 3 + 1);
+    map.forEach((name, value) -> copy.put(name, copyValue(value)));
+    return copy;
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.service.CompactFormDataKeyCodec;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProvider;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that stores forms under the compact keys produced by
+ * {@link FormDataKeyProvider#toCompactKey(String)}, while the callers keep using the original
+ * keys: the keys returned by searches are decoded back. During the migration period the forms
+ * written before the compact keys were enabled are read from their legacy keys if missing under
+ * the compact ones. Deletions remove the legacy copies, rewrites only remove the ones found by a
+ * fallback read of this instance, so writing a new form costs no extra request. Once no legacy
+ * keys are left, see {@link #countLegacyKeys(FormDataKeyScanner, int)}, the fallback is disabled
+ * to save the extra request of every miss.
+ * <p>
+ * Reads and deletions don't intern key components: a key whose compact form was never interned
+ * can only be stored under its legacy key.
+ */
+public class CompactKeyFormDataRepository<T> implements FormDataRepository<T> {
+
+  private static final String HASH_KEY_PREFIX = RedisFormDataRepository.KEY_PREFIX + ":";
+  private static final long MAX_TRACKED_LEGACY_KEYS = 100_000L;
+
+  private final FormDataRepository<T> delegate;
+  private final FormDataKeyProvider keyProvider;
+  private final boolean legacyFallback;
+  private final Cache<String, Boolean> readLegacyKeys = CacheBuilder.newBuilder()
+      .maximumSize(MAX_TRACKED_LEGACY_KEYS)
+      .build();
+
+  public CompactKeyFormDataRepository(FormDataRepository<T> delegate,
+      FormDataKeyProvider keyProvider, boolean legacyFallback) {
+    this.delegate = delegate;
+    this.keyProvider = keyProvider;
+    this.legacyFallback = legacyFallback;
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    return read(key, delegate::getFormData);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return read(key, delegate::getFormDataWithSignature);
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    return read(key, delegate::getSignature);
+  }
+
+  /**
+   * Count the forms stored under the legacy keys
+   *
+   * @param scanner  scanner of the stored keys that doesn't decode compact keys
+   * @param pageSize hint of the number of keys scanned at once
+   * @return number of legacy keys left
+   */
+  public static long countLegacyKeys(FormDataKeyScanner scanner, int pageSize) {
+    try (var keys = scanner.keys(pageSize)) {
+      return keys.filter(CompactFormDataKeyCodec::isLegacyKey).count();
+    }
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return findCompactKey(key).map(delegate::getRevisions).orElseGet(List::of);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return findCompactKey(key)
+        .flatMap(compactKey -> delegate.getFormDataRevision(compactKey, revision));
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    var compactKey = encode(key);
+    delegate.putFormData(FormDataInputWrapperDto.builder()
+        .key(compactKey)
+        .processInstanceId(formDataInputWrapperDto.getProcessInstanceId())
+        .formData(formDataInputWrapperDto.getFormData())
+        .build());
+    if (readLegacyKeys.asMap().remove(key) != null) {
+      delegate.delete(Set.of(key));
+    }
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return delegate.getKeysBySearchParams(searchParams).stream()
+        .map(this::decode)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return delegate.streamKeysBySearchParams(searchParams, pageSize).map(this::decode);
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    var keysToDelete = new HashSet<String>();
+    for (var key : keys) {
+      findCompactKey(key).ifPresent(keysToDelete::add);
+      if (legacyFallback) {
+        keysToDelete.add(key);
+      }
+    }
+    if (!keysToDelete.isEmpty()) {
+      delegate.delete(keysToDelete);
+    }
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return delegate.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    var page = delegate.getStartFormKeys(searchParams);
+    return FormDataKeyPage.builder()
+        .keys(page.getKeys().stream().map(this::decode).collect(Collectors.toList()))
+        .cursor(page.getCursor())
+        .build();
+  }
+
+  private <R> Optional<R> read(String key, Function<String, Optional<R>> reader) {
+    var compactKey = findCompactKey(key);
+    var result = compactKey.flatMap(reader);
+    if (result.isPresent() || !legacyFallback || compactKey.filter(key::equals).isPresent()) {
+      return result;
+    }
+    var legacyResult = reader.apply(key);
+    if (legacyResult.isPresent()) {
+      readLegacyKeys.put(key, Boolean.TRUE);
+    }
+    return legacyResult;
+  }
+
+  /**
+   * Keys returned by searches and passed to deletion may have the form hash prefix
+   */
+  private String encode(String key) {
+    return mapFormKey(key, keyProvider::toCompactKey);
+  }
+
+  private Optional<String> findCompactKey(String key) {
+    return key.startsWith(HASH_KEY_PREFIX)
+        ? keyProvider.findCompactKey(key.substring(HASH_KEY_PREFIX.length()))
+        .map(compactKey -> HASH_KEY_PREFIX + compactKey)
+        : keyProvider.findCompactKey(key);
+  }
+
+  private String decode(String key) {
+    return mapFormKey(key, keyProvider::fromCompactKey);
+  }
+
+  private static String mapFormKey(String key, UnaryOperator<String> mapper) {
+    return key.startsWith(HASH_KEY_PREFIX)
+        ? HASH_KEY_PREFIX + mapper.apply(key.substring(HASH_KEY_PREFIX.length()))
+        : mapper.apply(key);
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.CompressionConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyFamily;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that compresses form data with zstd. Forms of the same task or process definition
+ * share field names and structure, so they are compressed with a dictionary trained on samples of
+ * the definition's forms, which works much better for small forms than compressing each form on
+ * its own. Forms of other key families and forms written before their dictionary is trained are
+ * compressed without a dictionary.
+ * <p>
+ * Compressed data is stored as {@code {"x-zstd": "<dictionary id>:<base64 frame>"}}, dictionary
+ * id 0 means no dictionary. Data that isn't compressed this way (stored before compression was
+ * enabled, too small or not compressible) is returned as is.
+ */
+public class CompressingFormDataRepository<T> implements FormDataRepository<T> {
+
+  public static final String COMPRESSED_DATA_FIELD = "x-zstd";
+  public static final String DICTIONARY_KEY_PREFIX = "form-dictionaries/";
+  private static final long NO_DICTIONARY = 0;
+
+  private final FormDataRepository<T> delegate;
+  private final CompressionConfiguration configuration;
+  private final ObjectMapper objectMapper;
+  private final ZstdDictionaryRegistry dictionaries;
+
+  public CompressingFormDataRepository(FormDataRepository<T> delegate,
+      CompressionConfiguration configuration, ObjectMapper objectMapper) {
+    this(delegate, configuration, objectMapper, null);
+  }
+
+  /**
+   * @param trainingExecutor executor of the dictionary training, dictionaries are trained by the
+   *                         thread writing the last sample if null
+   */
+  public CompressingFormDataRepository(FormDataRepository<T> delegate,
+      CompressionConfiguration configuration, ObjectMapper objectMapper,
+      Executor trainingExecutor) {
+    this.delegate = delegate;
+    this.configuration = configuration;
+    this.objectMapper = objectMapper;
+    this.dictionaries = new ZstdDictionaryRegistry(delegate, configuration,
+        DICTIONARY_KEY_PREFIX, trainingExecutor);
+  }
+
+  /**
+   * @param key storage key
+   * @return true if the key holds a compression dictionary
+   */
+  public static boolean isDictionaryKey(String key) {
+    return key.startsWith(DICTIONARY_KEY_PREFIX);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    return delegate.getFormData(key).map(formData -> decompress(key, formData));
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return delegate.getFormDataWithSignature(key).map(formData -> decompress(key, formData));
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    return delegate.getSignature(key);
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return delegate.getRevisions(key);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return delegate.getFormDataRevision(key, revision)
+        .map(formData -> decompress(key, formData));
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    var formData = formDataInputWrapperDto.getFormData();
+    if (isDictionaryKey(key) || Objects.isNull(formData.getData())) {
+      delegate.putFormData(formDataInputWrapperDto);
+      return;
+    }
+    delegate.putFormData(FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(formDataInputWrapperDto.getProcessInstanceId())
+        .formData(FormDataDto.builder()
+            .data(compress(key, formData.getData()))
+            .accessToken(formData.getAccessToken())
+            .signature(formData.getSignature())
+            .build())
+        .build());
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return delegate.getKeysBySearchParams(searchParams);
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return delegate.streamKeysBySearchParams(searchParams, pageSize);
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    delegate.delete(keys);
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return delegate.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return delegate.getStartFormKeys(searchParams);
+  }
+
+  private LinkedHashMap<String, Object> compress(String key,
+      LinkedHashMap<String, Object> data) {
+    var serialized = serialize(data);
+    if (serialized.length < configuration.getMinSize()) {
+      return data;
+    }
+    var dictionary = getScope(key)
+        .flatMap(scope -> dictionaries.getCompressDictionary(scope, serialized));
+    var compressed = dictionary
+        .map(dict -> Zstd.compress(serialized, dict.compressDictionary))
+        .orElseGet(() -> Zstd.compress(serialized, configuration.getLevel()));
+    var reference = dictionary.map(dict -> dict.id).orElse(NO_DICTIONARY) + ":"
+        + Base64.getEncoder().encodeToString(compressed);
+    if (reference.length() >= serialized.length) {
+      return data;
+    }
+    var compressedData = new LinkedHashMap<String, Object>();
+    compressedData.put(COMPRESSED_DATA_FIELD, reference);
+    return compressedData;
+  }
+
+  private FormDataDto decompress(String key, FormDataDto formData) {
+    var data = formData.getData();
+    if (Objects.isNull(data) || data.size() != 1
+        || !(data.get(COMPRESSED_DATA_FIELD) instanceof String)) {
+      return formData;
+    }
+    var reference = (String) data.get(COMPRESSED_DATA_FIELD);
+    var separator = reference.indexOf(':');
+    var dictionaryId = Long.parseLong(reference.substring(0, separator));
+    var compressed = Base64.getDecoder().decode(reference.substring(separator + 1));
+    var size = (int) Zstd.getFrameContentSize(compressed);
+    var serialized = dictionaryId == NO_DICTIONARY
+        ? Zstd.decompress(compressed, size)
+        : Zstd.decompress(compressed, dictionaries.getDecompressDictionary(
+            getScope(key).orElseThrow(() -> new IllegalStateException(
+                String.format("Form %s is compressed with a dictionary of unknown scope", key))),
+            dictionaryId), size);
+    formData.setData(deserialize(serialized));
+    return formData;
+  }
+
+  /**
+   * Forms of a task or process definition share the dictionary, e.g. task/approve-request
+   */
+  private static Optional<String> getScope(String key) {
+    var family = FormDataKeyFamily.of(key);
+    return FormDataKeyFamily.getDefinitionKey(key)
+        .map(definition -> family.name().toLowerCase() + "/" + definition);
+  }
+
+  private byte[] serialize(Map<String, Object> data) {
+    try {
+      return objectMapper.writeValueAsBytes(data);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't serialize data", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private LinkedHashMap<String, Object> deserialize(byte[] data) {
+    try {
+      return objectMapper.readValue(data, LinkedHashMap.class);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't deserialize data", e);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The store of content-addressed blobs referenced from the form data. Blobs are kept while at
+ * least one form references them.
+ */
+public interface ContentBlobStore {
+
+  /**
+   * Get hashes of the blobs referenced by the form
+   *
+   * @param formKey form data key
+   * @return mutable set of blob hashes, empty if the form doesn't reference blobs
+   */
+  Set<String> getReferences(String formKey);
+
+  /**
+   * Get hashes of the blobs referenced by each of the forms
+   *
+   * @param formKeys form data keys
+   * @return mutable sets of blob hashes by form keys
+   */
+  default Map<String, Set<String>> getReferences(Collection<String> formKeys) {
+    var references = new HashMap<String, Set<String>>();
+    formKeys.forEach(formKey -> references.put(formKey, getReferences(formKey)));
+    return references;
+  }
+
+  /**
+   * Add references of the form to the blobs, the blobs that aren't stored yet are stored
+   *
+   * @param formKey form data key
+   * @param blobs   blob contents by hashes
+   */
+  void retain(String formKey, Map<String, String> blobs);
+
+  /**
+   * Remove references of the form to the blobs, the blobs that aren't referenced anymore are
+   * deleted
+   *
+   * @param formKey form data key
+   * @param hashes  hashes of the released blobs
+   */
+  void release(String formKey, Set<String> hashes);
+
+  /**
+   * Get blob contents
+   *
+   * @param hashes blob hashes
+   * @return blob contents by hashes, missing blobs are omitted
+   */
+  Map<String, String> getBlobs(Collection<String> hashes);
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that moves string values of the form data above the threshold into content-addressed
+ * blobs of the {@link ContentBlobStore} and stores references to them instead, so the values
+ * repeated across forms are stored once. References are resolved on read. Blobs are released when
+ * the referencing forms are overwritten or deleted.
+ */
+public class DeduplicatingFormDataRepository<T> implements FormDataRepository<T> {
+
+  public static final String REFERENCE_PROPERTY = "x-blob-ref";
+
+  private final FormDataRepository<T> delegate;
+  private final ContentBlobStore blobStore;
+  private final int threshold;
+
+  public DeduplicatingFormDataRepository(FormDataRepository<T> delegate,
+      ContentBlobStore blobStore, int threshold) {
+    this.delegate = delegate;
+    this.blobStore = blobStore;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    return delegate.getFormData(key).map(this::resolveReferences);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return delegate.getFormDataWithSignature(key).map(this::resolveReferences);
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    return delegate.getSignature(key);
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return delegate.getRevisions(key);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return delegate.getFormDataRevision(key, revision);
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    var formData = formDataInputWrapperDto.getFormData();
+    var blobs = new HashMap<String, String>();
+    var data = Objects.isNull(formData.getData()) ? null
+        : extractMap(formData.getData(), blobs);
+
+    var previousReferences = blobStore.getReferences(key);
+    blobStore.retain(key, blobs);
+    delegate.putFormData(FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(formDataInputWrapperDto.getProcessInstanceId())
+        .formData(FormDataDto.builder()
+            .data(data)
+            .accessToken(formData.getAccessToken())
+            .signature(formData.getSignature())
+            .build())
+        .build());
+    previousReferences.removeAll(blobs.keySet());
+    blobStore.release(key, previousReferences);
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return delegate.getKeysBySearchParams(searchParams);
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return delegate.streamKeysBySearchParams(searchParams, pageSize);
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return delegate.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return delegate.getStartFormKeys(searchParams);
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    delegate.delete(keys);
+    blobStore.getReferences(keys).forEach(blobStore::release);
+  }
+
+  private FormDataDto resolveReferences(FormDataDto formData) {
+    if (Objects.isNull(formData.getData())) {
+      return formData;
+    }
+    var hashes = new HashSet<String>();
+    collectReferences(formData.getData(), hashes);
+    if (hashes.isEmpty()) {
+      return formData;
+    }
+    var blobs = blobStore.getBlobs(hashes);
+    formData.setData(resolveMap(formData.getData(), hash -> {
+      var content = blobs.get(hash);
+      if (Objects.isNull(content)) {
+        throw new IllegalStateException(String.format("Form data blob %s is missing", hash));
+      }
+      return content;
+    }));
+    return formData;
+  }
+
+  private LinkedHashMap<String, Object> extractMap(Map<String, Object> map,
+      Map<String, String> blobs) {
+    var extracted = new LinkedHashMap<String, Object>(map.size() * 4 / 3 + 1);
+    map.forEach((name, value) -> extracted.put(name, extractValue(value, blobs)));
+    return extracted;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object extractValue(Object value, Map<String, String> blobs) {
+    if (value instanceof String && ((String) value).length() >= threshold) {
+      var hash = Hashing.sha256().hashString((String) value, StandardCharsets.UTF_8).toString();
+      blobs.put(hash, (String) value);
+      var reference = new LinkedHashMap<String, Object>();
+      reference.put(REFERENCE_PROPERTY, hash);
+      return reference;
+    }
+    if (value instanceof Map) {
+      return extractMap((Map<String, Object>) value, blobs);
+    }
+    if (value instanceof List) {
+      var extracted = new ArrayList<>(((List<?>) value).size());
+      ((List<?>) value).forEach(item -> extracted.add(extractValue(item, blobs)));
+      return extracted;
+    }
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void collectReferences(Object value, Set<String> hashes) {
+    if (value instanceof Map) {
+      var hash = getReference((Map<String, Object>) value);
+      if (Objects.nonNull(hash)) {
+        hashes.add(hash);
+      } else {
+        ((Map<String, Object>) value).values().forEach(item -> collectReferences(item, hashes));
+      }
+    } else if (value instanceof List) {
+      ((List<?>) value).forEach(item -> collectReferences(item, hashes));
+    }
+  }
+
+  private LinkedHashMap<String, Object> resolveMap(Map<String, Object> map,
+      Function<String, String> blobs) {
+    var resolved = new LinkedHashMap<String, Object>(map.size() * 4 / 3 + 1);
+    map.forEach((name, value) -> resolved.put(name, resolveValue(value, blobs)));
+    return resolved;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object resolveValue(Object value, Function<String, String> blobs) {
+    if (value instanceof Map) {
+      var hash = getReference((Map<String, Object>) value);
+      return Objects.nonNull(hash) ? blobs.apply(hash)
+          : resolveMap((Map<String, Object>) value, blobs);
+    }
+    if (value instanceof List) {
+      var resolved = new ArrayList<>(((List<?>) value).size());
+      ((List<?>) value).forEach(item -> resolved.add(resolveValue(item, blobs)));
+      return resolved;
+    }
+    return value;
+  }
+
+  private String getReference(Map<String, Object> map) {
+    var hash = map.size() == 1 ? map.get(REFERENCE_PROPERTY) : null;
+    return hash instanceof String ? (String) hash : null;
+  }
+}
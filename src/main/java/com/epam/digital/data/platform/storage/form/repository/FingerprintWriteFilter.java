@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.google.common.base.Utf8;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Calculates content fingerprints that are stored next to the form data, so that a put of the
+ * content equal to the stored one can be skipped after reading the fingerprint only. Records the
+ * volume of skipped and performed writes.
+ */
+public class FingerprintWriteFilter {
+
+  private static final String METRIC_PREFIX = "form.data.storage.fingerprint";
+  private static final HashFunction HASH_FUNCTION = Hashing.farmHashFingerprint64();
+
+  private final Counter skippedWrites;
+  private final Counter skippedBytes;
+  private final Counter writtenBytes;
+
+  public FingerprintWriteFilter(String backend, MeterRegistry meterRegistry) {
+    this.skippedWrites = Counter.builder(METRIC_PREFIX + ".writes.skipped")
+        .tag("backend", backend)
+        .register(meterRegistry);
+    this.skippedBytes = Counter.builder(METRIC_PREFIX + ".bytes.skipped")
+        .tag("backend", backend)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    this.writtenBytes = Counter.builder(METRIC_PREFIX + ".bytes.written")
+        .tag("backend", backend)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * @param contents serialized form data parts, null parts are distinguished from empty ones
+   * @return hex encoded 64-bit fingerprint of the contents
+   */
+  public String fingerprint(String... contents) {
+    var hasher = HASH_FUNCTION.newHasher();
+    for (var content : contents) {
+      if (Objects.isNull(content)) {
+        hasher.putInt(-1);
+      } else {
+        hasher.putInt(content.length()).putString(content, StandardCharsets.UTF_8);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  public void recordSkipped(String... contents) {
+    skippedWrites.increment();
+    skippedBytes.increment(encodedLength(contents));
+  }
+
+  public void recordWritten(String... contents) {
+    writtenBytes.increment(encodedLength(contents));
+  }
+
+  private static long encodedLength(String... contents) {
+    var length = 0L;
+    for (var content : contents) {
+      length += Objects.isNull(content) ? 0 : Utf8.encodedLength(content);
+    }
+    return length;
+  }
+}
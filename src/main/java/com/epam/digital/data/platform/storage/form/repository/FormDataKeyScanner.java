@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates all form data keys of a storage page by page. Keys present during the whole scan are
+ * returned at least once.
+ */
+public interface FormDataKeyScanner {
+
+  /**
+   * Scan the next page of keys
+   *
+   * @param cursor cursor returned with the previous page, null to start the scan
+   * @param count  hint of the number of keys in the page
+   * @return page of keys with the cursor of the next page
+   */
+  FormDataKeyPage scan(String cursor, int count);
+
+  /**
+   * Lazily scan all keys, the next page is scanned once the previous one is consumed. Keys may be
+   * repeated if the scanner returns them more than once.
+   *
+   * @param count hint of the number of keys in a page
+   * @return sequential stream of keys
+   */
+  default Stream<String> keys(int count) {
+    var spliterator = new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE,
+        Spliterator.ORDERED | Spliterator.NONNULL) {
+
+      private Iterator<String> page = Collections.emptyIterator();
+      private String cursor;
+      private boolean finished;
+
+      @Override
+      public boolean tryAdvance(Consumer<? super String> action) {
+        while (!page.hasNext()) {
+          if (finished) {
+            return false;
+          }
+          var next = scan(cursor, count);
+          cursor = next.getCursor();
+          finished = Objects.isNull(cursor);
+          page = next.getKeys().iterator();
+        }
+        action.accept(page.next());
+        return true;
+      }
+    };
+    return StreamSupport.stream(spliterator, false);
+  }
+}
@@ -19,10 +19,17 @@ package com.epam.digital.data.platform.storage.form.repository;
 
 import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
 import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
 import org.springframework.cloud.sleuth.annotation.NewSpan;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The repository for getting and storing form data.
@@ -39,6 +46,53 @@ public interface FormDataRepository<T> {
   @NewSpan
   Optional<FormDataDto> getFormData(String key);
 
+  /**
+   * Retrieve formData by key including the signature, which may be stored separately from the form
+   * and omitted by {@link #getFormData(String)}
+   *
+   * @param key document id
+   * @return {@link FormDataDto} content representation (optional)
+   */
+  @NewSpan("getFormDataWithSignature")
+  default Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return getFormData(key);
+  }
+
+  /**
+   * Retrieve signature of the form by key
+   *
+   * @param key document id
+   * @return signature of the form (optional)
+   */
+  @NewSpan("getSignature")
+  default Optional<String> getSignature(String key) {
+    return getFormDataWithSignature(key).map(FormDataDto::getSignature);
+  }
+
+  /**
+   * Get numbers of the stored revisions of the form, if the repository keeps revision history
+   *
+   * @param key document id
+   * @return revision numbers in ascending order, the latest revision goes last; empty list if the
+   * form has no history
+   */
+  @NewSpan("getRevisions")
+  default List<Integer> getRevisions(String key) {
+    return List.of();
+  }
+
+  /**
+   * Retrieve a revision of the form, if the repository keeps revision history
+   *
+   * @param key      document id
+   * @param revision revision number returned by {@link #getRevisions(String)}
+   * @return {@link FormDataDto} content of the revision (optional)
+   */
+  @NewSpan("getFormDataRevision")
+  default Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return Optional.empty();
+  }
+
   /**
    * Put formData to repository
    *
@@ -56,6 +110,19 @@ public interface FormDataRepository<T> {
   @NewSpan("getKeysBySearchParams")
   Set<String> getKeysBySearchParams(T searchParams);
 
+  /**
+   * Lazily get storage keys by provided search parameters, so that the keys don't have to be held
+   * in memory at once. Keys may be repeated if the storage returns them more than once.
+   *
+   * @param searchParams provided search parameters
+   * @param pageSize     hint of the number of keys fetched from the storage at once
+   * @return sequential stream of keys
+   */
+  @NewSpan("streamKeysBySearchParams")
+  default Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return getKeysBySearchParams(searchParams).stream();
+  }
+
   /**
    * Delete forms by provided keys
    *
@@ -63,4 +130,37 @@ public interface FormDataRepository<T> {
    */
   @NewSpan("deleteFormDataByKeys")
   void delete(Set<String> keys);
+
+  /**
+   * Get search parameters of the keys starting with the prefix
+   *
+   * @param prefix key prefix
+   * @return search parameters or null if the repository can't search keys by prefix
+   */
+  default T getSearchParamsByPrefix(String prefix) {
+    return null;
+  }
+
+  /**
+   * Get page of the start form keys of a process definition. By default all keys with the start
+   * form prefix are searched with {@link #getKeysBySearchParams(Object)} and paged in memory, the
+   * cursor is the last key of the previous page.
+   *
+   * @param searchParams process definition and page parameters
+   * @return page of keys with the cursor of the next page
+   * @throws UnsupportedOperationException if the repository can't search keys by prefix
+   */
+  @NewSpan("getStartFormKeys")
+  default FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    var prefix = searchParams.getPrefix();
+    var prefixSearchParams = getSearchParamsByPrefix(prefix);
+    if (Objects.isNull(prefixSearchParams)) {
+      throw new UnsupportedOperationException(
+          String.format("%s can't search keys by prefix", getClass().getSimpleName()));
+    }
+    var keys = getKeysBySearchParams(prefixSearchParams).stream()
+        .filter(key -> key.startsWith(prefix))
+        .collect(Collectors.toCollection(TreeSet::new));
+    return SortedKeyPages.page(keys, prefix, searchParams.getCursor(), searchParams.getCount());
+  }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.HedgingConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.cloud.sleuth.Tracer;
+
+/**
+ * Decorator that hedges form data reads: if the read from the primary repository doesn't complete
+ * within the delay, the same read is sent to the alternate repository and the first successful
+ * result is used. The delay follows the configured percentile of the recent primary read
+ * latencies, the share of hedged reads is capped by the configured budget. Other operations are
+ * delegated to the primary repository.
+ */
+@Slf4j
+public class HedgingFormDataRepository<T> implements FormDataRepository<T> {
+
+  private static final String METRIC_PREFIX = "form.data.storage.hedging";
+  private static final double MAX_BUDGET_TOKENS = 10;
+
+  private final FormDataRepository<T> primary;
+  private final FormDataRepository<T> alternate;
+  private final Executor executor;
+  private final Tracer tracer;
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long maxDelayNanos;
+  private final double budgetRatio;
+
+  private final long[] latencies;
+  private int latenciesCount;
+  private int latenciesPosition;
+  private volatile long delayNanos;
+  private double budgetTokens;
+
+  private final Counter reads;
+  private final Counter hedges;
+  private final Counter hedgeWins;
+
+  public HedgingFormDataRepository(FormDataRepository<T> primary, FormDataRepository<T> alternate,
+      HedgingConfiguration configuration, Executor executor, MeterRegistry meterRegistry) {
+    this(primary, alternate, configuration, executor, meterRegistry, null);
+  }
+
+  /**
+   * @param tracer tracer the current span of the read is propagated to its hedge with, optional
+   */
+  public HedgingFormDataRepository(FormDataRepository<T> primary, FormDataRepository<T> alternate,
+      HedgingConfiguration configuration, Executor executor, MeterRegistry meterRegistry,
+      Tracer tracer) {
+    this.primary = primary;
+    this.alternate = alternate;
+    this.executor = executor;
+    this.tracer = tracer;
+    this.percentile = configuration.getPercentile();
+    this.minDelayNanos = configuration.getMinDelay().toNanos();
+    this.maxDelayNanos = configuration.getMaxDelay().toNanos();
+    this.budgetRatio = configuration.getBudgetPercent() / 100;
+    this.latencies = new long[configuration.getWindow()];
+    this.delayNanos = maxDelayNanos;
+
+    this.reads = meterRegistry.counter(METRIC_PREFIX + ".reads");
+    this.hedges = meterRegistry.counter(METRIC_PREFIX + ".hedges");
+    this.hedgeWins = meterRegistry.counter(METRIC_PREFIX + ".wins");
+  }
+
+  /**
+   * Both reads run on the executor while the caller waits for the first successful result, so a
+   * primary read blocked in I/O doesn't hold the caller after the hedge won. The hedge is sent by
+   * the caller once the delay elapses, nothing is scheduled for reads completed within it. Reads
+   * rejected by the executor run on the caller thread without hedging.
+   */
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    reads.increment();
+    depositBudget();
+    var start = System.nanoTime();
+    CompletableFuture<Optional<FormDataDto>> primaryRead;
+    try {
+      primaryRead = CompletableFuture
+          .supplyAsync(withCallerContext(() -> primary.getFormData(key)), executor)
+          .whenComplete((value, ex) -> recordLatency(System.nanoTime() - start));
+    } catch (RejectedExecutionException ex) {
+      var result = primary.getFormData(key);
+      recordLatency(System.nanoTime() - start);
+      return result;
+    }
+    try {
+      return primaryRead.get(delayNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException ex) {
+      return await(hedge(key, primaryRead));
+    } catch (ExecutionException ex) {
+      throw unwrap(ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataRepositoryCommunicationException("Interrupted during form data read", ex);
+    }
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return primary.getFormDataWithSignature(key);
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    return primary.getSignature(key);
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return primary.getRevisions(key);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return primary.getFormDataRevision(key, revision);
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    primary.putFormData(formDataInputWrapperDto);
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return primary.getKeysBySearchParams(searchParams);
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return primary.streamKeysBySearchParams(searchParams, pageSize);
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return primary.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return primary.getStartFormKeys(searchParams);
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    primary.delete(keys);
+  }
+
+  /**
+   * @return current hedging delay in nanoseconds
+   */
+  long getDelayNanos() {
+    return delayNanos;
+  }
+
+  /**
+   * @return the first successful result of the reads, or the primary read failure if both fail
+   */
+  private CompletableFuture<Optional<FormDataDto>> hedge(String key,
+      CompletableFuture<Optional<FormDataDto>> primaryRead) {
+    if (!withdrawBudget()) {
+      return primaryRead;
+    }
+    CompletableFuture<Optional<FormDataDto>> hedgeRead;
+    try {
+      hedgeRead = CompletableFuture.supplyAsync(
+          withCallerContext(() -> alternate.getFormData(key)), executor);
+    } catch (RejectedExecutionException ex) {
+      return primaryRead;
+    }
+    hedges.increment();
+    log.debug("Hedged read of form data {}", key);
+
+    var result = new CompletableFuture<Optional<FormDataDto>>();
+    var completed = new AtomicBoolean();
+    primaryRead.whenComplete((value, primaryFailure) -> {
+      if (Objects.isNull(primaryFailure)) {
+        if (completed.compareAndSet(false, true)) {
+          result.complete(value);
+        }
+      } else {
+        hedgeRead.whenComplete((hedgeValue, hedgeFailure) -> {
+          if (Objects.nonNull(hedgeFailure)) {
+            result.completeExceptionally(primaryFailure);
+          }
+        });
+      }
+    });
+    hedgeRead.thenAccept(value -> {
+      if (completed.compareAndSet(false, true)) {
+        hedgeWins.increment();
+        result.complete(value);
+      }
+    });
+    return result;
+  }
+
+  private Optional<FormDataDto> await(CompletableFuture<Optional<FormDataDto>> read) {
+    try {
+      return read.get();
+    } catch (ExecutionException ex) {
+      throw unwrap(ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataRepositoryCommunicationException("Interrupted during form data read", ex);
+    }
+  }
+
+  /**
+   * Reads run with the logging context and the tracing span of the caller
+   */
+  private <R> Supplier<R> withCallerContext(Supplier<R> task) {
+    var context = MDC.getCopyOfContextMap();
+    var span = Objects.isNull(tracer) ? null : tracer.currentSpan();
+    return () -> {
+      var previousContext = MDC.getCopyOfContextMap();
+      setContext(context);
+      try (var ignored = Objects.isNull(span) ? null : tracer.withSpan(span)) {
+        return task.get();
+      } finally {
+        setContext(previousContext);
+      }
+    };
+  }
+
+  private static void setContext(Map<String, String> context) {
+    if (Objects.isNull(context)) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(context);
+    }
+  }
+
+  private RuntimeException unwrap(Throwable ex) {
+    var cause = ex instanceof CompletionException ? ex.getCause() : ex;
+    return cause instanceof RuntimeException ? (RuntimeException) cause
+        : new FormDataRepositoryCommunicationException(cause.getMessage(), cause);
+  }
+
+  private synchronized void depositBudget() {
+    budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budgetRatio);
+  }
+
+  private synchronized boolean withdrawBudget() {
+    if (budgetTokens < 1) {
+      return false;
+    }
+    budgetTokens--;
+    return true;
+  }
+
+  private synchronized void recordLatency(long latencyNanos) {
+    latencies[latenciesPosition] = latencyNanos;
+    latenciesPosition = (latenciesPosition + 1) % latencies.length;
+    latenciesCount = Math.min(latencies.length, latenciesCount + 1);
+    // recalculated once per tenth of the window to keep the sorting cost amortized
+    var recalculationInterval = Math.max(1, latencies.length / 10);
+    if (latenciesCount == latencies.length && latenciesPosition % recalculationInterval == 0) {
+      var sorted = Arrays.copyOf(latencies, latencies.length);
+      Arrays.sort(sorted);
+      var index = (int) Math.ceil(percentile * sorted.length) - 1;
+      var value = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+      delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diff and patch of JSON documents with the add, remove and replace operations of JSON Patch
+ * (RFC 6902). Objects are diffed by fields, arrays by indexes, so appended or truncated arrays
+ * produce only the changed elements.
+ */
+final class JsonPatches {
+
+  private static final String OP = "op";
+  private static final String PATH = "path";
+  private static final String VALUE = "value";
+  private static final String ADD = "add";
+  private static final String REMOVE = "remove";
+  private static final String REPLACE = "replace";
+
+  private JsonPatches() {
+  }
+
+  /**
+   * @param source document to patch
+   * @param target document the patch produces
+   * @return patch that turns the source into the target
+   */
+  static ArrayNode diff(JsonNode source, JsonNode target) {
+    var patch = JsonNodeFactory.instance.arrayNode();
+    diff("", source, target, patch);
+    return patch;
+  }
+
+  private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+    if (source.equals(target)) {
+      return;
+    }
+    if (source.isObject() && target.isObject()) {
+      source.fieldNames().forEachRemaining(name -> {
+        if (!target.has(name)) {
+          addOperation(patch, REMOVE, path + "/" + escape(name), null);
+        }
+      });
+      target.fields().forEachRemaining(field -> {
+        var fieldPath = path + "/" + escape(field.getKey());
+        var sourceValue = source.get(field.getKey());
+        if (sourceValue == null) {
+          addOperation(patch, ADD, fieldPath, field.getValue());
+        } else {
+          diff(fieldPath, sourceValue, field.getValue(), patch);
+        }
+      });
+    } else if (source.isArray() && target.isArray()) {
+      var common = Math.min(source.size(), target.size());
+      for (var i = 0; i < common; i++) {
+        diff(path + "/" + i, source.get(i), target.get(i), patch);
+      }
+      for (var i = common; i < target.size(); i++) {
+        addOperation(patch, ADD, path + "/" + i, target.get(i));
+      }
+      for (var i = source.size() - 1; i >= common; i--) {
+        addOperation(patch, REMOVE, path + "/" + i, null);
+      }
+    } else {
+      addOperation(patch, REPLACE, path, target);
+    }
+  }
+
+  /**
+   * @param document document to patch, isn't modified
+   * @param patch    patch produced by {@link #diff(JsonNode, JsonNode)}
+   * @return patched copy of the document
+   * @throws IllegalArgumentException if the patch doesn't match the document
+   */
+  static JsonNode apply(JsonNode document, ArrayNode patch) {
+    var result = document.deepCopy();
+    for (var operation : patch) {
+      var op = operation.path(OP).asText();
+      var tokens = parsePointer(operation.path(PATH).asText());
+      var value = operation.get(VALUE);
+      if (tokens.isEmpty()) {
+        if (!REPLACE.equals(op)) {
+          throw new IllegalArgumentException("Unsupported operation on document root: " + op);
+        }
+        result = value.deepCopy();
+        continue;
+      }
+      var parent = result;
+      for (var token : tokens.subList(0, tokens.size() - 1)) {
+        parent = parent.isArray() ? parent.get(Integer.parseInt(token)) : parent.get(token);
+        if (parent == null) {
+          throw new IllegalArgumentException("Patch path doesn't exist: " + operation.get(PATH));
+        }
+      }
+      apply(parent, op, tokens.get(tokens.size() - 1), value);
+    }
+    return result;
+  }
+
+  private static void apply(JsonNode parent, String op, String token, JsonNode value) {
+    if (parent.isObject()) {
+      var object = (ObjectNode) parent;
+      if (REMOVE.equals(op)) {
+        object.remove(token);
+      } else {
+        object.set(token, value.deepCopy());
+      }
+    } else if (parent.isArray()) {
+      var array = (ArrayNode) parent;
+      if (ADD.equals(op) && "-".equals(token)) {
+        array.add(value.deepCopy());
+        return;
+      }
+      var index = Integer.parseInt(token);
+      if (REMOVE.equals(op)) {
+        array.remove(index);
+      } else if (ADD.equals(op)) {
+        array.insert(index, value.deepCopy());
+      } else {
+        array.set(index, value.deepCopy());
+      }
+    } else {
+      throw new IllegalArgumentException("Patch path doesn't point to a container: " + token);
+    }
+  }
+
+  private static void addOperation(ArrayNode patch, String op, String path, JsonNode value) {
+    var operation = patch.addObject().put(OP, op).put(PATH, path);
+    if (value != null) {
+      operation.set(VALUE, value);
+    }
+  }
+
+  private static String escape(String token) {
+    return token.replace("~", "~0").replace("/", "~1");
+  }
+
+  private static List<String> parsePointer(String pointer) {
+    var tokens = new ArrayList<String>();
+    if (pointer.isEmpty()) {
+      return tokens;
+    }
+    for (var token : pointer.substring(1).split("/", -1)) {
+      tokens.add(token.replace("~1", "/").replace("~0", "~"));
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryMisconfigurationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Form data repository that keeps forms in an append-only log of memory-mapped segment files on
+ * the local disk, with in-memory key and process instance indexes.
+ * <p>
+ * The indexes are rebuilt from the segments on start, incomplete records at the end of the log are
+ * discarded. Sealed segments with low ratio of live data are compacted in the background.
+ */
+@Slf4j
+public class LocalFormDataRepository implements FormDataRepository<LocalKeysSearchParams>,
+    Closeable {
+
+  private static final String SEGMENT_FILE_FORMAT = "segment-%016d.log";
+  private static final Pattern SEGMENT_FILE_PATTERN = Pattern.compile("segment-(\\d{16})\\.log");
+  private static final byte[] EMPTY = new byte[0];
+
+  private final Path directory;
+  private final int segmentSize;
+  private final double compactionThreshold;
+  private final boolean syncOnWrite;
+  private final ObjectMapper objectMapper;
+
+  private final ConcurrentNavigableMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+  private final ConcurrentNavigableMap<String, Location> index = new ConcurrentSkipListMap<>();
+  private final Map<String, Set<String>> processInstanceKeys = new ConcurrentHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final ScheduledExecutorService compactor;
+  private volatile LogSegment activeSegment;
+
+  public LocalFormDataRepository(LocalStorageConfiguration configuration,
+      ObjectMapper objectMapper) {
+    this.directory = Paths.get(configuration.getDirectory());
+    this.segmentSize = configuration.getSegmentSize();
+    this.compactionThreshold = configuration.getCompactionThreshold();
+    this.syncOnWrite = configuration.isSyncOnWrite();
+    this.objectMapper = objectMapper;
+
+    try {
+      recover();
+    } catch (IOException ex) {
+      throw new FormDataRepositoryMisconfigurationException(
+          String.format("Couldn't open form data log in %s", directory), ex);
+    }
+
+    this.compactor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("form-data-log-compactor-%d")
+        .setDaemon(true)
+        .build());
+    var interval = configuration.getCompactionInterval().toMillis();
+    compactor.scheduleWithFixedDelay(this::compact, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    if (Objects.isNull(key)) {
+      return Optional.empty();
+    }
+    while (true) {
+      var location = index.get(key);
+      if (Objects.isNull(location)) {
+        return Optional.empty();
+      }
+      var segment = segments.get(location.getSegmentId());
+      // a missing segment means the record has just been moved by compaction
+      if (Objects.nonNull(segment)) {
+        return Optional.of(deserializeFormData(segment.readValue(location.getOffset())));
+      }
+    }
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    var value = serializeFormData(formDataInputWrapperDto.getFormData());
+    writeLock.lock();
+    try {
+      var processInstanceId = Optional.ofNullable(formDataInputWrapperDto.getProcessInstanceId())
+          .or(() -> Optional.ofNullable(index.get(key)).map(Location::getProcessInstanceId))
+          .orElse(null);
+      applyPut(key, append(LogSegment.PUT, key, processInstanceId, value));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(LocalKeysSearchParams searchParams) {
+    var keys = new HashSet<String>();
+    Optional.ofNullable(searchParams.getProcessInstanceId())
+        .map(processInstanceKeys::get)
+        .ifPresent(keys::addAll);
+    Optional.ofNullable(searchParams.getPrefix())
+        .ifPresent(prefix -> index.tailMap(prefix).keySet().stream()
+            .takeWhile(key -> key.startsWith(prefix))
+            .forEach(keys::add));
+    return keys;
+  }
+
+  @Override
+  public LocalKeysSearchParams getSearchParamsByPrefix(String prefix) {
+    return LocalKeysSearchParams.builder().prefix(prefix).build();
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return SortedKeyPages.page(index.navigableKeySet(), searchParams.getPrefix(),
+        searchParams.getCursor(), searchParams.getCount());
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    writeLock.lock();
+    try {
+      for (var key : keys) {
+        if (index.containsKey(key)) {
+          append(LogSegment.DELETE, key, null, EMPTY);
+          applyDelete(key);
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    compactor.shutdownNow();
+    writeLock.lock();
+    try {
+      activeSegment.force();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Compact sealed segments with live data ratio below the configured threshold
+   */
+  void compact() {
+    for (var segment : new ArrayList<>(segments.values())) {
+      if (segment != activeSegment && segment.liveRatio() < compactionThreshold) {
+        try {
+          compact(segment);
+        } catch (RuntimeException | IOException ex) {
+          log.warn("Couldn't compact form data log segment {}", segment.getId(), ex);
+        }
+      }
+    }
+  }
+
+  private void compact(LogSegment segment) throws IOException {
+    writeLock.lock();
+    try {
+      if (segment == activeSegment || !segments.containsKey(segment.getId())) {
+        return;
+      }
+      // tombstones have to be kept while older segments may contain the deleted records
+      var keepTombstones = !segments.firstKey().equals(segment.getId());
+      var position = 0;
+      LogSegment.LogRecord logRecord;
+      while (position < segment.getWritePosition()
+          && Objects.nonNull(logRecord = segment.read(position))) {
+        var key = new String(logRecord.getKey(), StandardCharsets.UTF_8);
+        if (logRecord.getType() == LogSegment.PUT) {
+          var location = index.get(key);
+          if (Objects.nonNull(location) && location.getSegmentId() == segment.getId()
+              && location.getOffset() == logRecord.getOffset()) {
+            applyPut(key, append(LogSegment.PUT, key, location.getProcessInstanceId(),
+                logRecord.getValue()));
+          }
+        } else if (keepTombstones && !index.containsKey(key)) {
+          append(LogSegment.DELETE, key, null, EMPTY);
+        }
+        position += logRecord.getSize();
+      }
+      activeSegment.force();
+      segments.remove(segment.getId());
+      segment.delete();
+      log.debug("Compacted form data log segment {}", segment.getId());
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void recover() throws IOException {
+    Files.createDirectories(directory);
+    var segmentIds = new ArrayList<Long>();
+    try (var files = Files.list(directory)) {
+      files.map(file -> SEGMENT_FILE_PATTERN.matcher(file.getFileName().toString()))
+          .filter(matcher -> matcher.matches())
+          .map(matcher -> Long.parseLong(matcher.group(1)))
+          .sorted()
+          .forEach(segmentIds::add);
+    }
+
+    for (var i = 0; i < segmentIds.size(); i++) {
+      var segment = LogSegment.open(segmentPath(segmentIds.get(i)), segmentIds.get(i), segmentSize);
+      segments.put(segment.getId(), segment);
+      var position = 0;
+      LogSegment.LogRecord logRecord;
+      while (Objects.nonNull(logRecord = segment.read(position))) {
+        var key = new String(logRecord.getKey(), StandardCharsets.UTF_8);
+        if (logRecord.getType() == LogSegment.PUT) {
+          var processInstanceId = logRecord.getProcessInstanceId().length == 0 ? null
+              : new String(logRecord.getProcessInstanceId(), StandardCharsets.UTF_8);
+          applyPut(key, new Location(segment.getId(), logRecord.getOffset(), logRecord.getSize(),
+              processInstanceId));
+        } else {
+          applyDelete(key);
+        }
+        position += logRecord.getSize();
+      }
+      segment.recoverWritePosition(position, i == segmentIds.size() - 1);
+    }
+
+    activeSegment = segments.isEmpty() ? newSegment(0, segmentSize) : segments.lastEntry().getValue();
+    log.info("Opened form data log in {}, {} segments, {} keys", directory, segments.size(),
+        index.size());
+  }
+
+  private Location append(byte type, String key, String processInstanceId, byte[] value) {
+    var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    var processInstanceIdBytes = Objects.isNull(processInstanceId) ? EMPTY
+        : processInstanceId.getBytes(StandardCharsets.UTF_8);
+    var size = LogSegment.recordSize(keyBytes, processInstanceIdBytes, value.length);
+    try {
+      if (!activeSegment.hasRoom(size)) {
+        activeSegment.force();
+        activeSegment = newSegment(activeSegment.getId() + 1,
+            Math.max(segmentSize, size + LogSegment.HEADER_SIZE));
+      }
+      var offset = activeSegment.append(type, keyBytes, processInstanceIdBytes, value);
+      if (syncOnWrite) {
+        activeSegment.force();
+      }
+      return new Location(activeSegment.getId(), offset, size, processInstanceId);
+    } catch (IOException ex) {
+      throw new FormDataRepositoryCommunicationException("Couldn't write to form data log", ex);
+    }
+  }
+
+  private LogSegment newSegment(long id, int capacity) throws IOException {
+    var segment = LogSegment.open(segmentPath(id), id, capacity);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private Path segmentPath(long id) {
+    return directory.resolve(String.format(SEGMENT_FILE_FORMAT, id));
+  }
+
+  private void applyPut(String key, Location location) {
+    segments.get(location.getSegmentId()).addLiveBytes(location.getSize());
+    var previous = index.put(key, location);
+    if (Objects.nonNull(previous)) {
+      releaseLocation(key, previous);
+    }
+    Optional.ofNullable(location.getProcessInstanceId())
+        .ifPresent(processInstanceId -> processInstanceKeys
+            .computeIfAbsent(processInstanceId, id -> ConcurrentHashMap.newKeySet())
+            .add(key));
+  }
+
+  private void applyDelete(String key) {
+    Optional.ofNullable(index.remove(key)).ifPresent(previous -> releaseLocation(key, previous));
+  }
+
+  private void releaseLocation(String key, Location location) {
+    Optional.ofNullable(segments.get(location.getSegmentId()))
+        .ifPresent(segment -> segment.addLiveBytes(-location.getSize()));
+    var current = index.get(key);
+    var processInstanceId = location.getProcessInstanceId();
+    if (Objects.nonNull(processInstanceId) && (Objects.isNull(current)
+        || !processInstanceId.equals(current.getProcessInstanceId()))) {
+      processInstanceKeys.computeIfPresent(processInstanceId, (id, keys) -> {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+      });
+    }
+  }
+
+  private FormDataDto deserializeFormData(byte[] formData) {
+    try {
+      return objectMapper.readValue(formData, FormDataDto.class);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't deserialize form data", e);
+    }
+  }
+
+  private byte[] serializeFormData(FormDataDto formData) {
+    try {
+      return objectMapper.writeValueAsBytes(formData);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't serialize form data", e);
+    }
+  }
+
+  @Value
+  private static class Location {
+
+    long segmentId;
+    int offset;
+    int size;
+    String processInstanceId;
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Memory-mapped, preallocated segment file of the local form data log.
+ * <p>
+ * Record layout: {@code [int bodyLength][int crc32][byte type][int keyLength][int
+ * processInstanceIdLength][key][processInstanceId][value]}. Zero body length marks the end of the
+ * written data. Appends must be serialized by the caller, reads are lock free.
+ */
+class LogSegment {
+
+  static final byte PUT = 1;
+  static final byte DELETE = 2;
+  static final int HEADER_SIZE = Integer.BYTES * 2;
+  static final int BODY_HEADER_SIZE = 1 + Integer.BYTES * 2;
+
+  @Getter
+  private final long id;
+  private final Path path;
+  private final MappedByteBuffer buffer;
+  @Getter
+  private volatile int writePosition;
+  private final AtomicLong liveBytes = new AtomicLong();
+
+  private LogSegment(long id, Path path, MappedByteBuffer buffer) {
+    this.id = id;
+    this.path = path;
+    this.buffer = buffer;
+  }
+
+  static LogSegment open(Path path, long id, int capacity) throws IOException {
+    try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+      var size = Math.max(file.length(), capacity);
+      return new LogSegment(id, path, file.getChannel().map(MapMode.READ_WRITE, 0, size));
+    }
+  }
+
+  static int recordSize(byte[] key, byte[] processInstanceId, int valueLength) {
+    return HEADER_SIZE + BODY_HEADER_SIZE + key.length + processInstanceId.length + valueLength;
+  }
+
+  int capacity() {
+    return buffer.capacity();
+  }
+
+  boolean hasRoom(int recordSize) {
+    return writePosition + recordSize + HEADER_SIZE <= buffer.capacity();
+  }
+
+  /**
+   * Append record to the segment
+   *
+   * @return offset of the record
+   */
+  int append(byte type, byte[] key, byte[] processInstanceId, byte[] value) {
+    var offset = writePosition;
+    var body = ByteBuffer.allocate(
+        BODY_HEADER_SIZE + key.length + processInstanceId.length + value.length);
+    body.put(type).putInt(key.length).putInt(processInstanceId.length)
+        .put(key).put(processInstanceId).put(value);
+    var crc = new CRC32();
+    crc.update(body.array());
+
+    var target = buffer.duplicate();
+    target.position(offset + Integer.BYTES);
+    target.putInt((int) crc.getValue()).put(body.array());
+    // length is written last, incomplete records are also rejected by the crc on recovery
+    target.putInt(offset, body.capacity());
+    writePosition = offset + HEADER_SIZE + body.capacity();
+    return offset;
+  }
+
+  /**
+   * Read record at the provided offset
+   *
+   * @return record or null if there is no complete record at the offset
+   */
+  LogRecord read(int offset) {
+    if (offset + HEADER_SIZE > buffer.capacity()) {
+      return null;
+    }
+    var source = buffer.duplicate();
+    var bodyLength = source.getInt(offset);
+    if (bodyLength < BODY_HEADER_SIZE || offset + HEADER_SIZE + bodyLength > buffer.capacity()) {
+      return null;
+    }
+    var expectedCrc = source.getInt(offset + Integer.BYTES);
+    var body = new byte[bodyLength];
+    source.position(offset + HEADER_SIZE);
+    source.get(body);
+    var crc = new CRC32();
+    crc.update(body);
+    if ((int) crc.getValue() != expectedCrc) {
+      return null;
+    }
+
+    var bodyBuffer = ByteBuffer.wrap(body);
+    var type = bodyBuffer.get();
+    var key = new byte[bodyBuffer.getInt()];
+    var processInstanceId = new byte[bodyBuffer.getInt()];
+    bodyBuffer.get(key).get(processInstanceId);
+    var value = new byte[bodyBuffer.remaining()];
+    bodyBuffer.get(value);
+    return new LogRecord(type, key, processInstanceId, value, offset, HEADER_SIZE + bodyLength);
+  }
+
+  /**
+   * Read value of the record at the provided offset without validating the record
+   */
+  byte[] readValue(int offset) {
+    var source = buffer.duplicate();
+    var bodyLength = source.getInt(offset);
+    var bodyStart = offset + HEADER_SIZE;
+    var keyLength = source.getInt(bodyStart + 1);
+    var processInstanceIdLength = source.getInt(bodyStart + 1 + Integer.BYTES);
+    var valueStart = bodyStart + BODY_HEADER_SIZE + keyLength + processInstanceIdLength;
+    var value = new byte[bodyStart + bodyLength - valueStart];
+    source.position(valueStart);
+    source.get(value);
+    return value;
+  }
+
+  /**
+   * Set write position after the last complete record and clear the rest of the segment, so
+   * leftovers of torn writes can't be taken for records later. Used on recovery
+   */
+  void recoverWritePosition(int position, boolean clearTail) {
+    writePosition = position;
+    if (clearTail) {
+      var target = buffer.duplicate();
+      target.position(position);
+      var zeros = new byte[64 * 1024];
+      while (target.hasRemaining()) {
+        target.put(zeros, 0, Math.min(zeros.length, target.remaining()));
+      }
+    }
+  }
+
+  void addLiveBytes(long delta) {
+    liveBytes.addAndGet(delta);
+  }
+
+  double liveRatio() {
+    return writePosition == 0 ? 1.0 : (double) liveBytes.get() / writePosition;
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Value
+  static class LogRecord {
+
+    byte type;
+    byte[] key;
+    byte[] processInstanceId;
+    byte[] value;
+    int offset;
+    int size;
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.OffHeapStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.OffHeapStorageConfiguration.OverflowPolicy;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCapacityExceededException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Form data repository that keeps serialized forms in direct (off-heap) memory, so large working
+ * sets don't add to the GC pressure. Intended for performance test rigs and small standalone
+ * installations, the data doesn't survive restart.
+ * <p>
+ * Memory is split into fixed size pages reserved slab by slab up to the configured capacity, a form
+ * occupies a list of pages. Only the key indexes are kept on heap. Writes that don't fit are
+ * rejected or make room by evicting least recently used forms, depending on the overflow policy.
+ */
+@Slf4j
+public class OffHeapFormDataRepository implements FormDataRepository<LocalKeysSearchParams> {
+
+  private final ObjectMapper objectMapper;
+  private final OverflowPolicy overflowPolicy;
+  private final int pageSize;
+  private final int pagesPerSlab;
+  private final int maxPages;
+
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+  private final int[] freePages;
+  private int freePagesCount;
+  private int nextUnallocatedPage;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final NavigableSet<String> sortedKeys = new TreeSet<>();
+  private final Map<String, Set<String>> processInstanceKeys = new HashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public OffHeapFormDataRepository(OffHeapStorageConfiguration configuration,
+      ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.overflowPolicy = configuration.getOverflowPolicy();
+    this.pageSize = configuration.getPageSize();
+    this.pagesPerSlab = Math.max(1, configuration.getSlabSize() / pageSize);
+    this.maxPages = (int) Math.min(Integer.MAX_VALUE, configuration.getCapacity() / pageSize);
+    this.freePages = new int[maxPages];
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    if (Objects.isNull(key)) {
+      return Optional.empty();
+    }
+    byte[] value;
+    lock.lock();
+    try {
+      var entry = entries.get(key);
+      if (Objects.isNull(entry)) {
+        return Optional.empty();
+      }
+      value = read(entry);
+    } finally {
+      lock.unlock();
+    }
+    return Optional.of(deserializeFormData(value));
+  }
+
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    var value = serializeFormData(formDataInputWrapperDto.getFormData());
+    var pagesNeeded = (value.length + pageSize - 1) / pageSize;
+    if (pagesNeeded > maxPages) {
+      throw new FormDataRepositoryCapacityExceededException(String.format(
+          "Form data %s of %d bytes exceeds off-heap storage capacity", key, value.length));
+    }
+
+    lock.lock();
+    try {
+      var previous = entries.get(key);
+      var reusablePages = Objects.isNull(previous) ? 0 : previous.pages.length;
+      ensureAvailablePages(key, pagesNeeded - reusablePages);
+
+      var processInstanceId = Optional.ofNullable(formDataInputWrapperDto.getProcessInstanceId())
+          .or(() -> Optional.ofNullable(previous).map(entry -> entry.processInstanceId))
+          .orElse(null);
+      if (Objects.nonNull(previous)) {
+        remove(key);
+      }
+      var entry = new Entry(value.length, allocate(pagesNeeded), processInstanceId);
+      write(entry, value);
+      entries.put(key, entry);
+      sortedKeys.add(key);
+      if (Objects.nonNull(processInstanceId)) {
+        processInstanceKeys.computeIfAbsent(processInstanceId, id -> new HashSet<>()).add(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(LocalKeysSearchParams searchParams) {
+    var keys = new HashSet<String>();
+    lock.lock();
+    try {
+      Optional.ofNullable(searchParams.getProcessInstanceId())
+          .map(processInstanceKeys::get)
+          .ifPresent(keys::addAll);
+      Optional.ofNullable(searchParams.getPrefix())
+          .ifPresent(prefix -> sortedKeys.tailSet(prefix).stream()
+              .takeWhile(key -> key.startsWith(prefix))
+              .forEach(keys::add));
+    } finally {
+      lock.unlock();
+    }
+    return keys;
+  }
+
+  @Override
+  public LocalKeysSearchParams getSearchParamsByPrefix(String prefix) {
+    return LocalKeysSearchParams.builder().prefix(prefix).build();
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    lock.lock();
+    try {
+      return SortedKeyPages.page(sortedKeys, searchParams.getPrefix(), searchParams.getCursor(),
+          searchParams.getCount());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    lock.lock();
+    try {
+      keys.forEach(this::remove);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return off-heap memory occupied by form data, in bytes
+   */
+  public long getUsedBytes() {
+    lock.lock();
+    try {
+      return (long) (nextUnallocatedPage - freePagesCount) * pageSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void ensureAvailablePages(String key, int pagesNeeded) {
+    while (availablePages() < pagesNeeded) {
+      var eldest = entries.keySet().stream().filter(k -> !k.equals(key)).findFirst();
+      if (overflowPolicy != OverflowPolicy.EVICT || eldest.isEmpty()) {
+        throw new FormDataRepositoryCapacityExceededException(String.format(
+            "Off-heap storage capacity exceeded, couldn't store form data %s", key));
+      }
+      log.debug("Evicting form data {} from off-heap storage", eldest.get());
+      remove(eldest.get());
+    }
+  }
+
+  private int availablePages() {
+    return freePagesCount + maxPages - nextUnallocatedPage;
+  }
+
+  private int[] allocate(int pagesCount) {
+    var pages = new int[pagesCount];
+    for (var i = 0; i < pagesCount; i++) {
+      if (freePagesCount > 0) {
+        pages[i] = freePages[--freePagesCount];
+      } else {
+        if (nextUnallocatedPage % pagesPerSlab == 0) {
+          slabs.add(ByteBuffer.allocateDirect(
+              Math.min(pagesPerSlab, maxPages - nextUnallocatedPage) * pageSize));
+        }
+        pages[i] = nextUnallocatedPage++;
+      }
+    }
+    return pages;
+  }
+
+  private void remove(String key) {
+    var entry = entries.remove(key);
+    if (Objects.isNull(entry)) {
+      return;
+    }
+    sortedKeys.remove(key);
+    for (var page : entry.pages) {
+      freePages[freePagesCount++] = page;
+    }
+    if (Objects.nonNull(entry.processInstanceId)) {
+      var keys = processInstanceKeys.get(entry.processInstanceId);
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        processInstanceKeys.remove(entry.processInstanceId);
+      }
+    }
+  }
+
+  private void write(Entry entry, byte[] value) {
+    for (var i = 0; i < entry.pages.length; i++) {
+      var offset = i * pageSize;
+      page(entry.pages[i]).put(value, offset, Math.min(pageSize, value.length - offset));
+    }
+  }
+
+  private byte[] read(Entry entry) {
+    var value = new byte[entry.length];
+    for (var i = 0; i < entry.pages.length; i++) {
+      var offset = i * pageSize;
+      page(entry.pages[i]).get(value, offset, Math.min(pageSize, value.length - offset));
+    }
+    return value;
+  }
+
+  private ByteBuffer page(int page) {
+    var buffer = slabs.get(page / pagesPerSlab).duplicate();
+    buffer.position((page % pagesPerSlab) * pageSize);
+    return buffer;
+  }
+
+  private FormDataDto deserializeFormData(byte[] formData) {
+    try {
+      return objectMapper.readValue(formData, FormDataDto.class);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't deserialize form data", e);
+    }
+  }
+
+  private byte[] serializeFormData(FormDataDto formData) {
+    try {
+      return objectMapper.writeValueAsBytes(formData);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't serialize form data", e);
+    }
+  }
+
+  @Value
+  private static class Entry {
+
+    int length;
+    int[] pages;
+    String processInstanceId;
+  }
+}
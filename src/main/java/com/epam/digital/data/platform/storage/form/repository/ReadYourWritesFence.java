@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+
+/**
+ * Keeps track of the keys recently written by this instance, so reads of them can be routed to the
+ * master instead of a possibly lagging replica.
+ */
+public class ReadYourWritesFence {
+
+  private static final long MAX_TRACKED_KEYS = 100_000L;
+
+  private final Cache<String, Boolean> recentWrites;
+
+  public ReadYourWritesFence(Duration window) {
+    this.recentWrites = CacheBuilder.newBuilder()
+        .expireAfterWrite(window)
+        .maximumSize(MAX_TRACKED_KEYS)
+        .build();
+  }
+
+  public void markWritten(String key) {
+    recentWrites.put(key, Boolean.TRUE);
+  }
+
+  public boolean isFenced(String key) {
+    return recentWrites.getIfPresent(key) != null;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Redis implementation of {@link ContentBlobStore}. The blob references are kept in two sets: the
+ * forms referencing the blob and the blobs referenced by the form. References are added before the
+ * blob is stored and orphaned blobs are deleted by a script that checks the references atomically,
+ * so a blob retained concurrently with the deletion is never lost.
+ */
+public class RedisContentBlobStore extends BaseRedisRepository implements ContentBlobStore {
+
+  public static final String KEY_PREFIX = "bpm-form-blobs";
+
+  private static final RedisScript<Long> DELETE_IF_UNREFERENCED = new DefaultRedisScript<>(
+      "if redis.call('scard', KEYS[1]) == 0 then return redis.call('del', KEYS[2]) end return 0",
+      Long.class);
+
+  private final RedisTemplate<String, Object> template;
+  @Getter(AccessLevel.PROTECTED)
+  private final ResiliencePolicy resiliencePolicy;
+
+  public RedisContentBlobStore(RedisTemplate<String, Object> template,
+      ResiliencePolicy resiliencePolicy) {
+    this.template = template;
+    this.resiliencePolicy = resiliencePolicy;
+  }
+
+  @Override
+  public Set<String> getReferences(String formKey) {
+    return execute(() -> Optional.ofNullable(
+            template.opsForSet().members(getFormReferencesKey(formKey)))
+        .stream().flatMap(Collection::stream)
+        .map(Object::toString)
+        .collect(Collectors.toCollection(HashSet::new)));
+  }
+
+  /**
+   * References of all forms are read in one pipeline
+   */
+  @Override
+  public Map<String, Set<String>> getReferences(Collection<String> formKeys) {
+    var orderedFormKeys = new ArrayList<>(formKeys);
+    var members = execute(() -> template.executePipelined((RedisCallback<Object>) connection -> {
+      orderedFormKeys.forEach(formKey -> connection.setCommands().sMembers(
+          getFormReferencesKey(formKey).getBytes(StandardCharsets.UTF_8)));
+      return null;
+    }));
+    var references = new HashMap<String, Set<String>>();
+    for (var i = 0; i < orderedFormKeys.size(); i++) {
+      references.put(orderedFormKeys.get(i), Optional.ofNullable((Collection<?>) members.get(i))
+          .stream().flatMap(Collection::stream)
+          .map(Object::toString)
+          .collect(Collectors.toCollection(HashSet::new)));
+    }
+    return references;
+  }
+
+  @Override
+  public void retain(String formKey, Map<String, String> blobs) {
+    if (blobs.isEmpty()) {
+      return;
+    }
+    var normalizedFormKey = normalize(formKey);
+    execute(() -> {
+      template.opsForSet().add(getFormReferencesKey(formKey), blobs.keySet().toArray());
+      blobs.forEach((hash, content) -> {
+        template.opsForSet().add(getBlobReferencesKey(hash), normalizedFormKey);
+        template.opsForValue().setIfAbsent(getBlobKey(hash), content);
+      });
+    });
+  }
+
+  @Override
+  public void release(String formKey, Set<String> hashes) {
+    if (hashes.isEmpty()) {
+      return;
+    }
+    var normalizedFormKey = normalize(formKey);
+    execute(() -> {
+      template.opsForSet().remove(getFormReferencesKey(formKey), hashes.toArray());
+      for (var hash : hashes) {
+        template.opsForSet().remove(getBlobReferencesKey(hash), normalizedFormKey);
+        template.execute(DELETE_IF_UNREFERENCED,
+            List.of(getBlobReferencesKey(hash), getBlobKey(hash)));
+      }
+    });
+  }
+
+  @Override
+  public Map<String, String> getBlobs(Collection<String> hashes) {
+    var orderedHashes = new ArrayList<>(hashes);
+    var contents = execute(() -> template.opsForValue().multiGet(orderedHashes.stream()
+        .map(this::getBlobKey)
+        .collect(Collectors.toList())));
+    var blobs = new HashMap<String, String>();
+    for (var i = 0; i < orderedHashes.size(); i++) {
+      var content = Objects.isNull(contents) ? null : contents.get(i);
+      if (Objects.nonNull(content)) {
+        blobs.put(orderedHashes.get(i), content.toString());
+      }
+    }
+    return blobs;
+  }
+
+  private String getBlobKey(String hash) {
+    return String.format("%s:%s", KEY_PREFIX, hash);
+  }
+
+  private String getBlobReferencesKey(String hash) {
+    return String.format("%s:%s:refs", KEY_PREFIX, hash);
+  }
+
+  private String getFormReferencesKey(String formKey) {
+    return String.format("%s:form:%s", KEY_PREFIX, normalize(formKey));
+  }
+
+  /**
+   * Form keys are passed to deletion with the form hash prefix
+   */
+  private String normalize(String formKey) {
+    var hashPrefix = RedisFormDataRepository.KEY_PREFIX + ":";
+    return formKey.startsWith(hashPrefix) ? formKey.substring(hashPrefix.length()) : formKey;
+  }
+}
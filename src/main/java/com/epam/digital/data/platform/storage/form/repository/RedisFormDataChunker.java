@@ -0,0 +1,261 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.model.FormDataRedis;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Splits large form data values into fixed-size chunk keys, so that a single big hash doesn't block
+ * redis during reads, replication and eviction. Chunks of every write get a new chunk id, so a
+ * reader never mixes chunks of different writes: it either reads all chunks referenced by the form
+ * hash or finds some of them missing and re-reads the hash. Chunks are written, read and deleted
+ * with pipelining.
+ * <p>
+ * The chunk ids saved for a form are registered with their chunk counts in a hash next to the form
+ * hash. Once the form is saved, the registered chunks no longer referenced by the form hash are
+ * collected by a script, so chunks replaced by concurrent writers are deleted by one of them.
+ */
+public class RedisFormDataChunker {
+
+  private static final byte[][] CHUNK_FIELDS = {
+      "chunkId".getBytes(StandardCharsets.UTF_8),
+      "chunkCount".getBytes(StandardCharsets.UTF_8)};
+
+  private static final String CHUNK_IDS_SUFFIX = ":chunk-ids";
+  private static final byte[] REGISTER_REFERENCED_CHUNKS = (
+      "local ref = redis.call('hmget', KEYS[1], 'chunkId', 'chunkCount') "
+          + "if ref[1] and ref[2] then redis.call('hset', KEYS[2], ref[1], ref[2]) end "
+          + "return 0").getBytes(StandardCharsets.UTF_8);
+  private static final byte[] COLLECT_UNREFERENCED_CHUNKS = (
+      "if ARGV[1] ~= '' then redis.call('hset', KEYS[2], ARGV[1], ARGV[2]) end "
+          + "local current = redis.call('hget', KEYS[1], 'chunkId') "
+          + "local ids = redis.call('hgetall', KEYS[2]) "
+          + "local collected = {} "
+          + "for i = 1, #ids, 2 do "
+          + "if ids[i] ~= current then "
+          + "redis.call('hdel', KEYS[2], ids[i]) "
+          + "table.insert(collected, ids[i]) "
+          + "table.insert(collected, ids[i + 1]) "
+          + "end "
+          + "end "
+          + "return collected").getBytes(StandardCharsets.UTF_8);
+
+  private final int threshold;
+  private final int chunkSize;
+
+  public RedisFormDataChunker(int threshold, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    this.threshold = threshold;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Move the data of the form to chunks if it exceeds the threshold. The chunks are written before
+   * the form hash that references them.
+   *
+   * @param template      template of the master
+   * @param formDataRedis form to be saved, left unchanged so that a retried save splits it again
+   * @return the form itself if it's below the threshold, otherwise its copy that references the
+   * chunks instead of the data
+   */
+  public FormDataRedis split(RedisTemplate<String, Object> template,
+      FormDataRedis formDataRedis) {
+    if (Objects.isNull(formDataRedis.getData())) {
+      return formDataRedis;
+    }
+    var data = formDataRedis.getData().getBytes(StandardCharsets.UTF_8);
+    if (data.length < threshold) {
+      return formDataRedis;
+    }
+    var chunkId = UUID.randomUUID().toString();
+    var chunkCount = (data.length + chunkSize - 1) / chunkSize;
+    var chunkKeys = getChunkKeys(formDataRedis.getId(), chunkId, chunkCount);
+    template.executePipelined((RedisCallback<Object>) connection -> {
+      for (var i = 0; i < chunkCount; i++) {
+        var chunk = Arrays.copyOfRange(data, i * chunkSize,
+            Math.min(data.length, (i + 1) * chunkSize));
+        connection.stringCommands().set(chunkKeys.get(i), chunk);
+      }
+      return null;
+    });
+    return FormDataRedis.builder()
+        .id(formDataRedis.getId())
+        .accessToken(formDataRedis.getAccessToken())
+        .signature(formDataRedis.getSignature())
+        .fingerprint(formDataRedis.getFingerprint())
+        .chunkId(chunkId)
+        .chunkCount(chunkCount)
+        .build();
+  }
+
+  /**
+   * Restore the data of the form from its chunks
+   *
+   * @param template      template the form hash was read from
+   * @param formDataRedis form read from redis
+   * @return false if some chunks are missing because the form was concurrently rewritten or deleted
+   */
+  public boolean join(RedisTemplate<String, Object> template, FormDataRedis formDataRedis) {
+    if (Objects.isNull(formDataRedis.getChunkId())) {
+      return true;
+    }
+    var chunkKeys = getChunkKeys(formDataRedis.getId(), formDataRedis.getChunkId(),
+        formDataRedis.getChunkCount());
+    var chunks = template.executePipelined((RedisCallback<Object>) connection -> {
+      chunkKeys.forEach(chunkKey -> connection.stringCommands().get(chunkKey));
+      return null;
+    }, RedisSerializer.byteArray());
+    var data = new ByteArrayOutputStream();
+    for (var chunk : chunks) {
+      if (Objects.isNull(chunk)) {
+        return false;
+      }
+      data.writeBytes((byte[]) chunk);
+    }
+    formDataRedis.setData(data.toString(StandardCharsets.UTF_8));
+    formDataRedis.setChunkId(null);
+    formDataRedis.setChunkCount(null);
+    return true;
+  }
+
+  /**
+   * Register the chunks referenced by the stored form before it's overwritten, so that they're
+   * collected after the save even if they were written before the chunk ids were registered
+   *
+   * @param template template of the master
+   * @param hashKey  key of the form hash
+   */
+  public void registerReferencedChunks(RedisTemplate<String, Object> template, String hashKey) {
+    template.execute((RedisCallback<Object>) connection -> connection.scriptingCommands()
+        .eval(REGISTER_REFERENCED_CHUNKS, ReturnType.INTEGER, 2, toBytes(hashKey),
+            toBytes(getChunkIdsKey(hashKey))));
+  }
+
+  /**
+   * Register the chunks of the saved form and delete the registered chunks the form hash no longer
+   * references. The unreferenced chunk ids are unregistered atomically, so every replaced chunk is
+   * deleted by exactly one writer.
+   *
+   * @param template      template of the master
+   * @param hashKey       key of the form hash
+   * @param formDataRedis form as it was saved, i.e. returned by {@link #split(RedisTemplate,
+   *                      FormDataRedis)}
+   */
+  public void deleteUnreferencedChunks(RedisTemplate<String, Object> template, String hashKey,
+      FormDataRedis formDataRedis) {
+    var chunkId = Objects.isNull(formDataRedis.getChunkId()) ? "" : formDataRedis.getChunkId();
+    var chunkCount = Objects.isNull(formDataRedis.getChunkCount()) ? ""
+        : String.valueOf(formDataRedis.getChunkCount());
+    List<Object> collected = template.execute(
+        (RedisCallback<List<Object>>) connection -> connection.scriptingCommands()
+            .eval(COLLECT_UNREFERENCED_CHUNKS, ReturnType.MULTI, 2, toBytes(hashKey),
+                toBytes(getChunkIdsKey(hashKey)), toBytes(chunkId), toBytes(chunkCount)));
+    if (Objects.isNull(collected) || collected.isEmpty()) {
+      return;
+    }
+    var chunkKeys = new ArrayList<String>();
+    for (var i = 0; i + 1 < collected.size(); i += 2) {
+      addChunkKeys(chunkKeys, hashKey, (byte[]) collected.get(i), (byte[]) collected.get(i + 1));
+    }
+    template.delete(chunkKeys);
+  }
+
+  /**
+   * Read chunk references of the stored forms, including the registered chunks and the registry
+   * itself
+   *
+   * @param template template of the master
+   * @param hashKeys keys of the form hashes
+   * @return keys of the chunks referenced by the forms
+   */
+  public List<String> getChunkKeys(RedisTemplate<String, Object> template,
+      Collection<String> hashKeys) {
+    if (hashKeys.isEmpty()) {
+      return List.of();
+    }
+    var ids = List.copyOf(hashKeys);
+    var references = template.executePipelined((RedisCallback<Object>) connection -> {
+      ids.forEach(hashKey -> connection.hashCommands()
+          .hMGet(hashKey.getBytes(StandardCharsets.UTF_8), CHUNK_FIELDS));
+      return null;
+    }, RedisSerializer.byteArray());
+    // pipelined manually, executePipelined deserializes hashes with the template serializers
+    var registered = template.execute((RedisCallback<List<Object>>) connection -> {
+      connection.openPipeline();
+      ids.forEach(hashKey -> connection.hashCommands().hGetAll(toBytes(getChunkIdsKey(hashKey))));
+      return connection.closePipeline();
+    });
+    var chunkKeys = new LinkedHashSet<String>();
+    for (var i = 0; i < ids.size(); i++) {
+      var hashKey = ids.get(i);
+      var fields = (List<?>) references.get(i);
+      if (Objects.nonNull(fields.get(0)) && Objects.nonNull(fields.get(1))) {
+        addChunkKeys(chunkKeys, hashKey, (byte[]) fields.get(0), (byte[]) fields.get(1));
+      }
+      var chunkIds = Objects.isNull(registered) ? null : (Map<?, ?>) registered.get(i);
+      if (Objects.nonNull(chunkIds) && !chunkIds.isEmpty()) {
+        chunkIds.forEach((chunkId, chunkCount) -> addChunkKeys(chunkKeys, hashKey,
+            (byte[]) chunkId, (byte[]) chunkCount));
+        chunkKeys.add(getChunkIdsKey(hashKey));
+      }
+    }
+    return List.copyOf(chunkKeys);
+  }
+
+  private void addChunkKeys(Collection<String> chunkKeys, String hashKey, byte[] chunkId,
+      byte[] chunkCount) {
+    getChunkKeys(hashKey, new String(chunkId, StandardCharsets.UTF_8),
+        Integer.parseInt(new String(chunkCount, StandardCharsets.UTF_8))).stream()
+        .map(chunkKey -> new String(chunkKey, StandardCharsets.UTF_8))
+        .forEach(chunkKeys::add);
+  }
+
+  private static String getChunkIdsKey(String hashKey) {
+    return hashKey + CHUNK_IDS_SUFFIX;
+  }
+
+  private static byte[] toBytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private List<byte[]> getChunkKeys(String id, String chunkId, int chunkCount) {
+    var key = id.startsWith(RedisFormDataRepository.KEY_PREFIX + ":") ? id
+        : String.format("%s:%s", RedisFormDataRepository.KEY_PREFIX, id);
+    return IntStream.range(0, chunkCount)
+        .mapToObj(i -> String.format("%s:chunk:%s:%d", key, chunkId, i))
+        .map(chunkKey -> chunkKey.getBytes(StandardCharsets.UTF_8))
+        .collect(Collectors.toList());
+  }
+}
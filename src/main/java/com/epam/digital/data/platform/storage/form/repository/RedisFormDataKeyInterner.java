@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyInterner;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Redis implementation of {@link FormDataKeyInterner}. Ids are assigned from a counter by a script
+ * that registers the value in both directions atomically, so concurrent instances never assign
+ * different ids to the same value. Assigned ids never change, so they're cached locally in both
+ * directions. Lookups only read the ids, from the replicas if the read template is bound to them,
+ * so reads keep working while the master is unavailable.
+ */
+public class RedisFormDataKeyInterner extends BaseRedisRepository implements FormDataKeyInterner {
+
+  public static final String KEY_PREFIX = "bpm-form-keys";
+
+  private static final RedisScript<Long> INTERN = new DefaultRedisScript<>(
+      "local id = redis.call('hget', KEYS[1], ARGV[1]) "
+          + "if id then return tonumber(id) end "
+          + "id = redis.call('incr', KEYS[3]) "
+          + "redis.call('hset', KEYS[2], id, ARGV[1]) "
+          + "redis.call('hset', KEYS[1], ARGV[1], id) "
+          + "return id",
+      Long.class);
+
+  private final RedisTemplate<String, Object> template;
+  private final RedisTemplate<String, Object> readTemplate;
+  @Getter(AccessLevel.PROTECTED)
+  private final ResiliencePolicy resiliencePolicy;
+  private final Map<String, Long> ids = new ConcurrentHashMap<>();
+  private final Map<Long, String> values = new ConcurrentHashMap<>();
+
+  public RedisFormDataKeyInterner(RedisTemplate<String, Object> template,
+      ResiliencePolicy resiliencePolicy) {
+    this(template, template, resiliencePolicy);
+  }
+
+  /**
+   * @param template         master bound template, ids are assigned through it
+   * @param readTemplate     template the ids are looked up through
+   * @param resiliencePolicy optional resilience policy of the requests
+   */
+  public RedisFormDataKeyInterner(RedisTemplate<String, Object> template,
+      RedisTemplate<String, Object> readTemplate, ResiliencePolicy resiliencePolicy) {
+    this.template = template;
+    this.readTemplate = readTemplate;
+    this.resiliencePolicy = resiliencePolicy;
+  }
+
+  @Override
+  public long intern(String value) {
+    var cached = ids.get(value);
+    if (Objects.nonNull(cached)) {
+      return cached;
+    }
+    var id = execute(() -> template.execute(INTERN,
+        List.of(getIdsKey(), getValuesKey(), getSequenceKey()), value));
+    if (Objects.isNull(id)) {
+      throw new IllegalStateException(String.format("Couldn't intern key component %s", value));
+    }
+    cache(value, id);
+    return id;
+  }
+
+  @Override
+  public OptionalLong lookup(String value) {
+    var cached = ids.get(value);
+    if (Objects.nonNull(cached)) {
+      return OptionalLong.of(cached);
+    }
+    var hashKey = getIdsKey().getBytes(StandardCharsets.UTF_8);
+    var field = value.getBytes(StandardCharsets.UTF_8);
+    var id = execute(() -> readTemplate.execute(
+        (RedisCallback<byte[]>) connection -> connection.hashCommands().hGet(hashKey, field)));
+    if (Objects.isNull(id)) {
+      return OptionalLong.empty();
+    }
+    var parsed = Long.parseLong(new String(id, StandardCharsets.UTF_8));
+    cache(value, parsed);
+    return OptionalLong.of(parsed);
+  }
+
+  @Override
+  public Optional<String> resolve(long id) {
+    var cached = values.get(id);
+    if (Objects.nonNull(cached)) {
+      return Optional.of(cached);
+    }
+    var hashKey = getValuesKey().getBytes(StandardCharsets.UTF_8);
+    var field = Long.toString(id).getBytes(StandardCharsets.UTF_8);
+    var value = execute(() -> template.execute(
+        (RedisCallback<byte[]>) connection -> connection.hashCommands().hGet(hashKey, field)));
+    if (Objects.isNull(value)) {
+      return Optional.empty();
+    }
+    var resolved = new String(value, StandardCharsets.UTF_8);
+    cache(resolved, id);
+    return Optional.of(resolved);
+  }
+
+  private void cache(String value, long id) {
+    ids.put(value, id);
+    values.put(id, value);
+  }
+
+  private String getIdsKey() {
+    return String.format("%s:ids", KEY_PREFIX);
+  }
+
+  private String getValuesKey() {
+    return String.format("%s:values", KEY_PREFIX);
+  }
+
+  private String getSequenceKey() {
+    return String.format("%s:sequence", KEY_PREFIX);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProvider;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Scans form data keys with SSCAN of the set of form hash ids maintained by the key-value adapter.
+ * The cursor is the redis scan cursor, so a scan can be resumed by another connection. Separately
+ * stored signatures and revision history entries are skipped, they are read together with their
+ * forms, as well as compression dictionaries. Compact keys are decoded with the key provider.
+ */
+public class RedisFormDataKeyScanner extends BaseRedisRepository implements FormDataKeyScanner {
+
+  private final RedisTemplate<String, Object> template;
+  @Getter(AccessLevel.PROTECTED)
+  private final ResiliencePolicy resiliencePolicy;
+  private final FormDataKeyProvider keyProvider;
+
+  public RedisFormDataKeyScanner(RedisTemplate<String, Object> template,
+      ResiliencePolicy resiliencePolicy) {
+    this(template, resiliencePolicy, new FormDataKeyProviderImpl());
+  }
+
+  public RedisFormDataKeyScanner(RedisTemplate<String, Object> template,
+      ResiliencePolicy resiliencePolicy, FormDataKeyProvider keyProvider) {
+    this.template = template;
+    this.resiliencePolicy = resiliencePolicy;
+    this.keyProvider = keyProvider;
+  }
+
+  @Override
+  public FormDataKeyPage scan(String cursor, int count) {
+    var page = scanSet(template, RedisFormDataRepository.KEY_PREFIX, cursor, count);
+    return FormDataKeyPage.builder()
+        .keys(page.getKeys().stream()
+            .map(keyProvider::fromCompactKey)
+            .filter(key -> !SignatureSeparatingFormDataRepository.isSignatureKey(key))
+            .filter(key -> !RevisionHistoryFormDataRepository.isRevisionKey(key))
+            .filter(key -> !CompressingFormDataRepository.isDictionaryKey(key))
+            .collect(Collectors.toList()))
+        .cursor(page.getCursor())
+        .build();
+  }
+}
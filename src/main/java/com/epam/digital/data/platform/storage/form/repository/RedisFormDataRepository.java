@@ -20,39 +20,109 @@ package com.epam.digital.data.platform.storage.form.repository;
 
 import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
 import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
 import com.epam.digital.data.platform.storage.form.model.FormDataRedis;
 import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.epam.digital.data.platform.storage.form.tracing.FormDataStorageEvent;
+import com.epam.digital.data.platform.storage.form.tracing.StorageTracer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Utf8;
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Builder
 public class RedisFormDataRepository extends BaseRedisRepository implements FormDataRepository<RedisKeysSearchParams> {
 
   public static final String KEY_PREFIX = "bpm-form-submissions";
   public static final String PROCESS_INSTANCE_ID_PREFIX = "process-instance-id";
+  public static final String PROCESS_DEFINITION_KEY_PREFIX = "process-definition-key";
+  /**
+   * Marker of the completed backfill of the start form index, see
+   * {@link #backfillStartFormKeySets()}
+   */
+  public static final String START_FORM_INDEX_BACKFILLED_KEY =
+      KEY_PREFIX + ":start-form-index-backfilled";
+  private static final String START_FORM_INDEX_BACKFILL_LOCK_KEY =
+      KEY_PREFIX + ":start-form-index-backfill-lock";
+  private static final Duration START_FORM_INDEX_BACKFILL_LOCK_TIMEOUT = Duration.ofMinutes(30);
+  private static final String BACKEND = "redis";
+  private static final Pattern START_FORM_KEY_PATTERN = Pattern.compile(
+      String.format(FormDataKeyProviderImpl.START_FORM_DATA_PREFIX_FORMAT, "([^/~]+)") + "[^/~]+");
+  private static final String FINGERPRINT_FIELD = "fingerprint";
+  /**
+   * Chunks read may be missing if the form is rewritten concurrently, then the hash is re-read
+   */
+  private static final int MAX_CHUNKED_READ_ATTEMPTS = 3;
+  private static final int BACKFILL_PAGE_SIZE = 1000;
 
   private FormDataKeyValueRepository repository;
   private RedisTemplate<String, Object> template;
   private final ObjectMapper objectMapper;
+  /**
+   * Optional repository and template bound to replicas. If set, reads are served by them and
+   * retried on the master on a miss.
+   */
+  private FormDataKeyValueRepository replicaRepository;
+  private RedisTemplate<String, Object> replicaTemplate;
+  private ReadYourWritesFence readYourWritesFence;
+  @Getter(AccessLevel.PROTECTED)
+  private ResiliencePolicy resiliencePolicy;
+  /**
+   * Optional filter of unchanged writes, fingerprints are stored in the form data hash if set
+   */
+  private FingerprintWriteFilter fingerprintFilter;
+  /**
+   * Optional splitter of large data values into separate chunk keys
+   */
+  private RedisFormDataChunker chunker;
+  @Builder.Default
+  private StorageTracer tracer = StorageTracer.NOOP;
 
   @Override
   public Set<String> getKeysBySearchParams(RedisKeysSearchParams redisKeysSearchParams) {
-    return execute(
-        () -> getKeysToDeleteByProcessInstanceId(redisKeysSearchParams.getProcessInstanceId()));
+    return FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.SEARCH, null, event -> execute(
+            () -> tracer.call("redis.index.read", null, span -> {
+              var keys = getKeysToDeleteByProcessInstanceId(
+                  redisKeysSearchParams.getProcessInstanceId());
+              span.tag(StorageTracer.KEY_COUNT, keys.size());
+              event.setKeyCount(keys.size());
+              return keys;
+            })));
+  }
+
+  /**
+   * Scans the set of the process instance keys with SSCAN, the set key itself goes last, so it's
+   * deleted after all the members when the stream is consumed for deletion
+   */
+  @Override
+  public Stream<String> streamKeysBySearchParams(RedisKeysSearchParams redisKeysSearchParams,
+      int pageSize) {
+    var parentKey = getProcessInstanceKeySetKey(redisKeysSearchParams.getProcessInstanceId());
+    FormDataKeyScanner scanner = (cursor, count) -> scanSet(template, parentKey, cursor, count);
+    return Stream.concat(scanner.keys(pageSize), Stream.of(parentKey));
   }
 
   private Set<String> getKeysToDeleteByProcessInstanceId(String processInstanceId) {
-    var parentKey = String.format("%s:%s:%s", KEY_PREFIX, PROCESS_INSTANCE_ID_PREFIX, processInstanceId);
-    var keysToDeleteByProcessInstanceId = Optional.ofNullable(template.opsForSet().members(parentKey))
-            .stream().flatMap(Collection::stream)
-            .map(Object::toString)
-            .collect(Collectors.toSet());
+    var parentKey = getProcessInstanceKeySetKey(processInstanceId);
+    var keysToDeleteByProcessInstanceId = getSetMembers(parentKey);
     if (keysToDeleteByProcessInstanceId.isEmpty()) {
       return Collections.emptySet();
     }
@@ -60,33 +130,176 @@ public class RedisFormDataRepository extends BaseRedisRepository implements Form
     return keysToDeleteByProcessInstanceId;
   }
 
+  /**
+   * The members are read from the master: they're used to find the keys to delete, and a lagging
+   * replica would return a partial set, orphaning the rest of the keys
+   */
+  private Set<String> getSetMembers(String setKey) {
+    return Optional.ofNullable(template.opsForSet().members(setKey))
+        .stream().flatMap(Collection::stream)
+        .map(Object::toString)
+        .collect(Collectors.toSet());
+  }
+
   @Override
   public void delete(Set<String> keys) {
     var keysWithPrefix = keys.stream()
         .map(k -> k.startsWith(KEY_PREFIX) ? k : String.format("%s:%s", KEY_PREFIX, k))
-        .collect(Collectors.toSet());
-    execute(() -> template.delete(keysWithPrefix));
+        .collect(Collectors.toCollection(HashSet::new));
+    FormDataStorageEvent.run(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.DELETE, keys, () -> execute(() -> {
+          tracer.run("redis.delete", keys, () -> {
+            if (Objects.nonNull(chunker)) {
+              keysWithPrefix.addAll(chunker.getChunkKeys(template, keysWithPrefix.stream()
+                  .filter(RedisFormDataRepository::isFormDataHashKey)
+                  .collect(Collectors.toList())));
+            }
+            template.delete(keysWithPrefix);
+          });
+          tracer.run("redis.index.write", keys, () -> updateStartFormKeySets(keys, false));
+        }));
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.SEARCH, searchParams.getPrefix(), event -> {
+          var page = scanSet(template,
+              getStartFormKeySetKey(searchParams.getProcessDefinitionKey()),
+              searchParams.getCursor(), searchParams.getCount());
+          event.setKeyCount(page.getKeys().size());
+          return page;
+        });
   }
 
   @Override
   public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
-    execute(
-        () -> {
-          repository.save(
-              toFormDataRedis(
-                  formDataInputWrapperDto.getKey(), formDataInputWrapperDto.getFormData()));
-          addToProcessInstanceRelatedKeySet(
-              formDataInputWrapperDto.getProcessInstanceId(), formDataInputWrapperDto.getKey());
+    var key = formDataInputWrapperDto.getKey();
+    FormDataStorageEvent.run(FormDataStorageEvent.REPOSITORY, BACKEND, FormDataStorageEvent.PUT,
+        key, event -> {
+          var formDataRedis = tracer.call("form-data.serialize", key, span -> {
+            var serialized = toFormDataRedis(key, formDataInputWrapperDto.getFormData());
+            LongSupplier payloadSize = () -> getPayloadSize(serialized);
+            span.tag(StorageTracer.PAYLOAD_BYTES, payloadSize::getAsLong);
+            event.setPayloadBytes(payloadSize);
+            return serialized;
+          });
+          execute(
+              () -> {
+                tracer.run("redis.hash.write", key, span -> {
+                  if (Objects.isNull(fingerprintFilter)) {
+                    save(formDataRedis);
+                  } else {
+                    saveIfChanged(formDataRedis);
+                  }
+                });
+                tracer.run("redis.index.write", key, span -> {
+                  addToProcessInstanceRelatedKeySet(
+                      formDataInputWrapperDto.getProcessInstanceId(), key);
+                  addToStartFormKeySet(key);
+                });
+              });
         });
   }
 
+  private void saveIfChanged(FormDataRedis formDataRedis) {
+    var contents = new String[]{formDataRedis.getData(), formDataRedis.getAccessToken(),
+        formDataRedis.getSignature()};
+    var fingerprint = fingerprintFilter.fingerprint(contents);
+    // read from the master, a lagging replica could report the fingerprint of an outdated value
+    if (fingerprint.equals(getStoredFingerprint(formDataRedis.getId()))) {
+      fingerprintFilter.recordSkipped(contents);
+      return;
+    }
+    formDataRedis.setFingerprint(fingerprint);
+    save(formDataRedis);
+    fingerprintFilter.recordWritten(contents);
+  }
+
+  /**
+   * Chunks of the previous values are deleted once the hash references the new ones, the replaced
+   * chunks are collected atomically, so the chunks of concurrent writes aren't leaked
+   */
+  private void save(FormDataRedis formDataRedis) {
+    if (Objects.isNull(chunker)) {
+      repository.save(formDataRedis);
+      markWritten(formDataRedis.getId());
+      return;
+    }
+    var hashKey = String.format("%s:%s", KEY_PREFIX, formDataRedis.getId());
+    chunker.registerReferencedChunks(template, hashKey);
+    var chunkedFormData = chunker.split(template, formDataRedis);
+    repository.save(chunkedFormData);
+    markWritten(formDataRedis.getId());
+    chunker.deleteUnreferencedChunks(template, hashKey, chunkedFormData);
+  }
+
+  private String getStoredFingerprint(String key) {
+    var hashKey = String.format("%s:%s", KEY_PREFIX, key).getBytes(StandardCharsets.UTF_8);
+    var field = FINGERPRINT_FIELD.getBytes(StandardCharsets.UTF_8);
+    var fingerprint = template.execute(
+        (RedisCallback<byte[]>) connection -> connection.hashCommands().hGet(hashKey, field));
+    return Objects.isNull(fingerprint) ? null : new String(fingerprint, StandardCharsets.UTF_8);
+  }
+
   @Override
   public Optional<FormDataDto> getFormData(String key) {
     if (Objects.isNull(key)) {
       return Optional.empty();
     }
-    var data = repository.findById(key);
-    return execute(() -> data.map(this::toFormDataDto));
+    return FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, BACKEND,
+        FormDataStorageEvent.GET, key, event ->
+            execute(() -> tracer.call("redis.hash.read", key, span -> findById(key)))
+                .map(formDataRedis -> tracer.call("form-data.deserialize", key, span -> {
+                  LongSupplier payloadSize = () -> getPayloadSize(formDataRedis);
+                  span.tag(StorageTracer.PAYLOAD_BYTES, payloadSize::getAsLong);
+                  event.setPayloadBytes(payloadSize);
+                  return toFormDataDto(formDataRedis);
+                })));
+  }
+
+  private static long getPayloadSize(FormDataRedis formDataRedis) {
+    return Stream.of(formDataRedis.getData(), formDataRedis.getAccessToken(),
+            formDataRedis.getSignature())
+        .filter(Objects::nonNull)
+        .mapToLong(Utf8::encodedLength)
+        .sum();
+  }
+
+  private Optional<FormDataRedis> findById(String key) {
+    if (Objects.nonNull(replicaRepository) && !isFenced(key)) {
+      var data = replicaRepository.findById(key);
+      if (data.isPresent() && join(replicaTemplate, data.get())) {
+        return data;
+      }
+    }
+    for (var attempt = 0; attempt < MAX_CHUNKED_READ_ATTEMPTS; attempt++) {
+      var data = repository.findById(key);
+      if (data.isEmpty() || join(template, data.get())) {
+        return data;
+      }
+    }
+    throw new FormDataRepositoryCommunicationException(
+        String.format("Chunks of form data %s are missing", key), null);
+  }
+
+  private boolean join(RedisTemplate<String, Object> redisTemplate, FormDataRedis formDataRedis) {
+    return Objects.isNull(chunker) || chunker.join(redisTemplate, formDataRedis);
+  }
+
+  private static boolean isFormDataHashKey(String key) {
+    return !key.startsWith(String.format("%s:%s:", KEY_PREFIX, PROCESS_INSTANCE_ID_PREFIX))
+        && !key.startsWith(String.format("%s:%s:", KEY_PREFIX, PROCESS_DEFINITION_KEY_PREFIX));
+  }
+
+  private boolean isFenced(String key) {
+    return Objects.nonNull(readYourWritesFence) && readYourWritesFence.isFenced(key);
+  }
+
+  private void markWritten(String key) {
+    if (Objects.nonNull(readYourWritesFence)) {
+      readYourWritesFence.markWritten(key);
+    }
   }
 
   private FormDataDto toFormDataDto(FormDataRedis formDataRedis) {
@@ -109,14 +322,108 @@ public class RedisFormDataRepository extends BaseRedisRepository implements Form
 
   private void addToProcessInstanceRelatedKeySet(String processInstanceId, String key) {
     Optional.ofNullable(processInstanceId)
-        .map(
-            procInstId ->
-                String.format("%s:%s:%s", KEY_PREFIX, PROCESS_INSTANCE_ID_PREFIX, procInstId))
+        .map(this::getProcessInstanceKeySetKey)
         .ifPresent(
-            processInstanceIdRelatedKeysSet ->
-                template
-                    .opsForSet()
-                    .add(processInstanceIdRelatedKeysSet, String.format("%s:%s", KEY_PREFIX, key)));
+            processInstanceIdRelatedKeysSet -> {
+              template
+                  .opsForSet()
+                  .add(processInstanceIdRelatedKeysSet, String.format("%s:%s", KEY_PREFIX, key));
+              markWritten(processInstanceIdRelatedKeysSet);
+            });
+  }
+
+  /**
+   * Start forms are indexed by process definition, so that they can be listed without scanning
+   * the keyspace
+   */
+  private void addToStartFormKeySet(String key) {
+    var matcher = START_FORM_KEY_PATTERN.matcher(key);
+    if (matcher.matches()) {
+      template.opsForSet().add(getStartFormKeySetKey(matcher.group(1)), key);
+    }
+  }
+
+  /**
+   * Start forms stored before the index was introduced aren't in it, so the index is filled from
+   * the keyspace set once, in a single scan for all process definitions. Intended to run in the
+   * background: concurrent runs on other nodes are skipped while the lock is held, and listings
+   * miss the older start forms until it completes. A form deleted while the keyspace is scanned
+   * may be left in the index, listing the key of a missing form.
+   *
+   * @return false if the index has already been backfilled or is being backfilled by another node
+   */
+  public boolean backfillStartFormKeySets() {
+    if (Boolean.TRUE.equals(execute(() -> template.hasKey(START_FORM_INDEX_BACKFILLED_KEY)))) {
+      return false;
+    }
+    var lockToken = UUID.randomUUID().toString();
+    var locked = execute(() -> template.opsForValue().setIfAbsent(
+        START_FORM_INDEX_BACKFILL_LOCK_KEY, lockToken, START_FORM_INDEX_BACKFILL_LOCK_TIMEOUT));
+    if (!Boolean.TRUE.equals(locked)) {
+      return false;
+    }
+    try {
+      var match = String.format(FormDataKeyProviderImpl.START_FORM_DATA_PREFIX_FORMAT, "*") + "*";
+      FormDataKeyScanner scanner = (cursor, count) -> scanSet(template, KEY_PREFIX, cursor, count,
+          match);
+      var keys = scanner.keys(BACKFILL_PAGE_SIZE).iterator();
+      var page = new ArrayList<String>(BACKFILL_PAGE_SIZE);
+      while (keys.hasNext()) {
+        page.add(keys.next());
+        if (page.size() == BACKFILL_PAGE_SIZE || !keys.hasNext()) {
+          execute(() -> updateStartFormKeySets(page, true));
+          page.clear();
+        }
+      }
+      execute(() -> template.opsForValue().set(START_FORM_INDEX_BACKFILLED_KEY, "true"));
+      return true;
+    } finally {
+      execute(() -> {
+        if (lockToken.equals(template.opsForValue().get(START_FORM_INDEX_BACKFILL_LOCK_KEY))) {
+          template.delete(START_FORM_INDEX_BACKFILL_LOCK_KEY);
+        }
+      });
+    }
+  }
+
+  /**
+   * Start form keys are added to or removed from the sets of their process definitions in one
+   * pipeline, the keys may have the form hash prefix
+   */
+  private void updateStartFormKeySets(Collection<String> keys, boolean add) {
+    var hashPrefix = KEY_PREFIX + ":";
+    var members = new HashMap<String, byte[]>();
+    for (var key : keys) {
+      var formKey = key.startsWith(hashPrefix) ? key.substring(hashPrefix.length()) : key;
+      var matcher = START_FORM_KEY_PATTERN.matcher(formKey);
+      if (matcher.matches()) {
+        members.put(formKey,
+            getStartFormKeySetKey(matcher.group(1)).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    if (members.isEmpty()) {
+      return;
+    }
+    template.executePipelined((RedisCallback<Object>) connection -> {
+      members.forEach((formKey, setKey) -> {
+        var member = formKey.getBytes(StandardCharsets.UTF_8);
+        if (add) {
+          connection.setCommands().sAdd(setKey, member);
+        } else {
+          connection.setCommands().sRem(setKey, member);
+        }
+      });
+      return null;
+    });
+  }
+
+  private String getProcessInstanceKeySetKey(String processInstanceId) {
+    return String.format("%s:%s:%s", KEY_PREFIX, PROCESS_INSTANCE_ID_PREFIX, processInstanceId);
+  }
+
+  private String getStartFormKeySetKey(String processDefinitionKey) {
+    return String.format("%s:%s:%s", KEY_PREFIX, PROCESS_DEFINITION_KEY_PREFIX,
+        processDefinitionKey);
   }
 
   private LinkedHashMap<String, Object> deserializeData(String formData) {
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.RevisionHistoryConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.FormDataRevisionIndex;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.base.Utf8;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorator that keeps the revision history of forms. The latest revision is stored in full under
+ * the form key, each previous revision as a JSON Patch that restores it from the next revision,
+ * under {@code <key>~revisions/<revision>}, so the history costs storage in proportion to the size
+ * of the changes. The index of the history under {@code <key>~revisions} holds the hash of the
+ * latest revision, which detects a form written without its history (e.g. interrupted write or
+ * write bypassing the history), previous revisions aren't available then. The next write starts a
+ * new history, the deltas of the broken one are kept detached in the index for recovery.
+ * <p>
+ * Revisions are numbered from 1 and kept while both the count and the total delta size limits
+ * hold, the detached deltas and then the oldest revisions are dropped first. Concurrent writes of
+ * the same form aren't supported.
+ */
+@Slf4j
+public class RevisionHistoryFormDataRepository<T> implements FormDataRepository<T> {
+
+  public static final String REVISIONS_KEY_SUFFIX =
+      FormDataKeyProviderImpl.DERIVED_KEY_SEPARATOR + "revisions";
+  private static final Pattern REVISION_KEY_PATTERN = Pattern.compile(
+      ".+" + Pattern.quote(REVISIONS_KEY_SUFFIX) + "(/\\d+)?");
+  private static final String PATCH_FIELD = "patch";
+
+  private final FormDataRepository<T> delegate;
+  private final RevisionHistoryConfiguration configuration;
+  private final ObjectMapper objectMapper;
+  /**
+   * Optional executor of the index reads on deletion, indexes are read sequentially if not set
+   */
+  private final ExecutorService executor;
+
+  public RevisionHistoryFormDataRepository(FormDataRepository<T> delegate,
+      RevisionHistoryConfiguration configuration, ObjectMapper objectMapper) {
+    this(delegate, configuration, objectMapper, null);
+  }
+
+  public RevisionHistoryFormDataRepository(FormDataRepository<T> delegate,
+      RevisionHistoryConfiguration configuration, ObjectMapper objectMapper,
+      ExecutorService executor) {
+    this.delegate = delegate;
+    this.configuration = configuration;
+    this.objectMapper = objectMapper;
+    this.executor = executor;
+  }
+
+  /**
+   * @param key storage key
+   * @return true if the key holds a revision history index or delta
+   */
+  public static boolean isRevisionKey(String key) {
+    return REVISION_KEY_PATTERN.matcher(key).matches();
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    return delegate.getFormData(key);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return delegate.getFormDataWithSignature(key);
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    return delegate.getSignature(key);
+  }
+
+  /**
+   * The delta of the current revision is written before the new revision, the index goes last
+   */
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    if (isRevisionKey(key)) {
+      delegate.putFormData(formDataInputWrapperDto);
+      return;
+    }
+    var processInstanceId = formDataInputWrapperDto.getProcessInstanceId();
+    var revision = toTree(formDataInputWrapperDto.getFormData());
+    var revisionHash = hash(revision);
+    var index = getIndex(key);
+    var current = delegate.getFormDataWithSignature(key).map(this::toTree);
+    var currentHash = current.map(this::hash);
+    var history = index.filter(idx -> currentHash.filter(idx.getHash()::equals).isPresent());
+    if ((index.isEmpty() || history.isPresent()) && currentHash.filter(revisionHash::equals)
+        .isPresent()) {
+      delegate.putFormData(formDataInputWrapperDto);
+      return;
+    }
+
+    var detachedDeltas = new ArrayList<>(
+        index.map(FormDataRevisionIndex::getDetachedDeltas).orElse(List.of()));
+    if (index.isPresent() && history.isEmpty()) {
+      detachedDeltas.addAll(index.get().getDeltas());
+      // written by an interrupted write before the form
+      getDeltaBytes(key, index.get().getLatest()).ifPresent(bytes -> detachedDeltas.add(
+          new FormDataRevisionIndex.Delta(index.get().getLatest(), bytes)));
+      log.warn("Revision history of form {} doesn't match the form, a new history is started, "
+          + "{} deltas of the previous ones are kept detached", key, detachedDeltas.size());
+    }
+    var currentRevision = history.map(FormDataRevisionIndex::getLatest)
+        .orElseGet(() -> index.map(idx -> idx.getLatest() + 1).orElse(1));
+    var deltas = new ArrayList<>(history.map(FormDataRevisionIndex::getDeltas).orElse(List.of()));
+    var latest = currentRevision;
+    if (current.isPresent() && !currentHash.get().equals(revisionHash)) {
+      var patch = JsonPatches.diff(revision, current.get());
+      var bytes = Utf8.encodedLength(serialize(patch));
+      putForm(getDeltaKey(key, currentRevision), processInstanceId, toDeltaForm(patch));
+      deltas.add(new FormDataRevisionIndex.Delta(currentRevision, bytes));
+      latest = currentRevision + 1;
+    }
+    var staleKeys = new HashSet<String>();
+    while (exceedsRetention(detachedDeltas, deltas)) {
+      var dropped = detachedDeltas.isEmpty() ? deltas.remove(0) : detachedDeltas.remove(0);
+      staleKeys.add(getDeltaKey(key, dropped.getRevision()));
+    }
+
+    delegate.putFormData(formDataInputWrapperDto);
+    putForm(key + REVISIONS_KEY_SUFFIX, processInstanceId, toIndexForm(
+        FormDataRevisionIndex.builder()
+            .latest(latest)
+            .hash(revisionHash)
+            .deltas(deltas)
+            .detachedDeltas(detachedDeltas)
+            .build()));
+    if (!staleKeys.isEmpty()) {
+      delegate.delete(staleKeys);
+    }
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return getIndex(key)
+        .map(index -> Stream.concat(
+                index.getDeltas().stream().map(FormDataRevisionIndex.Delta::getRevision),
+                Stream.of(index.getLatest()))
+            .collect(Collectors.toList()))
+        .orElse(List.of());
+  }
+
+  /**
+   * The revision is rebuilt by applying the deltas from the latest revision down to the requested
+   * one
+   */
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    var index = getIndex(key);
+    if (index.isEmpty()) {
+      return Optional.empty();
+    }
+    var current = delegate.getFormDataWithSignature(key);
+    if (current.isEmpty()) {
+      return Optional.empty();
+    }
+    var document = toTree(current.get());
+    if (!index.get().getHash().equals(hash(document))) {
+      log.warn("Revision history of form {} doesn't match the form", key);
+      return Optional.empty();
+    }
+    if (revision == index.get().getLatest()) {
+      return current;
+    }
+    var deltas = index.get().getDeltas();
+    if (deltas.stream().noneMatch(delta -> delta.getRevision() == revision)) {
+      return Optional.empty();
+    }
+    for (var i = deltas.size() - 1; i >= 0 && deltas.get(i).getRevision() >= revision; i--) {
+      var deltaKey = getDeltaKey(key, deltas.get(i).getRevision());
+      var patch = delegate.getFormData(deltaKey)
+          .map(delta -> (ArrayNode) objectMapper.valueToTree(delta.getData().get(PATCH_FIELD)))
+          .orElseThrow(() -> new IllegalStateException(
+              String.format("Revision delta %s is missing", deltaKey)));
+      document = JsonPatches.apply(document, patch);
+    }
+    return Optional.of(objectMapper.convertValue(document, FormDataDto.class));
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return delegate.getKeysBySearchParams(searchParams);
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return delegate.streamKeysBySearchParams(searchParams, pageSize);
+  }
+
+  /**
+   * History of the forms is deleted with them, the indexes of the forms are read concurrently to
+   * find the deltas
+   */
+  @Override
+  public void delete(Set<String> keys) {
+    var formKeys = keys.stream()
+        .filter(key -> !isRevisionKey(key))
+        .collect(Collectors.toList());
+    var indexes = getAll(formKeys.stream()
+        .map(key -> (Supplier<Optional<FormDataRevisionIndex>>) () -> getIndex(key))
+        .collect(Collectors.toList()));
+    var keysToDelete = new HashSet<>(keys);
+    for (var i = 0; i < formKeys.size(); i++) {
+      var key = formKeys.get(i);
+      indexes.get(i).ifPresent(index -> {
+        keysToDelete.add(key + REVISIONS_KEY_SUFFIX);
+        keysToDelete.addAll(getDeltaKeys(key, index));
+      });
+    }
+    delegate.delete(keysToDelete);
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return delegate.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return delegate.getStartFormKeys(searchParams);
+  }
+
+  private boolean exceedsRetention(List<FormDataRevisionIndex.Delta> detachedDeltas,
+      List<FormDataRevisionIndex.Delta> deltas) {
+    if (detachedDeltas.isEmpty() && deltas.isEmpty()) {
+      return false;
+    }
+    return detachedDeltas.size() + deltas.size() > configuration.getMaxRevisions()
+        || Stream.concat(detachedDeltas.stream(), deltas.stream())
+        .mapToLong(FormDataRevisionIndex.Delta::getBytes).sum() > configuration.getMaxBytes();
+  }
+
+  private <R> List<R> getAll(List<Supplier<R>> tasks) {
+    if (Objects.isNull(executor) || tasks.size() < 2) {
+      return tasks.stream().map(Supplier::get).collect(Collectors.toList());
+    }
+    var futures = tasks.stream()
+        .map(task -> executor.submit(task::get))
+        .collect(Collectors.toList());
+    var results = new ArrayList<R>(futures.size());
+    try {
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataRepositoryCommunicationException(
+          "Interrupted while reading revision history", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new FormDataRepositoryCommunicationException(ex.getMessage(), ex);
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private Optional<FormDataRevisionIndex> getIndex(String key) {
+    return delegate.getFormData(key + REVISIONS_KEY_SUFFIX)
+        .map(FormDataDto::getData)
+        .map(data -> objectMapper.convertValue(data, FormDataRevisionIndex.class));
+  }
+
+  private Set<String> getDeltaKeys(String key, FormDataRevisionIndex index) {
+    return Stream.concat(index.getDetachedDeltas().stream(), index.getDeltas().stream())
+        .map(delta -> getDeltaKey(key, delta.getRevision()))
+        .collect(Collectors.toSet());
+  }
+
+  private Optional<Long> getDeltaBytes(String key, int revision) {
+    return delegate.getFormData(getDeltaKey(key, revision))
+        .map(delta -> (long) Utf8.encodedLength(
+            serialize(objectMapper.valueToTree(delta.getData().get(PATCH_FIELD)))));
+  }
+
+  private String getDeltaKey(String key, int revision) {
+    return key + REVISIONS_KEY_SUFFIX + "/" + revision;
+  }
+
+  private void putForm(String key, String processInstanceId, FormDataDto formData) {
+    delegate.putFormData(FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(processInstanceId)
+        .formData(formData)
+        .build());
+  }
+
+  @SuppressWarnings("unchecked")
+  private FormDataDto toIndexForm(FormDataRevisionIndex index) {
+    return FormDataDto.builder()
+        .data(objectMapper.convertValue(index, LinkedHashMap.class))
+        .build();
+  }
+
+  private FormDataDto toDeltaForm(ArrayNode patch) {
+    var data = new LinkedHashMap<String, Object>();
+    data.put(PATCH_FIELD, objectMapper.convertValue(patch, List.class));
+    return FormDataDto.builder().data(data).build();
+  }
+
+  private JsonNode toTree(FormDataDto formData) {
+    return objectMapper.valueToTree(formData);
+  }
+
+  private String hash(JsonNode document) {
+    return Hashing.murmur3_128().hashString(serialize(document), StandardCharsets.UTF_8)
+        .toString();
+  }
+
+  private String serialize(JsonNode document) {
+    try {
+      return objectMapper.writeValueAsString(document);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Couldn't serialize form data", e);
+    }
+  }
+}
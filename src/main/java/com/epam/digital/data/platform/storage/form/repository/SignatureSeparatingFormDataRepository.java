@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that stores signatures under their own keys next to the forms, so that typical reads
+ * don't transfer them. The form keeps a reference marker with the hash of its signature instead of
+ * the signature, forms stored before separation keep their inline signatures.
+ * {@link #getFormData(String)} returns forms without signatures,
+ * {@link #getFormDataWithSignature(String)} and {@link #getSignature(String)} load the signature
+ * the marker refers to. A form rewritten without a signature leaves its signature key in place
+ * until the form is deleted, the key is ignored as its signature no longer matches the marker.
+ */
+public class SignatureSeparatingFormDataRepository<T> implements FormDataRepository<T> {
+
+  public static final String SIGNATURE_KEY_SUFFIX =
+      FormDataKeyProviderImpl.DERIVED_KEY_SEPARATOR + "signature";
+  public static final String SIGNATURE_REFERENCE = "x-signature-ref";
+  private static final String SIGNATURE_REFERENCE_PREFIX = SIGNATURE_REFERENCE + ":";
+
+  private final FormDataRepository<T> delegate;
+
+  public SignatureSeparatingFormDataRepository(FormDataRepository<T> delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * @param key storage key
+   * @return true if the key holds a signature separated from its form
+   */
+  public static boolean isSignatureKey(String key) {
+    return key.endsWith(SIGNATURE_KEY_SUFFIX);
+  }
+
+  /**
+   * @param signature signature stored in the form
+   * @return true if the signature is a reference marker of the separated signature
+   */
+  public static boolean isSignatureReference(String signature) {
+    return Objects.nonNull(signature) && signature.startsWith(SIGNATURE_REFERENCE_PREFIX);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormData(String key) {
+    return delegate.getFormData(key).map(formData -> {
+      if (isSignatureReference(formData.getSignature())) {
+        formData.setSignature(null);
+      }
+      return formData;
+    });
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    return delegate.getFormDataWithSignature(key).map(formData -> {
+      if (isSignatureReference(formData.getSignature())) {
+        formData.setSignature(getSeparatedSignature(key, formData.getSignature()).orElse(null));
+      }
+      return formData;
+    });
+  }
+
+  @Override
+  public Optional<String> getSignature(String key) {
+    // forms stored before separation keep the signature inline
+    return delegate.getFormData(key)
+        .map(FormDataDto::getSignature)
+        .flatMap(signature -> isSignatureReference(signature)
+            ? getSeparatedSignature(key, signature) : Optional.of(signature));
+  }
+
+  @Override
+  public List<Integer> getRevisions(String key) {
+    return delegate.getRevisions(key);
+  }
+
+  @Override
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    return delegate.getFormDataRevision(key, revision);
+  }
+
+  /**
+   * The signature is written before the form referencing it
+   */
+  @Override
+  public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
+    var key = formDataInputWrapperDto.getKey();
+    var formData = formDataInputWrapperDto.getFormData();
+    if (isSignatureKey(key)) {
+      delegate.putFormData(formDataInputWrapperDto);
+      return;
+    }
+    if (Objects.isNull(formData.getSignature())) {
+      delegate.putFormData(formDataInputWrapperDto);
+      return;
+    }
+    delegate.putFormData(FormDataInputWrapperDto.builder()
+        .key(key + SIGNATURE_KEY_SUFFIX)
+        .processInstanceId(formDataInputWrapperDto.getProcessInstanceId())
+        .formData(FormDataDto.builder().signature(formData.getSignature()).build())
+        .build());
+    delegate.putFormData(FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(formDataInputWrapperDto.getProcessInstanceId())
+        .formData(FormDataDto.builder()
+            .data(formData.getData())
+            .accessToken(formData.getAccessToken())
+            .signature(toSignatureReference(formData.getSignature()))
+            .build())
+        .build());
+  }
+
+  @Override
+  public Set<String> getKeysBySearchParams(T searchParams) {
+    return delegate.getKeysBySearchParams(searchParams);
+  }
+
+  @Override
+  public Stream<String> streamKeysBySearchParams(T searchParams, int pageSize) {
+    return delegate.streamKeysBySearchParams(searchParams, pageSize);
+  }
+
+  @Override
+  public void delete(Set<String> keys) {
+    var keysToDelete = new HashSet<>(keys);
+    keys.stream()
+        .filter(key -> !isSignatureKey(key))
+        .forEach(key -> keysToDelete.add(key + SIGNATURE_KEY_SUFFIX));
+    delegate.delete(keysToDelete);
+  }
+
+  @Override
+  public T getSearchParamsByPrefix(String prefix) {
+    return delegate.getSearchParamsByPrefix(prefix);
+  }
+
+  @Override
+  public FormDataKeyPage getStartFormKeys(StartFormKeysSearchParams searchParams) {
+    return delegate.getStartFormKeys(searchParams);
+  }
+
+  private Optional<String> getSeparatedSignature(String key, String signatureReference) {
+    return delegate.getFormData(key + SIGNATURE_KEY_SUFFIX)
+        .map(FormDataDto::getSignature)
+        .filter(signature -> signatureReference.equals(toSignatureReference(signature)));
+  }
+
+  private static String toSignatureReference(String signature) {
+    return SIGNATURE_REFERENCE_PREFIX
+        + Hashing.murmur3_128().hashString(signature, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import java.util.ArrayList;
+import java.util.NavigableSet;
+import java.util.Objects;
+
+/**
+ * Pages keys of a sorted set under a prefix, the cursor is the last key of the previous page
+ */
+final class SortedKeyPages {
+
+  private SortedKeyPages() {
+  }
+
+  static FormDataKeyPage page(NavigableSet<String> sortedKeys, String prefix, String cursor,
+      int count) {
+    var tail = Objects.isNull(cursor) ? sortedKeys.tailSet(prefix, true)
+        : sortedKeys.tailSet(cursor, false);
+    var keys = new ArrayList<String>(Math.min(count, 1024));
+    for (var key : tail) {
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+      if (keys.size() == Math.max(1, count)) {
+        return FormDataKeyPage.builder().keys(keys).cursor(keys.get(keys.size() - 1)).build();
+      }
+      keys.add(key);
+    }
+    return FormDataKeyPage.builder().keys(keys).build();
+  }
+}
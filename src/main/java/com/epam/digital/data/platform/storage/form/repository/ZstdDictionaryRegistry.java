@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import com.epam.digital.data.platform.storage.form.config.CompressionConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trains, stores and caches zstd dictionaries per scope (family and definition of form keys).
+ * Dictionaries are stored as forms under {@code <prefix><scope>/<dictionary id>} and never deleted,
+ * since stored values may refer to them. The id of the dictionary used for new values is stored
+ * under {@code <prefix><scope>} with the number of versions trained. The id is the one assigned by
+ * zstd on training, so dictionaries trained by different instances don't overwrite each other.
+ * <p>
+ * Dictionaries are trained in the background if an executor is set, values are compressed with the
+ * previous dictionary meanwhile. Retraining stops once the scope has the configured max number of
+ * versions, so that the stored dictionaries don't grow unbounded.
+ */
+@Slf4j
+class ZstdDictionaryRegistry {
+
+  private static final String DICTIONARY_FIELD = "dictionary";
+  private static final String ID_FIELD = "id";
+  private static final String VERSIONS_FIELD = "versions";
+  /**
+   * Longer samples are skipped, they don't improve dictionaries of small forms
+   */
+  private static final int MAX_SAMPLE_SIZE = 128 * 1024;
+
+  private final FormDataRepository<?> store;
+  private final CompressionConfiguration configuration;
+  private final String keyPrefix;
+  private final Executor trainingExecutor;
+  private final ConcurrentMap<String, Scope> scopes = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ZstdDictDecompress> decompressDictionaries =
+      new ConcurrentHashMap<>();
+
+  ZstdDictionaryRegistry(FormDataRepository<?> store, CompressionConfiguration configuration,
+      String keyPrefix, Executor trainingExecutor) {
+    this.store = store;
+    this.configuration = configuration;
+    this.keyPrefix = keyPrefix;
+    this.trainingExecutor = trainingExecutor;
+  }
+
+  /**
+   * Get the dictionary to compress a value of the scope, the value is sampled for training if the
+   * scope has no dictionary yet or it's time to retrain it
+   *
+   * @param scope dictionary scope
+   * @param value serialized form data
+   * @return current dictionary of the scope (optional)
+   */
+  Optional<Dictionary> getCompressDictionary(String scope, byte[] value) {
+    return scopes.computeIfAbsent(scope, this::loadScope).sample(value);
+  }
+
+  /**
+   * @param scope dictionary scope
+   * @param id    dictionary id stored with the value
+   * @return dictionary to decompress the value
+   * @throws IllegalStateException if the dictionary is missing
+   */
+  ZstdDictDecompress getDecompressDictionary(String scope, long id) {
+    return decompressDictionaries.computeIfAbsent(getDictionaryKey(scope, id),
+        key -> new ZstdDictDecompress(loadDictionary(key).orElseThrow(
+            () -> new IllegalStateException(String.format("Dictionary %s is missing", key)))));
+  }
+
+  private Scope loadScope(String scope) {
+    var currentData = store.getFormData(keyPrefix + scope).map(FormDataDto::getData);
+    var dictionary = currentData
+        .map(data -> ((Number) data.get(ID_FIELD)).longValue())
+        .flatMap(id -> loadDictionary(getDictionaryKey(scope, id))
+            .map(bytes -> new Dictionary(id, new ZstdDictCompress(bytes,
+                configuration.getLevel()))));
+    // versions aren't counted by the dictionaries stored before the limit
+    var versions = currentData
+        .map(data -> Optional.ofNullable((Number) data.get(VERSIONS_FIELD)).map(Number::intValue)
+            .orElse(1))
+        .orElse(0);
+    return new Scope(scope, dictionary.orElse(null), versions);
+  }
+
+  private Optional<byte[]> loadDictionary(String key) {
+    return store.getFormData(key)
+        .map(FormDataDto::getData)
+        .map(data -> Base64.getDecoder().decode((String) data.get(DICTIONARY_FIELD)));
+  }
+
+  private Optional<Dictionary> train(String scope, List<byte[]> samples, int version) {
+    var sampleBytes = samples.stream().mapToInt(sample -> sample.length).sum();
+    var trainer = new ZstdDictTrainer(sampleBytes, configuration.getDictionarySize());
+    samples.forEach(trainer::addSample);
+    byte[] bytes;
+    try {
+      bytes = trainer.trainSamples();
+    } catch (ZstdException ex) {
+      log.warn("Couldn't train dictionary of {} on {} samples", scope, samples.size(), ex);
+      return Optional.empty();
+    }
+    var id = Zstd.getDictIdFromDict(bytes);
+
+    var dictionaryData = new LinkedHashMap<String, Object>();
+    dictionaryData.put(DICTIONARY_FIELD, Base64.getEncoder().encodeToString(bytes));
+    putForm(getDictionaryKey(scope, id), dictionaryData);
+    var currentData = new LinkedHashMap<String, Object>();
+    currentData.put(ID_FIELD, id);
+    currentData.put(VERSIONS_FIELD, version);
+    putForm(keyPrefix + scope, currentData);
+    log.info("Trained dictionary {} of {} on {} samples, {} bytes", id, scope, samples.size(),
+        bytes.length);
+    return Optional.of(new Dictionary(id, new ZstdDictCompress(bytes, configuration.getLevel())));
+  }
+
+  private void putForm(String key, LinkedHashMap<String, Object> data) {
+    store.putFormData(FormDataInputWrapperDto.builder()
+        .key(key)
+        .formData(FormDataDto.builder().data(data).build())
+        .build());
+  }
+
+  private String getDictionaryKey(String scope, long id) {
+    return keyPrefix + scope + "/" + id;
+  }
+
+  static class Dictionary {
+
+    final long id;
+    final ZstdDictCompress compressDictionary;
+
+    Dictionary(long id, ZstdDictCompress compressDictionary) {
+      this.id = id;
+      this.compressDictionary = compressDictionary;
+    }
+  }
+
+  private class Scope {
+
+    private final String name;
+    private volatile Dictionary current;
+    private List<byte[]> samples;
+    private long compressed;
+    private int versions;
+    private boolean training;
+
+    Scope(String name, Dictionary current, int versions) {
+      this.name = name;
+      this.current = current;
+      this.versions = versions;
+      this.samples = current == null ? new ArrayList<>() : null;
+    }
+
+    Optional<Dictionary> sample(byte[] value) {
+      List<byte[]> trainingSamples = null;
+      synchronized (this) {
+        if (current != null) {
+          compressed++;
+          if (samples == null && !training && configuration.getRetrainInterval() > 0
+              && compressed >= configuration.getRetrainInterval()
+              && versions < configuration.getMaxDictionaries()) {
+            samples = new ArrayList<>();
+          }
+        }
+        if (samples != null && value.length <= MAX_SAMPLE_SIZE) {
+          samples.add(value);
+          if (samples.size() >= configuration.getTrainingSamples()) {
+            trainingSamples = samples;
+            samples = null;
+            training = true;
+          }
+        }
+      }
+      if (trainingSamples != null) {
+        startTraining(trainingSamples);
+      }
+      return Optional.ofNullable(current);
+    }
+
+    private void startTraining(List<byte[]> trainingSamples) {
+      if (trainingExecutor == null) {
+        runTraining(trainingSamples);
+        return;
+      }
+      try {
+        trainingExecutor.execute(() -> runTraining(trainingSamples));
+      } catch (RejectedExecutionException ex) {
+        log.warn("Couldn't schedule training of dictionary of {}", name, ex);
+        completeTraining(null);
+      }
+    }
+
+    private void runTraining(List<byte[]> trainingSamples) {
+      Dictionary trained = null;
+      try {
+        trained = train(name, trainingSamples, versions + 1).orElse(null);
+      } catch (RuntimeException ex) {
+        log.warn("Couldn't store dictionary of {}", name, ex);
+      } finally {
+        completeTraining(trained);
+      }
+    }
+
+    private synchronized void completeTraining(Dictionary trained) {
+      training = false;
+      if (trained != null) {
+        current = trained;
+        versions++;
+        compressed = 0;
+      } else {
+        samples = new ArrayList<>();
+      }
+    }
+  }
+}
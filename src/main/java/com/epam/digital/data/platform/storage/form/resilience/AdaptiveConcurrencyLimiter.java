@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.resilience;
+
+/**
+ * Concurrency limiter that adjusts the limit by observed latency, similar to TCP Vegas: the number
+ * of queued requests is estimated from the ratio of the minimal latency to the current one. The
+ * limit grows while the estimated queue is short, shrinks when it gets long and is cut
+ * multiplicatively on failures.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final int ALPHA = 3;
+  private static final int BETA = 6;
+  private static final double BACKOFF_RATIO = 0.9;
+  private static final int MIN_LATENCY_RESET_SAMPLES = 1000;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private double limit;
+  private int inFlight;
+  private long minLatencyNanos = Long.MAX_VALUE;
+  private int samples;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = initialLimit;
+  }
+
+  /**
+   * @return true if the request may be sent, {@link #release(long, boolean)} has to be called once
+   * it completes
+   */
+  public synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Register completion of the acquired request
+   *
+   * @param latencyNanos request latency
+   * @param dropped      whether the request failed due to overload or communication error
+   */
+  public synchronized void release(long latencyNanos, boolean dropped) {
+    var utilized = inFlight * 2 >= limit;
+    inFlight--;
+    if (dropped) {
+      limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      return;
+    }
+
+    // periodic reset lets the limiter follow permanent latency changes
+    if (++samples >= MIN_LATENCY_RESET_SAMPLES) {
+      samples = 0;
+      minLatencyNanos = latencyNanos;
+    }
+    minLatencyNanos = Math.min(minLatencyNanos, Math.max(1, latencyNanos));
+    var queue = limit * (1 - (double) minLatencyNanos / Math.max(1, latencyNanos));
+    if (queue <= ALPHA && utilized) {
+      limit = Math.min(maxLimit, limit + 1);
+    } else if (queue >= BETA) {
+      limit = Math.max(minLimit, limit - 1);
+    }
+  }
+
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+}
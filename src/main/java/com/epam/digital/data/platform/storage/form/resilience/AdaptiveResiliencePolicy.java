@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.resilience;
+
+import com.epam.digital.data.platform.storage.form.config.ResilienceConfiguration;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resilience policy that sheds requests above the adaptive concurrency limit and retries requests
+ * failed due to transient errors with exponential, fully jittered backoff. Every attempt
+ * goes through the limiter, so retries stop once the storage is overloaded.
+ */
+@Slf4j
+public class AdaptiveResiliencePolicy implements ResiliencePolicy {
+
+  private static final String METRIC_PREFIX = "form.data.storage.concurrency";
+
+  private final String backend;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final int maxAttempts;
+  private final long retryBackoffMillis;
+  private final long maxRetryBackoffMillis;
+  private final Counter rejections;
+  private final Counter retries;
+
+  public AdaptiveResiliencePolicy(String backend, ResilienceConfiguration configuration,
+      MeterRegistry meterRegistry) {
+    this.backend = backend;
+    this.limiter = new AdaptiveConcurrencyLimiter(configuration.getInitialLimit(),
+        configuration.getMinLimit(), configuration.getMaxLimit());
+    this.maxAttempts = Math.max(1, configuration.getMaxAttempts());
+    this.retryBackoffMillis = configuration.getRetryBackoff().toMillis();
+    this.maxRetryBackoffMillis = configuration.getMaxRetryBackoff().toMillis();
+
+    Gauge.builder(METRIC_PREFIX + ".limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+        .tag("backend", backend)
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + ".in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+        .tag("backend", backend)
+        .register(meterRegistry);
+    this.rejections = Counter.builder(METRIC_PREFIX + ".rejected")
+        .tag("backend", backend)
+        .register(meterRegistry);
+    this.retries = Counter.builder(METRIC_PREFIX + ".retries")
+        .tag("backend", backend)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public <T> T execute(Supplier<T> request, Predicate<RuntimeException> transientError) {
+    var attempt = 1;
+    while (true) {
+      if (!limiter.tryAcquire()) {
+        rejections.increment();
+        throw new FormDataRepositoryOverloadedException(String.format(
+            "Request to %s rejected, concurrency limit %d reached", backend, limiter.getLimit()));
+      }
+      var start = System.nanoTime();
+      var dropped = false;
+      try {
+        return request.get();
+      } catch (RuntimeException ex) {
+        dropped = transientError.test(ex);
+        if (!dropped || attempt >= maxAttempts) {
+          throw ex;
+        }
+        log.debug("Request to {} failed, attempt {} of {}", backend, attempt, maxAttempts, ex);
+      } finally {
+        limiter.release(System.nanoTime() - start, dropped);
+      }
+      retries.increment();
+      pause(attempt++);
+    }
+  }
+
+  AdaptiveConcurrencyLimiter getLimiter() {
+    return limiter;
+  }
+
+  private void pause(int attempt) {
+    var ceiling = Math.min(maxRetryBackoffMillis, retryBackoffMillis << Math.min(attempt - 1, 20));
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FormDataRepositoryCommunicationException(
+          String.format("Interrupted while retrying request to %s", backend), ex);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.resilience;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The policy that controls how storage requests are executed: how many may be in flight, which
+ * are rejected and which are retried.
+ */
+public interface ResiliencePolicy {
+
+  /**
+   * Policy that executes requests as is
+   */
+  ResiliencePolicy NONE = new ResiliencePolicy() {
+    @Override
+    public <T> T execute(Supplier<T> request, Predicate<RuntimeException> transientError) {
+      return request.get();
+    }
+  };
+
+  /**
+   * Execute storage request. The requests of form data repositories may be safely repeated: puts
+   * overwrite the whole value, set additions and removals are repeatable, so any of them may be
+   * retried.
+   *
+   * @param request        request to execute
+   * @param transientError defines errors after which the request may succeed if repeated
+   * @return request result
+   * @throws com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryOverloadedException
+   *                       if the request is rejected
+   */
+  <T> T execute(Supplier<T> request, Predicate<RuntimeException> transientError);
+}
@@ -18,20 +18,35 @@
 package com.epam.digital.data.platform.storage.form.service;
 
 import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
-import com.google.common.collect.Sets;
 import lombok.experimental.SuperBuilder;
 
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @SuperBuilder
 public class CephFormDataStorageService extends FormDataStorageService<CephKeysSearchParams> {
 
   @Override
   protected Set<String> findKeysByProcessInstanceId(String processInstanceId) {
+    try (var keys = streamKeysByProcessInstanceId(processInstanceId, deleteBatchSize)) {
+      return keys.collect(Collectors.toSet());
+    }
+  }
+
+  @Override
+  protected Stream<String> streamKeysByProcessInstanceId(String processInstanceId, int pageSize) {
     var taskFormDataPrefix = keyProvider.getKeyPrefixByProcessInstanceId(processInstanceId);
-    var taskFormDataKeys = repository.getKeysBySearchParams(CephKeysSearchParams.builder().prefix(taskFormDataPrefix).build());
     var systemSignaturePrefix = keyProvider.getSystemSignatureKeyPrefix(processInstanceId);
-    var systemSignatureKeys = repository.getKeysBySearchParams(CephKeysSearchParams.builder().prefix(systemSignaturePrefix).build());
-    return Sets.union(taskFormDataKeys, systemSignatureKeys);
+    return Stream.concat(
+        repository.streamKeysBySearchParams(
+            CephKeysSearchParams.builder().prefix(taskFormDataPrefix).build(), pageSize),
+        repository.streamKeysBySearchParams(
+            CephKeysSearchParams.builder().prefix(systemSignaturePrefix).build(), pageSize));
+  }
+
+  @Override
+  protected String getBackend() {
+    return "ceph";
   }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Reversible compact encoding of form data keys. In redis every form key is repeated in the form
+ * hash key, the keyspace set and the process instance set, so its length is paid several times per
+ * form. The encoding packs canonical uuids from 36 to 22 characters (url-safe base64 of their 16
+ * bytes), replaces task definition keys by interned ids and the constant parts of the keys by a
+ * two character tag:
+ * <ul>
+ *   <li>{@code process/<uuid>/task/<task>} as {@code ~t<uuid><task id>}</li>
+ *   <li>{@code lowcode_<uuid>_<uuid>_system_signature_ceph_key} as {@code ~g<uuid><uuid>}</li>
+ *   <li>{@code lowcode_<uuid>_system_signature_ceph_key_<index>} as {@code ~b<uuid><index>}</li>
+ * </ul>
+ * Suffixes of the derived keys, like separated signatures and revisions, are kept as is. Other
+ * keys, including start form keys that are indexed by their process definition, aren't encoded.
+ */
+public class CompactFormDataKeyCodec {
+
+  public static final String COMPACT_KEY_PREFIX = "~";
+
+  private static final String UUID_REGEX =
+      "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})";
+  private static final String SUFFIX_REGEX =
+      "(" + FormDataKeyProviderImpl.DERIVED_KEY_SEPARATOR + ".*)?";
+  private static final Pattern TASK_KEY_PATTERN = Pattern.compile(
+      String.format(FormDataKeyProviderImpl.TASK_FORM_DATA_KEY_FORMAT, UUID_REGEX, "([^/~]+)")
+          + SUFFIX_REGEX);
+  private static final Pattern SYSTEM_SIGNATURE_KEY_PATTERN = Pattern.compile(
+      String.format(FormDataKeyProviderImpl.SYSTEM_SIGNATURE_STORAGE_KEY, UUID_REGEX, UUID_REGEX)
+          + SUFFIX_REGEX);
+  private static final Pattern BATCH_SYSTEM_SIGNATURE_KEY_PATTERN = Pattern.compile(
+      String.format(FormDataKeyProviderImpl.BATCH_SYSTEM_SIGNATURE_STORAGE_KEY, UUID_REGEX,
+          "([0-9]+)") + SUFFIX_REGEX);
+  private static final char TASK_TAG = 't';
+  private static final char SYSTEM_SIGNATURE_TAG = 'g';
+  private static final char BATCH_SYSTEM_SIGNATURE_TAG = 'b';
+  private static final int PACKED_UUID_LENGTH = 22;
+  private static final int ID_RADIX = Character.MAX_RADIX;
+
+  private final FormDataKeyInterner interner;
+
+  public CompactFormDataKeyCodec(FormDataKeyInterner interner) {
+    this.interner = interner;
+  }
+
+  /**
+   * @param key form data key
+   * @return true if the key is in the compact form
+   */
+  public static boolean isCompactKey(String key) {
+    return key.startsWith(COMPACT_KEY_PREFIX);
+  }
+
+  /**
+   * Encode the key in the compact form
+   *
+   * @param key form data key
+   * @return compact key or the key itself if it has no compact form
+   */
+  public String encode(String key) {
+    return encode(key, task -> OptionalLong.of(interner.intern(task))).orElseThrow();
+  }
+
+  /**
+   * Encode the key in the compact form without interning new key components, intended for reads
+   *
+   * @param key form data key
+   * @return compact key, the key itself if it has no compact form, or empty if the components of
+   * the compact form were never interned, i.e. nothing was stored under it
+   */
+  public Optional<String> encodeExisting(String key) {
+    return encode(key, interner::lookup);
+  }
+
+  /**
+   * @param key stored form data key
+   * @return true if the key isn't in the compact form, but has one
+   */
+  public static boolean isLegacyKey(String key) {
+    return !isCompactKey(key) && (TASK_KEY_PATTERN.matcher(key).matches()
+        || SYSTEM_SIGNATURE_KEY_PATTERN.matcher(key).matches()
+        || BATCH_SYSTEM_SIGNATURE_KEY_PATTERN.matcher(key).matches());
+  }
+
+  /**
+   * Restore the key encoded by {@link #encode(String)}
+   *
+   * @param key compact or ordinary form data key
+   * @return original key, keys that aren't in the compact form or can't be decoded are returned as
+   * is
+   */
+  public String decode(String key) {
+    var tagLength = COMPACT_KEY_PREFIX.length() + 1;
+    if (!isCompactKey(key) || key.length() < tagLength + PACKED_UUID_LENGTH) {
+      return key;
+    }
+    var suffixIndex = key.indexOf(FormDataKeyProviderImpl.DERIVED_KEY_SEPARATOR, tagLength);
+    var body = suffixIndex < 0 ? key.substring(tagLength) : key.substring(tagLength, suffixIndex);
+    var suffix = suffixIndex < 0 ? "" : key.substring(suffixIndex);
+    try {
+      var uuid = unpackUuid(body.substring(0, PACKED_UUID_LENGTH));
+      var rest = body.substring(PACKED_UUID_LENGTH);
+      switch (key.charAt(COMPACT_KEY_PREFIX.length())) {
+        case TASK_TAG:
+          return interner.resolve(Long.parseLong(rest, ID_RADIX))
+              .map(task -> String.format(FormDataKeyProviderImpl.TASK_FORM_DATA_KEY_FORMAT, uuid,
+                  task) + suffix)
+              .orElse(key);
+        case SYSTEM_SIGNATURE_TAG:
+          return rest.length() == PACKED_UUID_LENGTH
+              ? String.format(FormDataKeyProviderImpl.SYSTEM_SIGNATURE_STORAGE_KEY, uuid,
+              unpackUuid(rest)) + suffix : key;
+        case BATCH_SYSTEM_SIGNATURE_TAG:
+          return rest.matches("[0-9]+")
+              ? String.format(FormDataKeyProviderImpl.BATCH_SYSTEM_SIGNATURE_STORAGE_KEY, uuid,
+              rest) + suffix : key;
+        default:
+          return key;
+      }
+    } catch (IllegalArgumentException e) {
+      return key;
+    }
+  }
+
+  private Optional<String> encode(String key, Function<String, OptionalLong> taskIds) {
+    var matcher = TASK_KEY_PATTERN.matcher(key);
+    if (matcher.matches()) {
+      var taskId = taskIds.apply(matcher.group(2));
+      if (taskId.isEmpty()) {
+        return Optional.empty();
+      }
+      return Optional.of(compactKey(TASK_TAG, packUuid(matcher.group(1))
+          + Long.toString(taskId.getAsLong(), ID_RADIX), matcher.group(3)));
+    }
+    matcher = SYSTEM_SIGNATURE_KEY_PATTERN.matcher(key);
+    if (matcher.matches()) {
+      return Optional.of(compactKey(SYSTEM_SIGNATURE_TAG,
+          packUuid(matcher.group(1)) + packUuid(matcher.group(2)), matcher.group(3)));
+    }
+    matcher = BATCH_SYSTEM_SIGNATURE_KEY_PATTERN.matcher(key);
+    if (matcher.matches()) {
+      return Optional.of(compactKey(BATCH_SYSTEM_SIGNATURE_TAG,
+          packUuid(matcher.group(1)) + matcher.group(2), matcher.group(3)));
+    }
+    return Optional.of(key);
+  }
+
+  private static String compactKey(char tag, String body, String suffix) {
+    return COMPACT_KEY_PREFIX + tag + body + (suffix == null ? "" : suffix);
+  }
+
+  private static String packUuid(String uuid) {
+    var parsed = UUID.fromString(uuid);
+    var bytes = ByteBuffer.allocate(16)
+        .putLong(parsed.getMostSignificantBits())
+        .putLong(parsed.getLeastSignificantBits())
+        .array();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  private static String unpackUuid(String packed) {
+    var bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(packed));
+    return new UUID(bytes.getLong(), bytes.getLong()).toString();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.service;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Registry of numeric ids of the key components that are repeated across many form data keys. The
+ * id of a value never changes once assigned, so ids can be stored in keys instead of the values.
+ */
+public interface FormDataKeyInterner {
+
+  /**
+   * Get the id of the value, assigning a new one if the value is seen for the first time
+   *
+   * @param value key component
+   * @return non-negative id of the value
+   */
+  long intern(String value);
+
+  /**
+   * Get the id of the value without assigning one, intended for reads
+   *
+   * @param value key component
+   * @return id of the value or empty if the value was never interned
+   */
+  OptionalLong lookup(String value);
+
+  /**
+   * Get the value the id was assigned to
+   *
+   * @param id id of the value
+   * @return value or empty if the id was never assigned
+   */
+  Optional<String> resolve(long id);
+}
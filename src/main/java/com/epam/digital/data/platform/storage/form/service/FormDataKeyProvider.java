@@ -17,6 +17,8 @@
 
 package com.epam.digital.data.platform.storage.form.service;
 
+import java.util.Optional;
+
 /**
  * The class represents a provider that is used to generate the key to get or store form data.
  */
@@ -86,4 +88,71 @@ public interface FormDataKeyProvider {
    * @return generated key
    */
   String generateBatchSystemSignatureKey(String processInstanceId, Integer elemIndex);
+
+  /**
+   * Get start form key prefix by process definition key, by default the start form key generated
+   * for an empty uuid
+   *
+   * @param processDefinitionKey specified process definition key
+   * @return generated prefix
+   */
+  default String getStartFormKeyPrefix(String processDefinitionKey) {
+    return generateStartFormKey(processDefinitionKey, "");
+  }
+
+  /**
+   * Get prefix of the keys of input parameters passed by external systems by process definition
+   * key, by default the external system key generated for an empty uuid
+   *
+   * @param processDefinitionKey specified process definition key
+   * @return generated prefix
+   */
+  default String getExternalSystemFormKeyPrefix(String processDefinitionKey) {
+    return generateKeyForExternalSystem(processDefinitionKey, "");
+  }
+
+  /**
+   * Get process instance id the task form or system signature key was generated for. System
+   * signature keys belong to the process instance of their key prefix, i.e. the root process
+   * instance for {@link #generateSystemSignatureKey(String, String)} keys. Providers that can't
+   * parse their keys back don't bind any key to a process instance by default
+   *
+   * @param key form data key
+   * @return process instance id or null if the key isn't bound to a process instance
+   */
+  default String getProcessInstanceIdByKey(String key) {
+    return null;
+  }
+
+  /**
+   * Encode the key in the compact storage form if compact keys are enabled
+   *
+   * @param key form data key
+   * @return compact key or the key itself if it has no compact form
+   */
+  default String toCompactKey(String key) {
+    return key;
+  }
+
+  /**
+   * Encode the key in the compact storage form without registering new key components, intended
+   * for reads
+   *
+   * @param key form data key
+   * @return compact key, the key itself if it has no compact form, or empty if nothing could have
+   * been stored under the compact key yet
+   */
+  default Optional<String> findCompactKey(String key) {
+    return Optional.of(toCompactKey(key));
+  }
+
+  /**
+   * Restore the key encoded by {@link #toCompactKey(String)}
+   *
+   * @param compactKey compact or ordinary form data key
+   * @return original key
+   */
+  default String fromCompactKey(String compactKey) {
+    return compactKey;
+  }
 }
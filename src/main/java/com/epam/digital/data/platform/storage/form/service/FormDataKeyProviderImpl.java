@@ -17,6 +17,11 @@
 
 package com.epam.digital.data.platform.storage.form.service;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
 public class FormDataKeyProviderImpl implements FormDataKeyProvider {
 
   public static final String TASK_FORM_DATA_KEY_FORMAT = "process/%s/task/%s";
@@ -27,6 +32,33 @@ public class FormDataKeyProviderImpl implements FormDataKeyProvider {
   public static final String SYSTEM_SIGNATURE_STORAGE_KEY = "lowcode_%s_%s_system_signature_ceph_key";
   public static final String BATCH_SYSTEM_SIGNATURE_STORAGE_KEY = "lowcode_%s_system_signature_ceph_key_%s";
   public static final String SYSTEM_SIGNATURE_STORAGE_KEY_PREFIX = "lowcode_%s";
+  public static final String START_FORM_DATA_PREFIX_FORMAT = "process-definition/%s/start-form/";
+  /**
+   * Separator of the keys that storage decorators derive from form keys, like separated signatures
+   * or revision histories. It can't appear in the BPMN ids (NCName) and uuids the form keys are
+   * made of, so a derived key never collides with a form key.
+   */
+  public static final String DERIVED_KEY_SEPARATOR = "~";
+
+  private static final Pattern TASK_FORM_DATA_KEY_PATTERN =
+      Pattern.compile("process/([^/]+)/task/.+");
+  private static final Pattern SYSTEM_SIGNATURE_KEY_PATTERN =
+      Pattern.compile("lowcode_([^_]+)_[^_]+_system_signature_ceph_key");
+  private static final Pattern BATCH_SYSTEM_SIGNATURE_KEY_PATTERN =
+      Pattern.compile("lowcode_([^_]+)_system_signature_ceph_key_\\d+");
+
+  /**
+   * Optional codec of the compact storage keys, keys are stored as is if not set
+   */
+  private final CompactFormDataKeyCodec compactKeyCodec;
+
+  public FormDataKeyProviderImpl() {
+    this(null);
+  }
+
+  public FormDataKeyProviderImpl(CompactFormDataKeyCodec compactKeyCodec) {
+    this.compactKeyCodec = compactKeyCodec;
+  }
 
   @Override
   public String generateKey(String taskDefinitionKey, String processInstanceId) {
@@ -64,4 +96,44 @@ public class FormDataKeyProviderImpl implements FormDataKeyProvider {
   public String generateBatchSystemSignatureKey(String processInstanceId, Integer elemIndex) {
     return String.format(BATCH_SYSTEM_SIGNATURE_STORAGE_KEY, processInstanceId, elemIndex);
   }
+
+  @Override
+  public String getStartFormKeyPrefix(String processDefinitionKey) {
+    return String.format(START_FORM_DATA_PREFIX_FORMAT, processDefinitionKey);
+  }
+
+  @Override
+  public String getExternalSystemFormKeyPrefix(String processDefinitionKey) {
+    return String.format(START_FORM_DATA_VALUE_FORMAT, processDefinitionKey,
+        String.format(START_FORM_DATA_STRING_FORMAT, ""));
+  }
+
+  @Override
+  public String getProcessInstanceIdByKey(String key) {
+    // system signatures are owned by the process instance their key prefix is built of, the same
+    // one getSystemSignatureKeyPrefix is called with on deletion
+    for (var pattern : List.of(TASK_FORM_DATA_KEY_PATTERN, SYSTEM_SIGNATURE_KEY_PATTERN,
+        BATCH_SYSTEM_SIGNATURE_KEY_PATTERN)) {
+      var matcher = pattern.matcher(key);
+      if (matcher.matches()) {
+        return matcher.group(1);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public String toCompactKey(String key) {
+    return Objects.isNull(compactKeyCodec) ? key : compactKeyCodec.encode(key);
+  }
+
+  @Override
+  public Optional<String> findCompactKey(String key) {
+    return Objects.isNull(compactKeyCodec) ? Optional.of(key) : compactKeyCodec.encodeExisting(key);
+  }
+
+  @Override
+  public String fromCompactKey(String compactKey) {
+    return Objects.isNull(compactKeyCodec) ? compactKey : compactKeyCodec.decode(compactKey);
+  }
 }
@@ -20,12 +20,19 @@ package com.epam.digital.data.platform.storage.form.service;
 import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
 import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
 import com.epam.digital.data.platform.storage.form.dto.FormDataWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
 import com.epam.digital.data.platform.storage.form.repository.FormDataRepository;
-import java.util.Collections;
+import com.epam.digital.data.platform.storage.form.tracing.FormDataStorageEvent;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import lombok.Builder;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,8 +43,15 @@ import lombok.extern.slf4j.Slf4j;
 @SuperBuilder
 public abstract class FormDataStorageService<T> {
 
+  public static final int DEFAULT_DELETE_BATCH_SIZE = 1000;
+
   protected final FormDataRepository<T> repository;
   protected final FormDataKeyProvider keyProvider;
+  /**
+   * Max number of keys deleted at once on process instance deletion
+   */
+  @Builder.Default
+  protected final int deleteBatchSize = DEFAULT_DELETE_BATCH_SIZE;
 
   /**
    * Get from data from storage by task definition key and process instance id
@@ -87,7 +101,54 @@ public abstract class FormDataStorageService<T> {
    */
   public Optional<FormDataDto> getFormData(String key) {
     log.info("Get form data by key {}", key);
-    return repository.getFormData(key);
+    return recordGet(key, () -> repository.getFormData(key));
+  }
+
+  /**
+   * Get from data from storage by key including the signature, which is omitted by
+   * {@link #getFormData(String)} if signatures are stored separately
+   *
+   * @param key specified form data key
+   * @return {@link FormDataDto} content representation (optional)
+   */
+  public Optional<FormDataDto> getFormDataWithSignature(String key) {
+    log.info("Get form data with signature by key {}", key);
+    return recordGet(key, () -> repository.getFormDataWithSignature(key));
+  }
+
+  /**
+   * Get signature of the form from storage by key
+   *
+   * @param key specified form data key
+   * @return signature of the form (optional)
+   */
+  public Optional<String> getSignature(String key) {
+    log.info("Get signature by key {}", key);
+    return recordGet(key, () -> repository.getSignature(key));
+  }
+
+  /**
+   * Get numbers of the stored revisions of the form, revisions are kept only if the revision
+   * history is enabled for the storage
+   *
+   * @param key specified form data key
+   * @return revision numbers in ascending order, the latest revision goes last
+   */
+  public List<Integer> getFormDataRevisions(String key) {
+    log.info("Get form data revisions by key {}", key);
+    return repository.getRevisions(key);
+  }
+
+  /**
+   * Get a revision of the form from storage, previous revisions are rebuilt from the stored deltas
+   *
+   * @param key      specified form data key
+   * @param revision revision number
+   * @return {@link FormDataDto} content of the revision (optional)
+   */
+  public Optional<FormDataDto> getFormDataRevision(String key, int revision) {
+    log.info("Get form data revision {} by key {}", revision, key);
+    return recordGet(key, () -> repository.getFormDataRevision(key, revision));
   }
 
   /**
@@ -150,7 +211,8 @@ public abstract class FormDataStorageService<T> {
    */
   public void putFormData(FormDataInputWrapperDto formDataInputWrapperDto) {
     log.info("Put form data by key {}", formDataInputWrapperDto.getKey());
-    repository.putFormData(formDataInputWrapperDto);
+    FormDataStorageEvent.run(FormDataStorageEvent.SERVICE, getBackend(), FormDataStorageEvent.PUT,
+        formDataInputWrapperDto.getKey(), event -> repository.putFormData(formDataInputWrapperDto));
     log.info("Form data was put to storage by key {}", formDataInputWrapperDto.getKey());
   }
 
@@ -164,18 +226,72 @@ public abstract class FormDataStorageService<T> {
   public void deleteByProcessInstance(
       String processInstanceId, String... additionalKeysToDelete) {
     log.info("Delete form data and system signatures by process instance id {}", processInstanceId);
-    var keysByProcessInstanceId = findKeysByProcessInstanceId(processInstanceId);
-    var keysToDelete = new HashSet<>(keysByProcessInstanceId);
-    Collections.addAll(keysToDelete, additionalKeysToDelete);
-    if (!keysToDelete.isEmpty()) {
-      repository.delete(keysToDelete);
-      log.debug(
-          "Deleted next keys from storage - {}, processInstanceId={}", keysToDelete, processInstanceId);
-    }
+    var keysToDelete = Stream.concat(
+        streamKeysByProcessInstanceId(processInstanceId, deleteBatchSize),
+        Arrays.stream(additionalKeysToDelete));
+    FormDataStorageEvent.run(FormDataStorageEvent.SERVICE, getBackend(),
+        FormDataStorageEvent.DELETE, (String) null, event -> {
+          var deleted = 0;
+          try (keysToDelete) {
+            var batch = new HashSet<String>();
+            var iterator = keysToDelete.iterator();
+            while (iterator.hasNext()) {
+              batch.add(iterator.next());
+              if (batch.size() >= deleteBatchSize || !iterator.hasNext()) {
+                repository.delete(batch);
+                deleted += batch.size();
+                log.debug("Deleted next keys from storage - {}, processInstanceId={}", batch,
+                    processInstanceId);
+                batch = new HashSet<>();
+              }
+            }
+          }
+          event.setKeyCount(deleted);
+        });
   }
 
   protected abstract Set<String> findKeysByProcessInstanceId(String processInstanceId);
 
+  /**
+   * Lazily find keys of the process instance. By default streams over
+   * {@link #findKeysByProcessInstanceId(String)}, storages able to page through the keys should
+   * override it
+   *
+   * @param processInstanceId specified process instance id
+   * @param pageSize          hint of the number of keys fetched from the storage at once
+   * @return sequential stream of keys
+   */
+  protected Stream<String> streamKeysByProcessInstanceId(String processInstanceId,
+      int pageSize) {
+    return Stream.of(processInstanceId)
+        .flatMap(id -> findKeysByProcessInstanceId(id).stream());
+  }
+
+  /**
+   * Get page of the start form keys of the process definition
+   *
+   * @param processDefinitionKey specified process definition key
+   * @param cursor               cursor returned with the previous page, null for the first page
+   * @param count                hint of the number of keys in the page
+   * @return page of keys with the cursor of the next page, null cursor if it's the last page
+   */
+  public FormDataKeyPage getStartFormKeys(String processDefinitionKey, String cursor,
+      int count) {
+    log.info("Get start form keys by process definition key {}", processDefinitionKey);
+    var searchParams = StartFormKeysSearchParams.builder()
+        .processDefinitionKey(processDefinitionKey)
+        .prefix(keyProvider.getStartFormKeyPrefix(processDefinitionKey))
+        .cursor(cursor)
+        .count(count)
+        .build();
+    return FormDataStorageEvent.call(FormDataStorageEvent.SERVICE, getBackend(),
+        FormDataStorageEvent.SEARCH, searchParams.getPrefix(), event -> {
+          var page = repository.getStartFormKeys(searchParams);
+          event.setKeyCount(page.getKeys().size());
+          return page;
+        });
+  }
+
   /**
    * Delete data from storage by keys
    *
@@ -183,7 +299,21 @@ public abstract class FormDataStorageService<T> {
    */
   public void delete(Set<String> keys) {
     log.info("Deleting data by keys {}", keys);
-    repository.delete(keys);
+    FormDataStorageEvent.run(FormDataStorageEvent.SERVICE, getBackend(),
+        FormDataStorageEvent.DELETE, keys, () -> repository.delete(keys));
     log.info("Deleting is finished");
   }
+
+  /**
+   * @return name of the storage backend recorded in the storage events, the simple class name of
+   * the service unless overridden
+   */
+  protected String getBackend() {
+    return getClass().getSimpleName();
+  }
+
+  private <R> Optional<R> recordGet(String key, Supplier<Optional<R>> action) {
+    return FormDataStorageEvent.call(FormDataStorageEvent.SERVICE, getBackend(),
+        FormDataStorageEvent.GET, key, event -> action.get());
+  }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.service;
+
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@SuperBuilder
+public class LocalFormDataStorageService extends FormDataStorageService<LocalKeysSearchParams> {
+
+  @Override
+  protected Set<String> findKeysByProcessInstanceId(String processInstanceId) {
+    try (var keys = streamKeysByProcessInstanceId(processInstanceId, deleteBatchSize)) {
+      return keys.collect(Collectors.toSet());
+    }
+  }
+
+  @Override
+  protected Stream<String> streamKeysByProcessInstanceId(String processInstanceId, int pageSize) {
+    var taskFormDataPrefix = keyProvider.getKeyPrefixByProcessInstanceId(processInstanceId);
+    var systemSignaturePrefix = keyProvider.getSystemSignatureKeyPrefix(processInstanceId);
+    return Stream.of(
+            LocalKeysSearchParams.builder().processInstanceId(processInstanceId).build(),
+            LocalKeysSearchParams.builder().prefix(taskFormDataPrefix).build(),
+            LocalKeysSearchParams.builder().prefix(systemSignaturePrefix).build())
+        .flatMap(searchParams -> repository.streamKeysBySearchParams(searchParams, pageSize));
+  }
+
+  @Override
+  protected String getBackend() {
+    return "local";
+  }
+}
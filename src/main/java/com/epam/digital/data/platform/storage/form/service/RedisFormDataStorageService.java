@@ -21,13 +21,27 @@ import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
 import lombok.experimental.SuperBuilder;
 
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @SuperBuilder
 public class RedisFormDataStorageService extends FormDataStorageService<RedisKeysSearchParams> {
 
   @Override
   protected Set<String> findKeysByProcessInstanceId(String processInstanceId) {
-    return repository.getKeysBySearchParams(
-        RedisKeysSearchParams.builder().processInstanceId(processInstanceId).build());
+    try (var keys = streamKeysByProcessInstanceId(processInstanceId, deleteBatchSize)) {
+      return keys.collect(Collectors.toSet());
+    }
+  }
+
+  @Override
+  protected Stream<String> streamKeysByProcessInstanceId(String processInstanceId, int pageSize) {
+    return repository.streamKeysBySearchParams(
+        RedisKeysSearchParams.builder().processInstanceId(processInstanceId).build(), pageSize);
+  }
+
+  @Override
+  protected String getBackend() {
+    return "redis";
   }
 }
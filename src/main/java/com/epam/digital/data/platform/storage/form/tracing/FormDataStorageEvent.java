@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.tracing;
+
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyFamily;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event of a form data storage operation, so that storage latency can be
+ * correlated with GC pauses and lock contention in the same recording. Operations faster than the
+ * threshold (10 ms unless overridden by the recording settings) aren't committed, and the event
+ * attributes are computed only for the committed events.
+ */
+@Name(FormDataStorageEvent.NAME)
+@Label("Form Data Storage Operation")
+@Description("Get, put, delete or key search operation of the form data storage")
+@Category("Form Data Storage")
+@StackTrace(false)
+@Threshold("10 ms")
+public class FormDataStorageEvent extends Event {
+
+  public static final String NAME = "com.epam.digital.data.platform.storage.form.Operation";
+
+  public static final String SERVICE = "service";
+  public static final String REPOSITORY = "repository";
+
+  public static final String GET = "get";
+  public static final String PUT = "put";
+  public static final String DELETE = "delete";
+  public static final String SEARCH = "search";
+
+  public static final String SUCCESS = "success";
+  public static final String NOT_FOUND = "not-found";
+  public static final String ERROR = "error";
+
+  @Label("Layer")
+  @Description("Service or repository the operation is recorded by")
+  private String layer;
+
+  @Label("Backend")
+  private String backend;
+
+  @Label("Operation")
+  private String operation;
+
+  @Label("Key Family")
+  private String keyFamily;
+
+  @Label("Key Count")
+  private int keyCount;
+
+  @Label("Payload Size")
+  @DataAmount
+  private long payloadBytes;
+
+  @Label("Outcome")
+  private String outcome;
+
+  @Label("Error")
+  private String error;
+
+  /**
+   * Record the operation on a single key
+   *
+   * @param layer     service or repository
+   * @param backend   storage backend name
+   * @param operation get, put, delete or search
+   * @param key       form data key, the key family is derived from
+   * @param action    operation action, accepts the event to set the payload size or the key count;
+   *                  an empty {@link Optional} result is recorded as not found
+   * @return result of the action
+   */
+  public static <T> T call(String layer, String backend, String operation, String key,
+      Function<FormDataStorageEvent, T> action) {
+    var event = new FormDataStorageEvent();
+    event.begin();
+    try {
+      var result = action.apply(event);
+      var outcome = result instanceof Optional && ((Optional<?>) result).isEmpty()
+          ? NOT_FOUND : SUCCESS;
+      event.complete(layer, backend, operation, key, outcome, null);
+      return result;
+    } catch (RuntimeException ex) {
+      event.complete(layer, backend, operation, key, ERROR, ex);
+      throw ex;
+    }
+  }
+
+  /**
+   * @see #call(String, String, String, String, Function)
+   */
+  public static void run(String layer, String backend, String operation, String key,
+      Consumer<FormDataStorageEvent> action) {
+    call(layer, backend, operation, key, event -> {
+      action.accept(event);
+      return null;
+    });
+  }
+
+  /**
+   * Record the operation on a set of keys with the key count
+   *
+   * @param layer     service or repository
+   * @param backend   storage backend name
+   * @param operation get, put, delete or search
+   * @param keys      form data keys
+   * @param action    operation action
+   */
+  public static void run(String layer, String backend, String operation,
+      Collection<String> keys, Runnable action) {
+    run(layer, backend, operation, (String) null, event -> {
+      event.keyCount = keys.size();
+      action.run();
+    });
+  }
+
+  /**
+   * Set the payload size, the supplier is called only if the event is enabled
+   */
+  public void setPayloadBytes(LongSupplier payloadBytes) {
+    if (isEnabled()) {
+      this.payloadBytes = payloadBytes.getAsLong();
+    }
+  }
+
+  public void setKeyCount(int keyCount) {
+    this.keyCount = keyCount;
+  }
+
+  private void complete(String layer, String backend, String operation, String key,
+      String outcome, RuntimeException error) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    this.layer = layer;
+    this.backend = backend;
+    this.operation = operation;
+    this.outcome = outcome;
+    if (Objects.nonNull(key)) {
+      this.keyFamily = FormDataKeyFamily.of(key).name().toLowerCase();
+    }
+    if (Objects.nonNull(error)) {
+      this.error = error.getClass().getName();
+    }
+    commit();
+  }
+}
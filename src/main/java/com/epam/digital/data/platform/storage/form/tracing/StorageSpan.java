@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * Span of a phase of a storage operation, which accepts attributes known only once the phase runs
+ */
+public interface StorageSpan {
+
+  StorageSpan NOOP = new StorageSpan() {
+    @Override
+    public void tag(String key, Object value) {
+    }
+
+    @Override
+    public void tag(String key, Supplier<?> value) {
+    }
+  };
+
+  void tag(String key, Object value);
+
+  /**
+   * Tag the span with a value that is computed only if the span is recorded
+   */
+  default void tag(String key, Supplier<?> value) {
+    tag(key, value.get());
+  }
+}
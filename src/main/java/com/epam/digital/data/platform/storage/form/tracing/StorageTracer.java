@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.tracing;
+
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyFamily;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.cloud.sleuth.Tracer;
+
+/**
+ * Records phases of storage operations (serialization, network I/O, index maintenance) as child
+ * spans of the current span, so that the latency of an operation can be attributed from traces.
+ * Phase spans are tagged with the backend and the family of the key. Records nothing if the tracer
+ * isn't set.
+ */
+public class StorageTracer {
+
+  public static final StorageTracer NOOP = new StorageTracer(null, null);
+
+  public static final String BACKEND = "form.storage.backend";
+  public static final String KEY_FAMILY = "form.key.family";
+  public static final String KEY_COUNT = "form.key.count";
+  public static final String PAYLOAD_BYTES = "form.payload.bytes";
+
+  private final Tracer tracer;
+  private final String backend;
+
+  public StorageTracer(Tracer tracer, String backend) {
+    this.tracer = tracer;
+    this.backend = backend;
+  }
+
+  /**
+   * Run the phase of an operation on a single key in a child span
+   *
+   * @param name   name of the phase span
+   * @param key    form data key, the key family is derived from
+   * @param action phase action, accepts the span to tag the phase results
+   * @return result of the action
+   */
+  public <T> T call(String name, String key, Function<StorageSpan, T> action) {
+    if (Objects.isNull(tracer)) {
+      return action.apply(StorageSpan.NOOP);
+    }
+    var span = tracer.nextSpan().name(name).tag(BACKEND, backend);
+    if (Objects.nonNull(key)) {
+      span.tag(KEY_FAMILY, FormDataKeyFamily.of(key).name().toLowerCase());
+    }
+    span.start();
+    try (var ignored = tracer.withSpan(span)) {
+      return action.apply((tagKey, value) -> span.tag(tagKey, String.valueOf(value)));
+    } catch (RuntimeException ex) {
+      span.error(ex);
+      throw ex;
+    } finally {
+      span.end();
+    }
+  }
+
+  /**
+   * @see #call(String, String, Function)
+   */
+  public void run(String name, String key, Consumer<StorageSpan> action) {
+    call(name, key, span -> {
+      action.accept(span);
+      return null;
+    });
+  }
+
+  /**
+   * Run the phase of an operation on a set of keys in a child span tagged with the key count
+   *
+   * @param name   name of the phase span
+   * @param keys   form data keys
+   * @param action phase action
+   */
+  public void run(String name, Collection<String> keys, Runnable action) {
+    run(name, (String) null, span -> {
+      span.tag(KEY_COUNT, keys.size());
+      action.run();
+    });
+  }
+}
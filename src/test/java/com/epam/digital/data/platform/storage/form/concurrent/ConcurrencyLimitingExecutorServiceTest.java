@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitingExecutorServiceTest {
+
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldLimitConcurrencyOfWaitingTasks() throws Exception {
+    executor = new ConcurrencyLimitingExecutorService(Executors.newCachedThreadPool(), 2, false);
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var futures = new ArrayList<Future<?>>();
+
+    for (var i = 0; i < 10; i++) {
+      futures.add(executor.submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(10);
+        running.decrementAndGet();
+        return null;
+      }));
+    }
+    for (var future : futures) {
+      future.get(5, TimeUnit.SECONDS);
+    }
+
+    assertThat(maxRunning.get()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRejectTasksOverLimit() throws Exception {
+    executor = new ConcurrencyLimitingExecutorService(Executors.newCachedThreadPool(), 1, true);
+    var release = new CountDownLatch(1);
+    var first = executor.submit(() -> {
+      release.await();
+      return null;
+    });
+
+    assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> null));
+
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    assertThat(executor.submit(() -> "accepted").get(5, TimeUnit.SECONDS)).isEqualTo("accepted");
+  }
+
+  @Test
+  void shouldPickProviderSupportedByRuntime() {
+    var provider = FormDataExecutorProvider.defaultProvider();
+
+    if (Runtime.version().feature() >= 21) {
+      assertThat(provider).isInstanceOf(VirtualThreadExecutorProvider.class);
+    } else {
+      assertThat(provider).isInstanceOf(PlatformThreadExecutorProvider.class);
+    }
+    executor = provider.newExecutor("test", 1);
+  }
+}
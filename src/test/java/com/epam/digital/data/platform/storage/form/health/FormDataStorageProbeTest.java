@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.storage.form.config.ProbeConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.repository.FormDataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FormDataStorageProbeTest {
+
+  @Mock
+  private FormDataRepository<RedisKeysSearchParams> repository;
+  @Mock
+  private ScheduledExecutorService scheduler;
+  private SimpleMeterRegistry meterRegistry;
+  private ProbeConfiguration configuration;
+  private final AtomicReference<String> master = new AtomicReference<>("10.0.0.1:6379");
+
+  @BeforeEach
+  void init() {
+    meterRegistry = new SimpleMeterRegistry();
+    configuration = new ProbeConfiguration();
+    configuration.setFailureThreshold(2);
+  }
+
+  @Test
+  void shouldBeUpAfterSuccessfulRoundTrip() {
+    when(repository.getFormData(anyString())).thenReturn(Optional.of(new FormDataDto()));
+    var probe = newProbe(Clock.systemUTC());
+
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.UNKNOWN);
+    probe.probe();
+
+    var health = probe.getHealth();
+    assertThat(health.getStatus()).isEqualTo(HealthStatus.UP);
+    assertThat(health.isReady()).isTrue();
+    assertThat(health.getMaster()).isEqualTo("10.0.0.1:6379");
+    assertThat(health.getP99Latencies()).containsOnlyKeys("put", "get", "delete");
+    verify(repository).putFormData(any(FormDataInputWrapperDto.class));
+    verify(repository).delete(any());
+    assertThat(meterRegistry.get("form.data.storage.probe.latency").tag("operation", "get")
+        .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldBeDegradedWhenSlowAndDownAfterConsecutiveFailures() {
+    configuration.setLatencyThreshold(Duration.ZERO);
+    when(repository.getFormData(anyString())).thenReturn(Optional.of(new FormDataDto()));
+    var probe = newProbe(Clock.systemUTC());
+
+    probe.probe();
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DEGRADED);
+    assertThat(probe.getHealth().isReady()).isTrue();
+
+    doThrow(new FormDataRepositoryCommunicationException("timeout", null))
+        .when(repository).putFormData(any(FormDataInputWrapperDto.class));
+    probe.probe();
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DEGRADED);
+    assertThat(probe.getHealth().isReady()).isTrue();
+    probe.probe();
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DOWN);
+    assertThat(probe.getHealth().isReady()).isFalse();
+    assertThat(probe.getHealth().getLastError()).isEqualTo("timeout");
+    assertThat(meterRegistry.get("form.data.storage.probe.failures").counter().count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void shouldBeDegradedWithinGracePeriodAfterFailover() {
+    when(repository.getFormData(anyString())).thenReturn(Optional.of(new FormDataDto()));
+    var now = Instant.parse("2024-01-01T00:00:00Z");
+    var clock = new AtomicReference<>(Clock.fixed(now, ZoneOffset.UTC));
+    var probe = newProbe(new Clock() {
+      @Override
+      public ZoneOffset getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return clock.get().instant();
+      }
+    });
+
+    probe.probe();
+    master.set("10.0.0.2:6379");
+    probe.probe();
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DEGRADED);
+    assertThat(probe.getHealth().isReady()).isTrue();
+    assertThat(probe.getHealth().getMasterChangedAt()).isEqualTo(now);
+
+    clock.set(Clock.fixed(now.plus(configuration.getFailoverGracePeriod()), ZoneOffset.UTC));
+    probe.probe();
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.UP);
+  }
+
+  @Test
+  void shouldReportRoundTripInProgressLongerThanThresholds() throws Exception {
+    when(repository.getFormData(anyString())).thenReturn(Optional.of(new FormDataDto()));
+    var now = Instant.parse("2024-01-01T00:00:00Z");
+    var clock = new AtomicReference<>(Clock.fixed(now, ZoneOffset.UTC));
+    var probe = newProbe(new Clock() {
+      @Override
+      public ZoneOffset getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return clock.get().instant();
+      }
+    });
+    probe.probe();
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return null;
+    }).when(repository).putFormData(any(FormDataInputWrapperDto.class));
+    var roundTrip = new Thread(probe::probe);
+    roundTrip.start();
+    started.await();
+
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.UP);
+    clock.set(Clock.fixed(now.plus(configuration.getLatencyThreshold()).plusMillis(1),
+        ZoneOffset.UTC));
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DEGRADED);
+    clock.set(Clock.fixed(now.plus(configuration.getInterval().multipliedBy(2)).plusMillis(1),
+        ZoneOffset.UTC));
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DOWN);
+    assertThat(probe.getHealth().isReady()).isFalse();
+
+    release.countDown();
+    roundTrip.join();
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.UP);
+  }
+
+  @Test
+  void shouldBeDownWhenProbedFormIsMissing() {
+    configuration.setFailureThreshold(1);
+    when(repository.getFormData(anyString())).thenReturn(Optional.empty());
+    var probe = newProbe(Clock.systemUTC());
+
+    probe.probe();
+
+    assertThat(probe.getHealth().getStatus()).isEqualTo(HealthStatus.DOWN);
+  }
+
+  private FormDataStorageProbe newProbe(Clock clock) {
+    return new FormDataStorageProbe("redis", repository, configuration, master::get, scheduler,
+        meterRegistry, clock);
+  }
+}
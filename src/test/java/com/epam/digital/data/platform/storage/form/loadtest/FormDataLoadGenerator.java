@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.loadtest;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives {@link FormDataStorageService} with the BPMS form lifecycle workload described by
+ * {@link LoadTestConfiguration} and measures latencies of the service calls
+ */
+@Slf4j
+public class FormDataLoadGenerator {
+
+  public static final String PUT = "putFormData";
+  public static final String GET = "getFormData";
+  public static final String DELETE = "deleteByProcessInstance";
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final FormDataStorageService<?> service;
+  private final LoadTestConfiguration configuration;
+  private final NavigableMap<Integer, String> payloads = new TreeMap<>();
+  private final int totalPayloadWeight;
+
+  public FormDataLoadGenerator(FormDataStorageService<?> service,
+      LoadTestConfiguration configuration) {
+    this.service = service;
+    this.configuration = configuration;
+    var weight = 0;
+    for (var sizeWeight : configuration.getPayloadSizes().entrySet()) {
+      weight += sizeWeight.getValue();
+      payloads.put(weight, "x".repeat(sizeWeight.getKey()));
+    }
+    this.totalPayloadWeight = weight;
+  }
+
+  /**
+   * Run the warmup processes, then the measured ones
+   *
+   * @return report of the measured processes
+   */
+  public LoadTestReport run() {
+    if (configuration.getWarmupProcesses() > 0) {
+      log.info("Warming up with {} processes", configuration.getWarmupProcesses());
+      run(configuration.getWarmupProcesses());
+    }
+    log.info("Running {} processes by {} workers against {}", configuration.getProcesses(),
+        configuration.getConcurrency(), configuration.getBackend());
+    return run(configuration.getProcesses());
+  }
+
+  private LoadTestReport run(int processes) {
+    var recorders = new LinkedHashMap<String, OperationRecorder>();
+    recorders.put(PUT, new OperationRecorder());
+    recorders.put(GET, new OperationRecorder());
+    recorders.put(DELETE, new OperationRecorder());
+    var remaining = new AtomicInteger(processes);
+    var executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+    var started = System.nanoTime();
+    try {
+      var workers = new ArrayList<CompletableFuture<Void>>();
+      for (var i = 0; i < configuration.getConcurrency(); i++) {
+        workers.add(CompletableFuture.runAsync(() -> {
+          while (remaining.getAndDecrement() > 0) {
+            runProcess(recorders);
+          }
+        }, executor));
+      }
+      CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+    } finally {
+      executor.shutdownNow();
+    }
+    var duration = Duration.ofNanos(System.nanoTime() - started);
+    return LoadTestReport.builder()
+        .duration(duration)
+        .operations(recorders.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+            entry -> entry.getValue().toReport(), (a, b) -> a, LinkedHashMap::new)))
+        .build();
+  }
+
+  private void runProcess(Map<String, OperationRecorder> recorders) {
+    var processInstanceId = UUID.randomUUID().toString();
+    for (var task = 0; task < configuration.getTasksPerProcess(); task++) {
+      var taskDefinitionKey = "task-" + task;
+      for (var form = 0; form < configuration.getPutsPerTask(); form++) {
+        var formKey = form == 0 ? taskDefinitionKey : taskDefinitionKey + "-" + form;
+        var content = nextFormData();
+        recorders.get(PUT).record(
+            () -> service.putFormData(formKey, processInstanceId, content));
+      }
+      for (var read = 0; read < configuration.getReadsPerTask(); read++) {
+        recorders.get(GET).record(
+            () -> service.getFormData(taskDefinitionKey, processInstanceId));
+      }
+    }
+    recorders.get(DELETE).record(() -> service.deleteByProcessInstance(processInstanceId));
+  }
+
+  private FormDataDto nextFormData() {
+    var data = new LinkedHashMap<String, Object>();
+    var weight = ThreadLocalRandom.current().nextInt(totalPayloadWeight);
+    data.put("text", payloads.higherEntry(weight).getValue());
+    return FormDataDto.builder().data(data).accessToken("token").build();
+  }
+
+  private static class OperationRecorder {
+
+    private final Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void record(Runnable operation) {
+      var started = System.nanoTime();
+      try {
+        operation.run();
+      } catch (RuntimeException ex) {
+        errors.increment();
+        log.debug("Operation failed", ex);
+      } finally {
+        latencies.recordValue(System.nanoTime() - started);
+        count.increment();
+      }
+    }
+
+    LoadTestReport.OperationReport toReport() {
+      return new LoadTestReport.OperationReport(count.sum(), errors.sum(), latencies.copy());
+    }
+  }
+}
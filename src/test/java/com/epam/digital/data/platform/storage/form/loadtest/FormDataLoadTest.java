@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.integration.ceph.factory.CephS3Factory;
+import com.epam.digital.data.platform.storage.form.config.CephStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.factory.StorageServiceFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import java.io.IOException;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import redis.embedded.RedisServer;
+
+/**
+ * Load test of the storage services against embedded redis and the in-process ceph stand-in.
+ * <p>
+ * The smoke tests check the harness on a small workload. The full load test runs only if
+ * {@code loadtest.enabled=true}, with the workload read from the {@code loadtest.*} properties:
+ * <pre>
+ * mvn test -Dtest=FormDataLoadTest -Dloadtest.enabled=true -Dloadtest.backend=ceph \
+ *     -Dloadtest.concurrency=64 -Dloadtest.processes=10000 -Dloadtest.cephLatency=PT0.002S
+ * </pre>
+ */
+@Slf4j
+class FormDataLoadTest {
+
+  private static final int REDIS_PORT = 1500;
+  private static final String BUCKET = "bucket";
+
+  private static RedisServer redisServer;
+  private static LettuceConnectionFactory connectionFactory;
+  private StorageServiceFactory storageServiceFactory;
+
+  @BeforeAll
+  static void setUp() throws IOException {
+    redisServer = new RedisServer(REDIS_PORT);
+    redisServer.start();
+    var clientConfiguration = LettuceClientConfiguration.builder()
+        .clientOptions(ClientOptions.builder().autoReconnect(false).build())
+        .build();
+    connectionFactory = new LettuceConnectionFactory(
+        new RedisStandaloneConfiguration("localhost", REDIS_PORT), clientConfiguration);
+    connectionFactory.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    connectionFactory.destroy();
+    redisServer.stop();
+  }
+
+  @AfterEach
+  void closeFactory() {
+    if (storageServiceFactory != null) {
+      storageServiceFactory.close();
+    }
+  }
+
+  @Test
+  void shouldRunRedisWorkload() {
+    var configuration = smokeConfiguration("redis");
+
+    var report = run(configuration, new InMemoryCephStandIn(configuration.getCephLatency()));
+
+    assertCompleted(report, configuration);
+  }
+
+  @Test
+  void shouldRunCephWorkloadAndDeleteAllForms() {
+    var configuration = smokeConfiguration("ceph");
+    var ceph = new InMemoryCephStandIn(configuration.getCephLatency());
+
+    var report = run(configuration, ceph);
+
+    assertCompleted(report, configuration);
+    assertThat(ceph.size(BUCKET)).isZero();
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "loadtest.enabled", matches = "true")
+  void loadTest() {
+    var configuration = LoadTestConfiguration.fromProperties(System.getProperties());
+
+    var report = run(configuration, new InMemoryCephStandIn(configuration.getCephLatency()));
+
+    log.info("{}", configuration);
+    log.info("\n{}", report);
+  }
+
+  private LoadTestReport run(LoadTestConfiguration configuration, InMemoryCephStandIn ceph) {
+    var cephFactory = mock(CephS3Factory.class);
+    when(cephFactory.createCephService(any(), any(), any())).thenReturn(ceph.getCephService());
+    storageServiceFactory = new StorageServiceFactory(new ObjectMapper(), cephFactory);
+    var service = "ceph".equals(configuration.getBackend())
+        ? storageServiceFactory.formDataStorageService(cephConfiguration())
+        : storageServiceFactory.formDataStorageService(connectionFactory);
+    return new FormDataLoadGenerator(service, configuration).run();
+  }
+
+  private static CephStorageConfiguration cephConfiguration() {
+    var configuration = new CephStorageConfiguration();
+    configuration.setHttpEndpoint("http://localhost");
+    configuration.setBucket(BUCKET);
+    return configuration;
+  }
+
+  private static LoadTestConfiguration smokeConfiguration(String backend) {
+    var configuration = new LoadTestConfiguration();
+    configuration.setBackend(backend);
+    configuration.setConcurrency(4);
+    configuration.setWarmupProcesses(0);
+    configuration.setProcesses(20);
+    configuration.setTasksPerProcess(3);
+    configuration.setPutsPerTask(2);
+    configuration.setReadsPerTask(2);
+    configuration.setPayloadSizes(Map.of(512, 3, 8 * 1024, 1));
+    return configuration;
+  }
+
+  private static void assertCompleted(LoadTestReport report,
+      LoadTestConfiguration configuration) {
+    var tasks = configuration.getProcesses() * configuration.getTasksPerProcess();
+    var operations = report.getOperations();
+    assertThat(operations.get(FormDataLoadGenerator.PUT).getCount())
+        .isEqualTo(tasks * configuration.getPutsPerTask());
+    assertThat(operations.get(FormDataLoadGenerator.GET).getCount())
+        .isEqualTo(tasks * configuration.getReadsPerTask());
+    assertThat(operations.get(FormDataLoadGenerator.DELETE).getCount())
+        .isEqualTo(configuration.getProcesses());
+    assertThat(operations.values()).allSatisfy(operation -> {
+      assertThat(operation.getErrors()).isZero();
+      assertThat(operation.getLatencyMillis(99)).isPositive();
+    });
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.loadtest;
+
+import com.epam.digital.data.platform.integration.ceph.service.CephService;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process stand-in of the S3 compatible storage behind {@link CephService}: objects are kept in
+ * sorted maps per bucket, so prefix listings behave like S3 ones, and every call is optionally
+ * delayed to emulate a network round trip. The service is a plain proxy dispatching the operations
+ * the form data repositories use, so the load test measures the storage rather than a mocking
+ * framework. The rest of the client operations are unsupported, so the stand-in doesn't depend on
+ * the exact set of them in the client version.
+ */
+public class InMemoryCephStandIn implements InvocationHandler {
+
+  private final ConcurrentHashMap<String, ConcurrentNavigableMap<String, String>> buckets =
+      new ConcurrentHashMap<>();
+  private final long latencyNanos;
+  private final CephService cephService;
+
+  public InMemoryCephStandIn(Duration latency) {
+    this.latencyNanos = latency.toNanos();
+    this.cephService = (CephService) Proxy.newProxyInstance(CephService.class.getClassLoader(),
+        new Class<?>[]{CephService.class}, this);
+  }
+
+  public CephService getCephService() {
+    return cephService;
+  }
+
+  /**
+   * @param bucket bucket name
+   * @return number of objects stored in the bucket
+   */
+  public int size(String bucket) {
+    return bucket(bucket).size();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Object invoke(Object proxy, Method method, Object[] args) {
+    var signature = method.getName() + "/" + (args == null ? 0 : args.length);
+    switch (signature) {
+      case "getAsString/2":
+        return getAsString((String) args[0], (String) args[1]);
+      case "put/3":
+        put((String) args[0], (String) args[1], (String) args[2]);
+        return null;
+      case "getKeys/2":
+        return getKeys((String) args[0], (String) args[1]);
+      case "delete/2":
+        delete((String) args[0], (Set<String>) args[1]);
+        return null;
+      case "hashCode/0":
+        return System.identityHashCode(proxy);
+      case "equals/1":
+        return proxy == args[0];
+      case "toString/0":
+        return getClass().getSimpleName();
+      default:
+        throw new UnsupportedOperationException(
+            String.format("%s isn't supported by the stand-in", method));
+    }
+  }
+
+  private Optional<String> getAsString(String bucket, String key) {
+    delay();
+    return Optional.ofNullable(bucket(bucket).get(key));
+  }
+
+  private void put(String bucket, String key, String content) {
+    delay();
+    bucket(bucket).put(key, content);
+  }
+
+  private Set<String> getKeys(String bucket, String prefix) {
+    delay();
+    var objects = bucket(bucket);
+    var keys = new HashSet<String>();
+    for (var key : objects.tailMap(prefix).keySet()) {
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+      keys.add(key);
+    }
+    return keys;
+  }
+
+  private void delete(String bucket, Set<String> keys) {
+    delay();
+    bucket(bucket).keySet().removeAll(keys);
+  }
+
+  private ConcurrentNavigableMap<String, String> bucket(String bucket) {
+    return buckets.computeIfAbsent(bucket, name -> new ConcurrentSkipListMap<>());
+  }
+
+  private void delay() {
+    if (latencyNanos > 0) {
+      LockSupport.parkNanos(latencyNanos);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import lombok.Data;
+
+/**
+ * Workload of the load test. Every process instance goes through the BPMS form lifecycle: each
+ * task completion puts a burst of forms, the task form is read several times, and all the forms
+ * are deleted on the process end.
+ */
+@Data
+public class LoadTestConfiguration {
+
+  public static final String PROPERTY_PREFIX = "loadtest.";
+
+  /**
+   * redis (embedded server) or ceph (in-process stand-in)
+   */
+  private String backend = "redis";
+  /**
+   * Number of process instances run concurrently
+   */
+  private int concurrency = 16;
+  /**
+   * Number of process instances run before the measured ones
+   */
+  private int warmupProcesses = 100;
+  private int processes = 1000;
+  private int tasksPerProcess = 5;
+  /**
+   * Number of forms put at once on a task completion
+   */
+  private int putsPerTask = 2;
+  private int readsPerTask = 3;
+  /**
+   * Weights of serialized payload sizes (bytes)
+   */
+  private Map<Integer, Integer> payloadSizes = new LinkedHashMap<>(
+      Map.of(1024, 70, 16 * 1024, 25, 256 * 1024, 5));
+  /**
+   * Latency added to every call of the ceph stand-in to emulate network round trips
+   */
+  private Duration cephLatency = Duration.ZERO;
+
+  /**
+   * Read the configuration from the loadtest.* properties, e.g. loadtest.concurrency=64 or
+   * loadtest.payloadSizes=1024:70,16384:25,262144:5
+   *
+   * @param properties system properties
+   * @return configuration with defaults for the missing properties
+   */
+  public static LoadTestConfiguration fromProperties(Properties properties) {
+    var configuration = new LoadTestConfiguration();
+    var source = new PropertySource(properties);
+    source.get("backend").ifPresent(configuration::setBackend);
+    source.getInt("concurrency").ifPresent(configuration::setConcurrency);
+    source.getInt("warmupProcesses").ifPresent(configuration::setWarmupProcesses);
+    source.getInt("processes").ifPresent(configuration::setProcesses);
+    source.getInt("tasksPerProcess").ifPresent(configuration::setTasksPerProcess);
+    source.getInt("putsPerTask").ifPresent(configuration::setPutsPerTask);
+    source.getInt("readsPerTask").ifPresent(configuration::setReadsPerTask);
+    source.get("payloadSizes").map(LoadTestConfiguration::parseWeights)
+        .ifPresent(configuration::setPayloadSizes);
+    source.get("cephLatency").map(Duration::parse).ifPresent(configuration::setCephLatency);
+    return configuration;
+  }
+
+  private static Map<Integer, Integer> parseWeights(String value) {
+    return Arrays.stream(value.split(","))
+        .map(sizeWeight -> sizeWeight.trim().split(":"))
+        .collect(Collectors.toMap(sizeWeight -> Integer.parseInt(sizeWeight[0]),
+            sizeWeight -> Integer.parseInt(sizeWeight[1]), (a, b) -> b, LinkedHashMap::new));
+  }
+
+  private static class PropertySource {
+
+    private final Properties properties;
+
+    PropertySource(Properties properties) {
+      this.properties = properties;
+    }
+
+    Optional<String> get(String name) {
+      return Optional.ofNullable(properties.getProperty(PROPERTY_PREFIX + name))
+          .map(String::trim);
+    }
+
+    Optional<Integer> getInt(String name) {
+      return get(name).map(Integer::parseInt);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput and latency percentiles of the load test operations
+ */
+@Value
+@Builder
+public class LoadTestReport {
+
+  Duration duration;
+  Map<String, OperationReport> operations;
+
+  @Value
+  public static class OperationReport {
+
+    long count;
+    long errors;
+    Histogram latencies;
+
+    public double getThroughput(Duration duration) {
+      return count * 1_000_000_000d / Math.max(1, duration.toNanos());
+    }
+
+    /**
+     * @param percentile percentile in range (0, 100]
+     * @return latency at the percentile in milliseconds
+     */
+    public double getLatencyMillis(double percentile) {
+      return latencies.getValueAtPercentile(percentile) / 1_000_000d;
+    }
+  }
+
+  @Override
+  public String toString() {
+    var report = new StringBuilder(String.format("Load test took %d ms%n", duration.toMillis()))
+        .append(String.format("%-28s %10s %8s %10s %9s %9s %9s %9s %9s%n", "operation", "count",
+            "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+    operations.forEach((name, operation) -> report.append(String.format(
+        "%-28s %10d %8d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n", name, operation.getCount(),
+        operation.getErrors(), operation.getThroughput(duration),
+        operation.getLatencyMillis(50), operation.getLatencyMillis(90),
+        operation.getLatencyMillis(99), operation.getLatencyMillis(99.9),
+        operation.getLatencies().getMaxValue() / 1_000_000d)));
+    return report.toString();
+  }
+}
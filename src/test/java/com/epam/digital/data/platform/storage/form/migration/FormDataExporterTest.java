@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+import com.epam.digital.data.platform.storage.form.config.FormDataTransferConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FormDataExporterTest {
+
+  @Mock
+  private FormDataStorageService<?> source;
+  @Mock
+  private FormDataStorageService<?> target;
+  private final Map<String, FormDataInputWrapperDto> targetStorage = new ConcurrentHashMap<>();
+  private FormDataTransferConfiguration configuration;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @BeforeEach
+  void init() {
+    lenient().doAnswer(invocation -> {
+      String key = invocation.getArgument(0);
+      return key.endsWith("missing") ? Optional.empty() : Optional.of(FormDataDto.builder()
+          .data(new LinkedHashMap<>(Map.of("key", key)))
+          .build());
+    }).when(source).getFormDataWithSignature(anyString());
+    lenient().doAnswer(invocation -> {
+      FormDataInputWrapperDto formData = invocation.getArgument(0);
+      targetStorage.put(formData.getKey(), formData);
+      return null;
+    }).when(target).putFormData(any(FormDataInputWrapperDto.class));
+    configuration = new FormDataTransferConfiguration();
+    configuration.setParallelism(4);
+  }
+
+  @Test
+  void shouldExportFormsInKeyOrder() {
+    var keys = IntStream.range(0, 50)
+        .mapToObj(i -> String.format("process/pid/task/task-%02d", i))
+        .collect(Collectors.toList());
+    var output = new ByteArrayOutputStream();
+
+    var exported = newExporter().export(keys.stream(), output);
+
+    assertThat(exported).isEqualTo(keys.size());
+    var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(keys.size());
+    assertThat(lines[7]).isEqualTo("{\"key\":\"process/pid/task/task-07\",\"formData\":"
+        + "{\"data\":{\"key\":\"process/pid/task/task-07\"}},\"processInstanceId\":\"pid\"}");
+  }
+
+  @Test
+  void shouldImportCompressedExport() {
+    configuration.setCompress(true);
+    var exporter = newExporter();
+    var keys = List.of("process/pid-1/task/first", "process/pid-1/task/missing",
+        "process/pid-2/task/first", "lowcode_pid-1_system_signature_ceph_key_0",
+        "process-definition/definition/start-form/uuid");
+    var output = new ByteArrayOutputStream();
+
+    var exported = exporter.export(keys.stream().filter(exporter.processInstanceKeys("pid-1")),
+        output);
+    var imported = FormDataImporter.builder()
+        .target(target)
+        .configuration(configuration)
+        .objectMapper(objectMapper)
+        .build()
+        .importForms(new ByteArrayInputStream(output.toByteArray()));
+
+    assertThat(exported).isEqualTo(2);
+    assertThat(imported).isEqualTo(2);
+    assertThat(targetStorage).containsOnlyKeys("process/pid-1/task/first",
+        "lowcode_pid-1_system_signature_ceph_key_0");
+    assertThat(targetStorage.get("process/pid-1/task/first").getProcessInstanceId())
+        .isEqualTo("pid-1");
+    assertThat(targetStorage.get("process/pid-1/task/first").getFormData().getData())
+        .containsEntry("key", "process/pid-1/task/first");
+  }
+
+  private FormDataExporter newExporter() {
+    return FormDataExporter.builder()
+        .source(source)
+        .configuration(configuration)
+        .keyProvider(new FormDataKeyProviderImpl())
+        .objectMapper(objectMapper)
+        .build();
+  }
+}
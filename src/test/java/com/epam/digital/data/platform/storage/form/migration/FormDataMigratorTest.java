@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.storage.form.config.MigrationConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataMigrationException;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.repository.FormDataKeyScanner;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.epam.digital.data.platform.storage.form.service.FormDataStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FormDataMigratorTest {
+
+  private static final List<String> KEYS = List.of("lowcode_definition_start_form_1",
+      "process/pid-1/task/first", "process/pid-1/task/second", "process/pid-2/task/first",
+      "process-definition/definition/start-form/1",
+      "lowcode_root-pid_pid-3_system_signature_ceph_key",
+      "lowcode_pid-4_system_signature_ceph_key_0");
+
+  @TempDir
+  Path checkpointDirectory;
+  @Mock
+  private FormDataStorageService<?> source;
+  @Mock
+  private FormDataStorageService<?> target;
+  private final Map<String, FormDataInputWrapperDto> targetStorage = new ConcurrentHashMap<>();
+  private final AtomicBoolean failing = new AtomicBoolean();
+  private MigrationConfiguration configuration;
+
+  @BeforeEach
+  void init() {
+    lenient().doAnswer(invocation -> {
+      String key = invocation.getArgument(0);
+      return Optional.of(FormDataDto.builder()
+          .data(new LinkedHashMap<>(Map.of("key", key)))
+          .build());
+    }).when(source).getFormDataWithSignature(anyString());
+    lenient().doAnswer(invocation -> {
+      FormDataInputWrapperDto formData = invocation.getArgument(0);
+      if (failing.get() && formData.getKey().equals("process/pid-2/task/first")) {
+        throw new IllegalStateException("failed");
+      }
+      targetStorage.put(formData.getKey(), formData);
+      return null;
+    }).when(target).putFormData(any(FormDataInputWrapperDto.class));
+    lenient().doAnswer(invocation -> Optional.ofNullable(
+            targetStorage.get(invocation.<String>getArgument(0)))
+        .map(FormDataInputWrapperDto::getFormData))
+        .when(target).getFormDataWithSignature(anyString());
+
+    configuration = new MigrationConfiguration();
+    configuration.setBatchSize(2);
+    configuration.setParallelism(2);
+  }
+
+  @Test
+  void shouldCopyAndVerifyAllForms() {
+    var checkpoint = newMigrator(null).migrate("migration");
+
+    assertThat(checkpoint.isFinished()).isTrue();
+    assertThat(checkpoint.getScanned()).isEqualTo(KEYS.size());
+    assertThat(checkpoint.getCopied()).isEqualTo(KEYS.size());
+    assertThat(checkpoint.getMismatched()).isZero();
+    assertThat(checkpoint.getSourceChecksum()).isEqualTo(checkpoint.getTargetChecksum());
+    assertThat(targetStorage).containsOnlyKeys(KEYS);
+    assertThat(targetStorage.get("process/pid-1/task/second").getProcessInstanceId())
+        .isEqualTo("pid-1");
+    assertThat(targetStorage.get("lowcode_definition_start_form_1").getProcessInstanceId())
+        .isNull();
+  }
+
+  @Test
+  void shouldBindSystemSignaturesToProcessInstance() {
+    newMigrator(null).migrate("migration");
+
+    assertThat(targetStorage.get("lowcode_root-pid_pid-3_system_signature_ceph_key")
+        .getProcessInstanceId()).isEqualTo("root-pid");
+    assertThat(targetStorage.get("lowcode_pid-4_system_signature_ceph_key_0")
+        .getProcessInstanceId()).isEqualTo("pid-4");
+  }
+
+  @Test
+  void shouldResumeFromLastCheckpoint() {
+    var checkpointStore = new FileMigrationCheckpointStore(checkpointDirectory, new ObjectMapper());
+    failing.set(true);
+
+    assertThrows(FormDataMigrationException.class,
+        () -> newMigrator(checkpointStore).migrate("migration"));
+    assertThat(checkpointStore.load("migration")).get()
+        .satisfies(checkpoint -> assertThat(checkpoint.getCopied()).isEqualTo(2));
+
+    failing.set(false);
+    var checkpoint = newMigrator(checkpointStore).migrate("migration");
+
+    assertThat(checkpoint.getCopied()).isEqualTo(KEYS.size());
+    assertThat(checkpoint.getSourceChecksum()).isEqualTo(checkpoint.getTargetChecksum());
+    assertThat(targetStorage).containsOnlyKeys(KEYS);
+    verify(source, times(1)).getFormDataWithSignature(KEYS.get(0));
+  }
+
+  private FormDataMigrator newMigrator(MigrationCheckpointStore checkpointStore) {
+    return FormDataMigrator.builder()
+        .source(source)
+        .sourceScanner(new ListFormDataKeyScanner())
+        .target(target)
+        .checkpointStore(checkpointStore)
+        .configuration(configuration)
+        .keyProvider(new FormDataKeyProviderImpl())
+        .objectMapper(new ObjectMapper())
+        .build();
+  }
+
+  private static class ListFormDataKeyScanner implements FormDataKeyScanner {
+
+    @Override
+    public FormDataKeyPage scan(String cursor, int count) {
+      var from = cursor == null ? 0 : Integer.parseInt(cursor);
+      var to = Math.min(KEYS.size(), from + count);
+      return FormDataKeyPage.builder()
+          .keys(KEYS.subList(from, to))
+          .cursor(to < KEYS.size() ? String.valueOf(to) : null)
+          .build();
+    }
+  }
+}
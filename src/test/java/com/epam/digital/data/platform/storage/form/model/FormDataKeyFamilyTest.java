@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FormDataKeyFamilyTest {
+
+  @Test
+  void shouldClassifyKeyFamilies() {
+    assertThat(FormDataKeyFamily.of("bpm-form-submissions:process/1/task/a"))
+        .isEqualTo(FormDataKeyFamily.TASK);
+    assertThat(FormDataKeyFamily.of("process-definition/def/start-form/uuid"))
+        .isEqualTo(FormDataKeyFamily.START_FORM);
+    assertThat(FormDataKeyFamily.of("process/1/task/a~signature"))
+        .isEqualTo(FormDataKeyFamily.SIGNATURE);
+    assertThat(FormDataKeyFamily.of("process/1/task/signature"))
+        .isEqualTo(FormDataKeyFamily.TASK);
+    assertThat(FormDataKeyFamily.of("process/1/task/a~revisions"))
+        .isEqualTo(FormDataKeyFamily.OTHER);
+    assertThat(FormDataKeyFamily.of("lowcode_1_2_system_signature_ceph_key"))
+        .isEqualTo(FormDataKeyFamily.SYSTEM_SIGNATURE);
+    assertThat(FormDataKeyFamily.of("lowcode_1_system_signature_ceph_key_3"))
+        .isEqualTo(FormDataKeyFamily.BATCH_SYSTEM_SIGNATURE);
+    assertThat(FormDataKeyFamily.of("lowcode_def_start_form_uuid"))
+        .isEqualTo(FormDataKeyFamily.EXTERNAL_SYSTEM_FORM);
+  }
+
+  @Test
+  void shouldExtractDefinitionKey() {
+    assertThat(FormDataKeyFamily.getDefinitionKey("bpm-form-submissions:process/1/task/a"))
+        .contains("a");
+    assertThat(FormDataKeyFamily.getDefinitionKey("process-definition/def/start-form/uuid"))
+        .contains("def");
+    assertThat(FormDataKeyFamily.getDefinitionKey("lowcode_my_def_start_form_uuid"))
+        .contains("my_def");
+    assertThat(FormDataKeyFamily.getDefinitionKey("process/1/task/a~revisions/2")).isEmpty();
+    assertThat(FormDataKeyFamily.getDefinitionKey("lowcode_1_2_system_signature_ceph_key"))
+        .isEmpty();
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.integration.ceph.service.CephService;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CephFormDataKeyScannerTest {
+
+  @Mock
+  private CephService cephService;
+
+  @Test
+  void shouldPageFormDataKeysInOrder() {
+    when(cephService.getKeys("bucket", "process/")).thenReturn(Set.of("process/2/task/a",
+        "process/1/task/b", "process/1/task/a", "process/1/task/a~fingerprint",
+        "process/1/task/b/parts/0f1c9d4e-7b7f-4a57-a9f5-0a6f1b2c3d4e/0",
+        "process/1/task/a~signature", "process/1/task/a~revisions", "process/1/task/a~revisions/1",
+        "process/3/task/fingerprint", "process/3/task/signature", "process/3/task/revisions"));
+    var scanner = CephFormDataKeyScanner.builder()
+        .cephBucketName("bucket")
+        .cephService(cephService)
+        .prefix("process/")
+        .build();
+
+    var first = scanner.scan(null, 2);
+    var second = scanner.scan(first.getCursor(), 2);
+    var third = scanner.scan(second.getCursor(), 2);
+
+    assertThat(first.getKeys()).containsExactly("process/1/task/a", "process/1/task/b");
+    assertThat(second.getKeys()).containsExactly("process/2/task/a", "process/3/task/fingerprint");
+    assertThat(third.getKeys()).containsExactly("process/3/task/revisions",
+        "process/3/task/signature");
+    assertThat(third.getCursor()).isNull();
+    verify(cephService).getKeys("bucket", "process/");
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.integration.ceph.exception.CephCommunicationException;
+import com.epam.digital.data.platform.integration.ceph.service.CephService;
+import com.epam.digital.data.platform.storage.form.config.CephMultipartConfiguration;
+import com.epam.digital.data.platform.storage.form.config.ResilienceConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.resilience.AdaptiveResiliencePolicy;
+import com.epam.digital.data.platform.storage.form.resilience.ResiliencePolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CephFormDataRepositoryTest {
+
+  private static final String BUCKET = "bucket";
+
+  @Mock
+  private CephService cephService;
+  private final Map<String, String> storage = new ConcurrentHashMap<>();
+  private ExecutorService executor;
+  private FormDataRepository<CephKeysSearchParams> formDataRepository;
+
+  @BeforeEach
+  void init() {
+    lenient().doAnswer(invocation -> storage.put(invocation.getArgument(1), invocation.getArgument(2)))
+        .when(cephService).put(eq(BUCKET), anyString(), anyString());
+    lenient().doAnswer(invocation -> Optional.ofNullable(storage.get(invocation.getArgument(1))))
+        .when(cephService).getAsString(eq(BUCKET), anyString());
+    lenient().doAnswer(invocation -> storage.keySet().stream()
+            .filter(key -> key.startsWith(invocation.getArgument(1)))
+            .collect(Collectors.toSet()))
+        .when(cephService).getKeys(eq(BUCKET), anyString());
+    lenient().doAnswer(invocation -> {
+          Set<String> keys = invocation.getArgument(1);
+          keys.forEach(storage::remove);
+          return null;
+        })
+        .when(cephService).delete(eq(BUCKET), any());
+
+    var multipart = new CephMultipartConfiguration();
+    multipart.setThreshold(100);
+    multipart.setPartSize(40);
+    executor = Executors.newFixedThreadPool(2);
+    formDataRepository = CephFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .cephBucketName(BUCKET)
+        .cephService(cephService)
+        .multipart(multipart)
+        .multipartExecutor(executor)
+        .build();
+  }
+
+  private FormDataRepository<CephKeysSearchParams> newRepository(
+      ResiliencePolicy resiliencePolicy) {
+    return CephFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .cephBucketName(BUCKET)
+        .cephService(cephService)
+        .resiliencePolicy(resiliencePolicy)
+        .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void shouldPutSmallFormDataInOneRequest() {
+    var formData = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("field", "value")))
+        .build();
+
+    formDataRepository.putFormData(
+        FormDataInputWrapperDto.builder().key("key").formData(formData).build());
+
+    verify(cephService).put(BUCKET, "key", "{\"data\":{\"field\":\"value\"}}");
+    assertThat(storage).hasSize(1);
+  }
+
+  @Test
+  void shouldPutAndReadLargeFormDataInParts() {
+    var formData = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("field", "x".repeat(150))))
+        .signature("signature")
+        .build();
+
+    formDataRepository.putFormData(
+        FormDataInputWrapperDto.builder().key("key").formData(formData).build());
+
+    assertThat(storage.keySet()).filteredOn(key -> key.startsWith("key/parts/")).hasSize(5);
+    assertThat(formDataRepository.getFormData("key")).contains(formData);
+  }
+
+  @Test
+  void shouldRemoveStalePartsOnOverwriteAndPartsOnDelete() {
+    var formData = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("field", "x".repeat(150))))
+        .build();
+    var input = FormDataInputWrapperDto.builder().key("key").formData(formData).build();
+
+    formDataRepository.putFormData(input);
+    formDataRepository.putFormData(input);
+    assertThat(storage.keySet()).filteredOn(key -> key.startsWith("key/parts/")).hasSize(5);
+
+    formDataRepository.delete(Set.of("key"));
+    assertThat(storage).isEmpty();
+  }
+
+  @Test
+  void shouldNotListPartsOnDeleteIfMultipartWasNeverEnabled() {
+    storage.put("key", "{}");
+
+    newRepository(null).delete(Set.of("key"));
+
+    verify(cephService, never()).getKeys(eq(BUCKET), anyString());
+    assertThat(storage).isEmpty();
+  }
+
+  @Test
+  void shouldReadAndDeleteFormDataStoredInPartsAfterMultipartIsDisabled() {
+    var formData = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("field", "x".repeat(150))))
+        .build();
+    formDataRepository.putFormData(
+        FormDataInputWrapperDto.builder().key("key").formData(formData).build());
+    var singlePartFormDataRepository = CephFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .cephBucketName(BUCKET)
+        .cephService(cephService)
+        .legacyMultipart(true)
+        .build();
+
+    assertThat(singlePartFormDataRepository.getFormData("key")).contains(formData);
+
+    singlePartFormDataRepository.delete(Set.of("key"));
+    assertThat(storage).isEmpty();
+  }
+
+  @Test
+  void shouldRetryCommunicationFailuresIfPolicyAllows() {
+    var resilience = new ResilienceConfiguration();
+    resilience.setMaxAttempts(3);
+    resilience.setRetryBackoff(Duration.ZERO);
+    var retryingFormDataRepository = newRepository(
+        new AdaptiveResiliencePolicy("ceph", resilience, new SimpleMeterRegistry()));
+    when(cephService.getAsString(BUCKET, "key"))
+        .thenThrow(new CephCommunicationException("failed", null))
+        .thenThrow(new CephCommunicationException("failed", null))
+        .thenReturn(Optional.of("{\"signature\":\"signature\"}"));
+
+    assertThat(retryingFormDataRepository.getFormData("key").get().getSignature())
+        .isEqualTo("signature");
+  }
+
+  @Test
+  void shouldNotRetryCommunicationFailuresByDefault() {
+    when(cephService.getAsString(BUCKET, "key"))
+        .thenThrow(new CephCommunicationException("failed", null));
+
+    assertThrows(FormDataRepositoryCommunicationException.class,
+        () -> newRepository(null).getFormData("key"));
+    verify(cephService, times(1)).getAsString(BUCKET, "key");
+  }
+
+  @Test
+  void shouldSkipPutOfUnchangedFormData() {
+    var meterRegistry = new SimpleMeterRegistry();
+    var fingerprintingFormDataRepository = CephFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .cephBucketName(BUCKET)
+        .cephService(cephService)
+        .fingerprintFilter(new FingerprintWriteFilter("ceph", meterRegistry))
+        .build();
+    var content = "{\"data\":{\"field\":\"value\"}}";
+    var formData = FormDataInputWrapperDto.builder().key("key")
+        .formData(FormDataDto.builder().data(new LinkedHashMap<>(Map.of("field", "value"))).build())
+        .build();
+
+    fingerprintingFormDataRepository.putFormData(formData);
+    fingerprintingFormDataRepository.putFormData(formData);
+
+    verify(cephService, times(1)).put(BUCKET, "key", content);
+    assertThat(storage).containsKeys("key", "key~fingerprint");
+    assertThat(meterRegistry.get("form.data.storage.fingerprint.writes.skipped").counter().count())
+        .isEqualTo(1.0);
+    assertThat(meterRegistry.get("form.data.storage.fingerprint.bytes.written").counter().count())
+        .isEqualTo(content.length());
+
+    formData.getFormData().getData().put("field", "changed");
+    fingerprintingFormDataRepository.putFormData(formData);
+    assertThat(fingerprintingFormDataRepository.getFormData("key")).contains(formData.getFormData());
+
+    fingerprintingFormDataRepository.delete(Set.of("key"));
+    assertThat(storage).isEmpty();
+  }
+
+  @Test
+  void shouldNotSkipPutAfterFormDataWasWrittenWithFilterDisabled() {
+    var fingerprintingFormDataRepository = CephFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .cephBucketName(BUCKET)
+        .cephService(cephService)
+        .fingerprintFilter(new FingerprintWriteFilter("ceph", new SimpleMeterRegistry()))
+        .build();
+    var first = FormDataInputWrapperDto.builder().key("key")
+        .formData(FormDataDto.builder().data(new LinkedHashMap<>(Map.of("field", "a"))).build())
+        .build();
+    var second = FormDataInputWrapperDto.builder().key("key")
+        .formData(FormDataDto.builder().data(new LinkedHashMap<>(Map.of("field", "b"))).build())
+        .build();
+
+    fingerprintingFormDataRepository.putFormData(first);
+    newRepository(null).putFormData(second);
+    fingerprintingFormDataRepository.putFormData(first);
+
+    assertThat(newRepository(null).getFormData("key")).contains(first.getFormData());
+    assertThat(storage).containsKeys("key", "key~fingerprint");
+  }
+}
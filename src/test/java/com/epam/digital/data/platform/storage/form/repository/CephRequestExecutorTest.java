@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.storage.form.config.CephClientConfiguration;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CephRequestExecutorTest {
+
+  private CephClientConfiguration configuration;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void init() {
+    configuration = new CephClientConfiguration();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldRejectRequestIfNoConnectionAvailable() {
+    configuration.setMaxConnections(1);
+    configuration.setConnectionAcquisitionTimeout(Duration.ofMillis(10));
+    var executor = new CephRequestExecutor(configuration, meterRegistry, "bucket");
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var worker = new Thread(() -> executor.execute(() -> {
+      started.countDown();
+      awaitQuietly(release);
+      return null;
+    }));
+    worker.start();
+    started.await();
+
+    assertThat(meterRegistry.get("form.data.storage.ceph.connections.active").gauge().value())
+        .isEqualTo(1.0);
+    assertThrows(FormDataRepositoryCommunicationException.class,
+        () -> executor.execute(() -> "result"));
+    assertThat(meterRegistry.get("form.data.storage.ceph.connections.rejected").counter().count())
+        .isEqualTo(1.0);
+
+    release.countDown();
+    worker.join();
+  }
+
+  @SneakyThrows
+  private static void awaitQuietly(CountDownLatch latch) {
+    latch.await();
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCommunicationException;
+import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingFormDataRepositoryTest {
+
+  @Mock
+  private FormDataRepository<CephKeysSearchParams> delegate;
+  private SimpleMeterRegistry meterRegistry;
+  private ExecutorService executor;
+  private CoalescingFormDataRepository<CephKeysSearchParams> repository;
+
+  @BeforeEach
+  void init() {
+    meterRegistry = new SimpleMeterRegistry();
+    executor = Executors.newCachedThreadPool();
+    repository = new CoalescingFormDataRepository<>(delegate, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldShareInFlightReadOfSameKey() {
+    var data = new LinkedHashMap<String, Object>();
+    data.put("name", "value");
+    var formData = FormDataDto.builder().data(data).build();
+    var release = new CountDownLatch(1);
+    when(delegate.getFormData("key")).thenAnswer(invocation -> {
+      release.await();
+      return Optional.of(formData);
+    });
+
+    var leader = CompletableFuture.supplyAsync(() -> repository.getFormData("key"), executor);
+    awaitInFlight();
+    var follower = CompletableFuture.supplyAsync(() -> repository.getFormData("key"), executor);
+    awaitCoalesced();
+    release.countDown();
+
+    assertThat(leader.join()).containsSame(formData);
+    var coalesced = follower.join().orElseThrow();
+    assertThat(coalesced).isEqualTo(formData).isNotSameAs(formData);
+    assertThat(coalesced.getData()).isNotSameAs(data);
+    verify(delegate).getFormData("key");
+  }
+
+  @Test
+  void shouldPropagateLeaderFailureToWaiters() {
+    var release = new CountDownLatch(1);
+    when(delegate.getFormData("key")).thenAnswer(invocation -> {
+      release.await();
+      throw new FormDataRepositoryCommunicationException("failed", null);
+    });
+
+    var leader = CompletableFuture.supplyAsync(() -> repository.getFormData("key"), executor);
+    awaitInFlight();
+    var follower = CompletableFuture.supplyAsync(() -> repository.getFormData("key"), executor);
+    awaitCoalesced();
+    release.countDown();
+
+    var leaderFailure = assertThrows(RuntimeException.class, leader::join);
+    var followerFailure = assertThrows(RuntimeException.class, follower::join);
+    assertThat(leaderFailure).hasCauseInstanceOf(FormDataRepositoryCommunicationException.class);
+    assertThat(followerFailure).hasCauseInstanceOf(FormDataRepositoryCommunicationException.class);
+    verify(delegate).getFormData("key");
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldNotServeReadsStartedAfterWriteWithInFlightRead() {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    when(delegate.getFormData("key")).thenAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return Optional.empty();
+    }).thenReturn(Optional.of(new FormDataDto()));
+
+    var leader = CompletableFuture.supplyAsync(() -> repository.getFormData("key"), executor);
+    started.await();
+    repository.putFormData(FormDataInputWrapperDto.builder().key("key").build());
+
+    assertThat(repository.getFormData("key")).isPresent();
+    release.countDown();
+    assertThat(leader.join()).isEmpty();
+    verify(delegate, times(2)).getFormData("key");
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldNotServeReadsStartedAfterWriteWithReadStartedDuringWrite() {
+    var writeStarted = new CountDownLatch(1);
+    var releaseWrite = new CountDownLatch(1);
+    var readStarted = new CountDownLatch(1);
+    var releaseRead = new CountDownLatch(1);
+    var written = new FormDataDto();
+    doAnswer(invocation -> {
+      writeStarted.countDown();
+      releaseWrite.await();
+      return null;
+    }).when(delegate).putFormData(any());
+    when(delegate.getFormData("key")).thenAnswer(invocation -> {
+      readStarted.countDown();
+      releaseRead.await();
+      return Optional.empty();
+    }).thenReturn(Optional.of(written));
+
+    var write = CompletableFuture.runAsync(
+        () -> repository.putFormData(FormDataInputWrapperDto.builder().key("key").build()),
+        executor);
+    writeStarted.await();
+    var readDuringWrite = CompletableFuture.supplyAsync(() -> repository.getFormData("key"),
+        executor);
+    readStarted.await();
+    releaseWrite.countDown();
+    write.join();
+
+    var readAfterWrite = CompletableFuture.supplyAsync(() -> repository.getFormData("key"),
+        executor);
+    assertThat(readAfterWrite.get(5, TimeUnit.SECONDS)).containsSame(written);
+    releaseRead.countDown();
+    assertThat(readDuringWrite.join()).isEmpty();
+    verify(delegate, times(2)).getFormData("key");
+  }
+
+  @SneakyThrows
+  private void awaitInFlight() {
+    while (meterRegistry.get("form.data.storage.coalescing.in-flight").gauge().value() < 1) {
+      Thread.sleep(1);
+    }
+  }
+
+  @SneakyThrows
+  private void awaitCoalesced() {
+    while (meterRegistry.get("form.data.storage.coalescing.coalesced").counter().count() < 1) {
+      Thread.sleep(1);
+    }
+  }
+}
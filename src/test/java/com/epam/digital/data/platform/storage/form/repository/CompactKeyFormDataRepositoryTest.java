@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.service.CompactFormDataKeyCodec;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+class CompactKeyFormDataRepositoryTest {
+
+  private static final String PROCESS_INSTANCE_ID = "5a1d3c2e-7f41-4b8e-9a0d-2c6e8f1b3d57";
+  private static final String KEY = "process/" + PROCESS_INSTANCE_ID + "/task/Activity_0x7k2ha";
+
+  private static RedisServer redisServer;
+  private static RedisTemplate<String, Object> redisTemplate;
+
+  @TempDir
+  Path directory;
+  private LocalFormDataRepository delegate;
+  private FormDataKeyProviderImpl keyProvider;
+
+  @BeforeAll
+  static void setUp() {
+    redisServer = new RedisServer(1501);
+    redisServer.start();
+    var clientConfiguration = LettuceClientConfiguration.builder()
+        .clientOptions(ClientOptions.builder().autoReconnect(false).build())
+        .build();
+    var cf = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 1501),
+        clientConfiguration);
+    cf.afterPropertiesSet();
+    redisTemplate = new RedisTemplate<>();
+    redisTemplate.setConnectionFactory(cf);
+    redisTemplate.setKeySerializer(new StringRedisSerializer());
+    redisTemplate.setValueSerializer(new StringRedisSerializer());
+    redisTemplate.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void tearDown() throws IOException {
+    redisServer.stop();
+  }
+
+  @BeforeEach
+  void init() {
+    var configuration = new LocalStorageConfiguration();
+    configuration.setDirectory(directory.toString());
+    delegate = new LocalFormDataRepository(configuration, new ObjectMapper());
+    keyProvider = newKeyProvider();
+  }
+
+  @AfterEach
+  void close() {
+    delegate.close();
+  }
+
+  @Test
+  void shouldEncodeKeysReversibly() {
+    var keys = Set.of(KEY, KEY + "~signature", KEY + "~revisions/3",
+        keyProvider.generateSystemSignatureKey(PROCESS_INSTANCE_ID,
+            "0b7e4f2a-1c3d-4e5f-8a9b-0c1d2e3f4a5b"),
+        keyProvider.generateBatchSystemSignatureKey(PROCESS_INSTANCE_ID, 12));
+
+    for (var key : keys) {
+      var compactKey = keyProvider.toCompactKey(key);
+      assertThat(CompactFormDataKeyCodec.isCompactKey(compactKey)).isTrue();
+      assertThat(compactKey.length()).isLessThan(key.length() / 2 + 10);
+      assertThat(keyProvider.fromCompactKey(compactKey)).isEqualTo(key);
+      assertThat(newKeyProvider().fromCompactKey(compactKey)).isEqualTo(key);
+    }
+    assertThat(keyProvider.toCompactKey(KEY + "~signature"))
+        .isEqualTo(keyProvider.toCompactKey(KEY) + "~signature");
+  }
+
+  @Test
+  void shouldKeepKeysWithoutCompactForm() {
+    var keys = Set.of(keyProvider.generateStartFormKey("definition", PROCESS_INSTANCE_ID),
+        keyProvider.generateKeyForExternalSystem("definition", PROCESS_INSTANCE_ID),
+        "process/1/task/a", "~t-not-compact");
+
+    for (var key : keys) {
+      assertThat(keyProvider.fromCompactKey(keyProvider.toCompactKey(key))).isEqualTo(key);
+    }
+  }
+
+  @Test
+  void shouldStoreFormsUnderCompactKeys() {
+    var repository = new CompactKeyFormDataRepository<LocalKeysSearchParams>(delegate,
+        keyProvider, true);
+
+    repository.putFormData(input(KEY));
+
+    assertThat(delegate.getFormData(KEY)).isEmpty();
+    assertThat(delegate.getFormData(keyProvider.toCompactKey(KEY))).isPresent();
+    assertThat(repository.getFormData(KEY).get().getData()).isEqualTo(data());
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId(PROCESS_INSTANCE_ID).build()))
+        .containsExactly(KEY);
+
+    repository.delete(Set.of(KEY));
+
+    assertThat(repository.getFormData(KEY)).isEmpty();
+  }
+
+  @Test
+  void shouldReadAndMigrateLegacyKeysDuringMigration() {
+    var repository = new CompactKeyFormDataRepository<LocalKeysSearchParams>(delegate,
+        keyProvider, true);
+    delegate.putFormData(input(KEY));
+
+    assertThat(repository.getFormData(KEY).get().getData()).isEqualTo(data());
+
+    repository.putFormData(input(KEY));
+
+    assertThat(delegate.getFormData(KEY)).isEmpty();
+    assertThat(repository.getFormData(KEY).get().getData()).isEqualTo(data());
+  }
+
+  @Test
+  void shouldNotDeleteLegacyKeysOfFormsNotReadFromThem() {
+    var spiedDelegate = spy(delegate);
+    var repository = new CompactKeyFormDataRepository<LocalKeysSearchParams>(spiedDelegate,
+        keyProvider, true);
+
+    repository.putFormData(input(KEY));
+    repository.getFormData(KEY);
+    repository.putFormData(input(KEY));
+
+    verify(spiedDelegate, never()).delete(any());
+  }
+
+  @Test
+  void shouldDeleteLegacyKeysDuringMigration() {
+    var repository = new CompactKeyFormDataRepository<LocalKeysSearchParams>(delegate,
+        keyProvider, true);
+    delegate.putFormData(input(KEY));
+
+    repository.delete(Set.of(KEY));
+
+    assertThat(delegate.getFormData(KEY)).isEmpty();
+    assertThat(repository.getFormData(KEY)).isEmpty();
+  }
+
+  @Test
+  void shouldNotReadLegacyKeysWithoutFallback() {
+    var repository = new CompactKeyFormDataRepository<LocalKeysSearchParams>(delegate,
+        keyProvider, false);
+    delegate.putFormData(input(KEY));
+
+    assertThat(repository.getFormData(KEY)).isEmpty();
+  }
+
+  @Test
+  void shouldNotInternKeyComponentsOnReadsAndDeletions() {
+    var task = "Activity_" + UUID.randomUUID().toString().replace("-", "");
+    var key = "process/" + PROCESS_INSTANCE_ID + "/task/" + task;
+    var repository = new CompactKeyFormDataRepository<LocalKeysSearchParams>(delegate,
+        keyProvider, true);
+    delegate.putFormData(input(key));
+
+    assertThat(repository.getFormData(key).get().getData()).isEqualTo(data());
+    assertThat(repository.getSignature(key)).isEmpty();
+    assertThat(repository.getRevisions(key)).isEmpty();
+    repository.delete(Set.of(key));
+
+    assertThat(delegate.getFormData(key)).isEmpty();
+    assertThat(new RedisFormDataKeyInterner(redisTemplate, null).lookup(task)).isEmpty();
+  }
+
+  @Test
+  void shouldCountLegacyKeys() {
+    var legacyKeys = List.of(KEY, keyProvider.generateBatchSystemSignatureKey(
+        PROCESS_INSTANCE_ID, 1));
+    var otherKeys = List.of(keyProvider.toCompactKey(KEY),
+        keyProvider.generateStartFormKey("definition", PROCESS_INSTANCE_ID));
+    FormDataKeyScanner scanner = (cursor, count) -> FormDataKeyPage.builder()
+        .keys(Objects.isNull(cursor) ? legacyKeys : otherKeys)
+        .cursor(Objects.isNull(cursor) ? "1" : null)
+        .build();
+
+    assertThat(CompactKeyFormDataRepository.countLegacyKeys(scanner, 10)).isEqualTo(2);
+  }
+
+  private static FormDataKeyProviderImpl newKeyProvider() {
+    return new FormDataKeyProviderImpl(new CompactFormDataKeyCodec(
+        new RedisFormDataKeyInterner(redisTemplate, null)));
+  }
+
+  private static FormDataInputWrapperDto input(String key) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(PROCESS_INSTANCE_ID)
+        .formData(FormDataDto.builder().data(data()).build())
+        .build();
+  }
+
+  private static LinkedHashMap<String, Object> data() {
+    return new LinkedHashMap<>(Map.of("field", "value"));
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.storage.form.config.CompressionConfiguration;
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompressingFormDataRepositoryTest {
+
+  private static final int TRAINING_SAMPLES = 100;
+
+  @TempDir
+  Path directory;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final CompressionConfiguration compressionConfiguration =
+      new CompressionConfiguration();
+  private LocalFormDataRepository delegate;
+  private CompressingFormDataRepository<LocalKeysSearchParams> repository;
+
+  @BeforeEach
+  void init() {
+    var configuration = new LocalStorageConfiguration();
+    configuration.setDirectory(directory.toString());
+    delegate = new LocalFormDataRepository(configuration, objectMapper);
+    compressionConfiguration.setTrainingSamples(TRAINING_SAMPLES);
+    compressionConfiguration.setDictionarySize(4 * 1024);
+    repository = new CompressingFormDataRepository<>(delegate, compressionConfiguration,
+        objectMapper);
+  }
+
+  @AfterEach
+  void tearDown() {
+    delegate.close();
+  }
+
+  @Test
+  void shouldCompressWithoutDictionaryUntilTrained() {
+    var key = "process/1/task/approve";
+    var form = form(1);
+
+    repository.putFormData(input(key, form));
+
+    var stored = (String) delegate.getFormData(key).get().getData()
+        .get(CompressingFormDataRepository.COMPRESSED_DATA_FIELD);
+    assertThat(stored).startsWith("0:");
+    assertThat(repository.getFormData(key)).contains(form);
+  }
+
+  @Test
+  void shouldCompressSmallFormsWithTrainedDictionary() throws Exception {
+    for (var i = 0; i < TRAINING_SAMPLES; i++) {
+      repository.putFormData(input("process/" + i + "/task/approve", form(i)));
+    }
+    var key = "process/next/task/approve";
+    var form = form(TRAINING_SAMPLES);
+
+    repository.putFormData(input(key, form));
+
+    var stored = (String) delegate.getFormData(key).get().getData()
+        .get(CompressingFormDataRepository.COMPRESSED_DATA_FIELD);
+    assertThat(stored).doesNotStartWith("0:");
+    var withDictionary = stored.length() - stored.indexOf(':') - 1;
+    var withoutDictionary = Zstd.compress(objectMapper.writeValueAsBytes(form.getData()),
+        compressionConfiguration.getLevel()).length * 4 / 3;
+    assertThat(withDictionary * 3).isLessThan(withoutDictionary);
+    assertThat(repository.getFormData(key)).contains(form);
+    assertThat(repository.getFormData("process/0/task/approve")).contains(form(0));
+    assertThat(delegate.getKeysBySearchParams(LocalKeysSearchParams.builder()
+        .prefix(CompressingFormDataRepository.DICTIONARY_KEY_PREFIX + "task/approve").build()))
+        .hasSize(2);
+
+    var otherInstance = new CompressingFormDataRepository<>(delegate, compressionConfiguration,
+        objectMapper);
+    assertThat(otherInstance.getFormData(key)).contains(form);
+    otherInstance.putFormData(input("process/other/task/approve", form));
+    assertThat((String) delegate.getFormData("process/other/task/approve").get().getData()
+        .get(CompressingFormDataRepository.COMPRESSED_DATA_FIELD))
+        .startsWith(stored.substring(0, stored.indexOf(':') + 1));
+  }
+
+  @Test
+  void shouldTrainDictionaryInBackground() {
+    var trainings = new ArrayList<Runnable>();
+    var backgroundRepository = new CompressingFormDataRepository<>(delegate,
+        compressionConfiguration, objectMapper, trainings::add);
+    for (var i = 0; i < TRAINING_SAMPLES; i++) {
+      backgroundRepository.putFormData(input("process/" + i + "/task/approve", form(i)));
+    }
+    var key = "process/next/task/approve";
+
+    backgroundRepository.putFormData(input(key, form(TRAINING_SAMPLES)));
+
+    assertThat(trainings).hasSize(1);
+    assertThat((String) delegate.getFormData(key).get().getData()
+        .get(CompressingFormDataRepository.COMPRESSED_DATA_FIELD)).startsWith("0:");
+
+    trainings.get(0).run();
+    backgroundRepository.putFormData(input(key, form(TRAINING_SAMPLES)));
+
+    assertThat((String) delegate.getFormData(key).get().getData()
+        .get(CompressingFormDataRepository.COMPRESSED_DATA_FIELD)).doesNotStartWith("0:");
+    assertThat(backgroundRepository.getFormData(key)).contains(form(TRAINING_SAMPLES));
+  }
+
+  @Test
+  void shouldStopRetrainingAtMaxDictionaries() {
+    compressionConfiguration.setRetrainInterval(1);
+    compressionConfiguration.setMaxDictionaries(2);
+    for (var i = 0; i < TRAINING_SAMPLES * 4; i++) {
+      repository.putFormData(input("process/" + i + "/task/approve", form(i)));
+    }
+
+    // the current dictionary id and 2 dictionaries
+    assertThat(delegate.getKeysBySearchParams(LocalKeysSearchParams.builder()
+        .prefix(CompressingFormDataRepository.DICTIONARY_KEY_PREFIX + "task/approve").build()))
+        .hasSize(3);
+    assertThat(repository.getFormData("process/0/task/approve")).contains(form(0));
+    assertThat(repository.getFormData("process/399/task/approve")).contains(form(399));
+  }
+
+  @Test
+  void shouldReturnUncompressedDataAsIs() {
+    var key = "process/1/task/approve";
+    var small = FormDataDto.builder().data(new LinkedHashMap<>(Map.of("a", 1))).build();
+    delegate.putFormData(input("process/2/task/approve", form(2)));
+
+    repository.putFormData(input(key, small));
+
+    assertThat(delegate.getFormData(key)).contains(small);
+    assertThat(repository.getFormData(key)).contains(small);
+    assertThat(repository.getFormData("process/2/task/approve")).contains(form(2));
+  }
+
+  private FormDataDto form(int i) {
+    var data = new LinkedHashMap<String, Object>();
+    data.put("applicantFullName", "Applicant " + i);
+    data.put("applicantTaxpayerNumber", String.valueOf(1_000_000_000L + i * 7919L));
+    data.put("requestDate", "2024-0" + (i % 9 + 1) + "-1" + (i % 10));
+    data.put("requestStatus", i % 2 == 0 ? "APPROVED" : "REJECTED");
+    data.put("decisionComment", "Decision " + i + " was made according to the regulations");
+    data.put("addressRegion", Map.of("regionId", "region-" + (i % 24), "regionName",
+        "Region name " + (i % 24)));
+    data.put("attachments", List.of(Map.of("id", "file-" + i, "checksum", "sha-" + i)));
+    return FormDataDto.builder().data(data).accessToken("token").build();
+  }
+
+  private FormDataInputWrapperDto input(String key, FormDataDto formData) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .formData(formData)
+        .build();
+  }
+}
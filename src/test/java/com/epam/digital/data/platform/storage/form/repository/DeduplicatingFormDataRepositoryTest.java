@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeduplicatingFormDataRepositoryTest {
+
+  private static final String DOCUMENT = "d".repeat(32);
+
+  @Mock
+  private FormDataRepository<CephKeysSearchParams> delegate;
+  private final Map<String, FormDataDto> storage = new HashMap<>();
+  private final InMemoryContentBlobStore blobStore = new InMemoryContentBlobStore();
+  private FormDataRepository<CephKeysSearchParams> repository;
+
+  @BeforeEach
+  void init() {
+    lenient().doAnswer(invocation -> {
+      FormDataInputWrapperDto formData = invocation.getArgument(0);
+      storage.put(formData.getKey(), formData.getFormData());
+      return null;
+    }).when(delegate).putFormData(any());
+    lenient().doAnswer(invocation -> Optional.ofNullable(storage.get(invocation.getArgument(0))))
+        .when(delegate).getFormData(anyString());
+    lenient().doAnswer(invocation -> {
+      Set<String> keys = invocation.getArgument(0);
+      keys.forEach(storage::remove);
+      return null;
+    }).when(delegate).delete(any());
+    repository = new DeduplicatingFormDataRepository<>(delegate, blobStore, 32);
+  }
+
+  @Test
+  void shouldStoreLargeValuesOnceAndResolveThemOnRead() {
+    var first = formData(DOCUMENT);
+    var second = formData(DOCUMENT);
+
+    repository.putFormData(FormDataInputWrapperDto.builder().key("first").formData(first).build());
+    repository.putFormData(FormDataInputWrapperDto.builder().key("second").formData(second).build());
+
+    assertThat(blobStore.blobs).hasSize(1).containsValue(DOCUMENT);
+    var stored = (Map<?, ?>) ((List<?>) storage.get("first").getData().get("files")).get(0);
+    var hash = blobStore.blobs.keySet().iterator().next();
+    assertThat(stored.get("content"))
+        .isEqualTo(Map.of(DeduplicatingFormDataRepository.REFERENCE_PROPERTY, hash));
+    assertThat(storage.get("first").getData()).containsEntry("name", "small");
+    assertThat(repository.getFormData("first")).contains(formData(DOCUMENT));
+    assertThat(repository.getFormData("second")).contains(formData(DOCUMENT));
+  }
+
+  @Test
+  void shouldDeleteBlobsWithoutReferences() {
+    repository.putFormData(
+        FormDataInputWrapperDto.builder().key("first").formData(formData(DOCUMENT)).build());
+    repository.putFormData(
+        FormDataInputWrapperDto.builder().key("second").formData(formData(DOCUMENT)).build());
+
+    repository.delete(Set.of("first"));
+    assertThat(blobStore.blobs).hasSize(1);
+    assertThat(repository.getFormData("second")).contains(formData(DOCUMENT));
+
+    repository.putFormData(FormDataInputWrapperDto.builder().key("second")
+        .formData(formData("changed")).build());
+    assertThat(blobStore.blobs).isEmpty();
+    assertThat(repository.getFormData("second")).contains(formData("changed"));
+  }
+
+  @Test
+  void shouldFailReadIfBlobIsMissing() {
+    repository.putFormData(
+        FormDataInputWrapperDto.builder().key("first").formData(formData(DOCUMENT)).build());
+    blobStore.blobs.clear();
+
+    assertThrows(IllegalStateException.class, () -> repository.getFormData("first"));
+  }
+
+  private static FormDataDto formData(String content) {
+    var file = new LinkedHashMap<String, Object>();
+    file.put("content", content);
+    var data = new LinkedHashMap<String, Object>();
+    data.put("name", "small");
+    data.put("files", List.of(file));
+    return FormDataDto.builder().data(data).signature("signature").build();
+  }
+
+  private static class InMemoryContentBlobStore implements ContentBlobStore {
+
+    private final Map<String, String> blobs = new HashMap<>();
+    private final Map<String, Set<String>> blobReferences = new HashMap<>();
+    private final Map<String, Set<String>> formReferences = new HashMap<>();
+
+    @Override
+    public Set<String> getReferences(String formKey) {
+      return new HashSet<>(formReferences.getOrDefault(formKey, Set.of()));
+    }
+
+    @Override
+    public void retain(String formKey, Map<String, String> contents) {
+      contents.forEach((hash, content) -> {
+        formReferences.computeIfAbsent(formKey, key -> new HashSet<>()).add(hash);
+        blobReferences.computeIfAbsent(hash, key -> new HashSet<>()).add(formKey);
+        blobs.putIfAbsent(hash, content);
+      });
+    }
+
+    @Override
+    public void release(String formKey, Set<String> hashes) {
+      for (var hash : hashes) {
+        formReferences.getOrDefault(formKey, new HashSet<>()).remove(hash);
+        var references = blobReferences.getOrDefault(hash, new HashSet<>());
+        references.remove(formKey);
+        if (references.isEmpty()) {
+          blobs.remove(hash);
+        }
+      }
+    }
+
+    @Override
+    public Map<String, String> getBlobs(Collection<String> hashes) {
+      var result = new HashMap<String, String>();
+      hashes.stream().filter(blobs::containsKey).forEach(hash -> result.put(hash, blobs.get(hash)));
+      return result;
+    }
+  }
+}
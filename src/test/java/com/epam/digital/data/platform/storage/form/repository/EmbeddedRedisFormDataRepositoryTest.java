@@ -17,7 +17,12 @@
 
 package com.epam.digital.data.platform.storage.form.repository;
 
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataRedis;
 import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.model.StartFormKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.lettuce.core.ClientOptions;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -25,12 +30,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.RedisKeyValueTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.repository.support.RedisRepositoryFactory;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import redis.embedded.RedisServer;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -90,6 +103,166 @@ class EmbeddedRedisFormDataRepositoryTest {
                 "bpm-form-submissions:process-instance-id:1")));
   }
 
+  @Test
+  void shouldStreamKeysByProcessInstanceIdPageByPage() {
+    var expectedKeys = IntStream.range(0, 250)
+        .mapToObj(i -> "bpm-form-submissions:process/3/" + i)
+        .collect(Collectors.toSet());
+    expectedKeys.forEach(key -> redisTemplate.opsForSet()
+        .add("bpm-form-submissions:process-instance-id:3", key));
+    expectedKeys.add("bpm-form-submissions:process-instance-id:3");
+
+    var res = formDataRepository.streamKeysBySearchParams(
+            RedisKeysSearchParams.builder().processInstanceId("3").build(), 10)
+        .collect(Collectors.toSet());
+
+    assertThat(res).isEqualTo(expectedKeys);
+    redisTemplate.delete("bpm-form-submissions:process-instance-id:3");
+  }
+
+  @Test
+  void shouldBackfillIndexOfStartFormsStoredBeforeItOnce() {
+    redisTemplate.opsForSet().add("bpm-form-submissions",
+        "process-definition/backfilled/start-form/1", "process-definition/backfilled/start-form/2",
+        "process-definition/other/start-form/3", "process/1/task/start-form");
+    redisTemplate.opsForSet().add("bpm-form-submissions:process-definition-key:backfilled",
+        "process-definition/backfilled/start-form/4");
+    var repository = (RedisFormDataRepository) formDataRepository;
+
+    assertThat(repository.backfillStartFormKeySets()).isTrue();
+    assertThat(repository.backfillStartFormKeySets()).isFalse();
+
+    var page = formDataRepository.getStartFormKeys(StartFormKeysSearchParams.builder()
+        .processDefinitionKey("backfilled")
+        .prefix("process-definition/backfilled/start-form/")
+        .count(10)
+        .build());
+    assertThat(page.getKeys()).containsExactlyInAnyOrder(
+        "process-definition/backfilled/start-form/1", "process-definition/backfilled/start-form/2",
+        "process-definition/backfilled/start-form/4");
+    assertThat(page.getCursor()).isNull();
+    assertThat(redisTemplate.opsForSet()
+        .members("bpm-form-submissions:process-definition-key:other"))
+        .containsExactly("process-definition/other/start-form/3");
+
+    formDataRepository.delete(Set.of("bpm-form-submissions:process-definition/backfilled/start-form/1",
+        "process-definition/backfilled/start-form/2"));
+    assertThat(redisTemplate.opsForSet()
+        .members("bpm-form-submissions:process-definition-key:backfilled"))
+        .containsExactly("process-definition/backfilled/start-form/4");
+    redisTemplate.delete(Set.of("bpm-form-submissions",
+        "bpm-form-submissions:process-definition-key:backfilled",
+        "bpm-form-submissions:process-definition-key:other",
+        RedisFormDataRepository.START_FORM_INDEX_BACKFILLED_KEY));
+  }
+
+  @Test
+  void shouldSkipBackfillOfStartFormIndexLockedByAnotherNode() {
+    redisTemplate.opsForValue().set("bpm-form-submissions:start-form-index-backfill-lock", "other");
+
+    assertThat(((RedisFormDataRepository) formDataRepository).backfillStartFormKeySets())
+        .isFalse();
+    assertThat(redisTemplate.hasKey(RedisFormDataRepository.START_FORM_INDEX_BACKFILLED_KEY))
+        .isFalse();
+    redisTemplate.delete("bpm-form-submissions:start-form-index-backfill-lock");
+  }
+
+  @Test
+  void shouldStoreLargeFormDataInChunks() {
+    var keyValueTemplate = new RedisKeyValueTemplate(
+        new RedisKeyValueAdapter(redisTemplate), new RedisMappingContext());
+    var chunkingFormDataRepository = RedisFormDataRepository.builder()
+        .template(redisTemplate)
+        .repository(new RedisRepositoryFactory(keyValueTemplate)
+            .getRepository(FormDataKeyValueRepository.class))
+        .chunker(new RedisFormDataChunker(64, 16))
+        .objectMapper(new ObjectMapper())
+        .build();
+    var largeData = new LinkedHashMap<String, Object>(Map.of("field", "\u0457".repeat(100)));
+
+    chunkingFormDataRepository.putFormData(FormDataInputWrapperDto.builder()
+        .key("process/4/1")
+        .processInstanceId("4")
+        .formData(FormDataDto.builder().data(largeData).signature("signature").build())
+        .build());
+
+    assertThat(redisTemplate.opsForHash().hasKey("bpm-form-submissions:process/4/1", "data"))
+        .isFalse();
+    assertThat(redisTemplate.keys("bpm-form-submissions:process/4/1:chunk:*")).hasSize(14);
+    var formData = chunkingFormDataRepository.getFormData("process/4/1");
+    assertThat(formData).isPresent();
+    assertThat(formData.get().getData()).isEqualTo(largeData);
+    assertThat(formData.get().getSignature()).isEqualTo("signature");
+
+    var smallData = new LinkedHashMap<String, Object>(Map.of("field", "value"));
+    chunkingFormDataRepository.putFormData(FormDataInputWrapperDto.builder()
+        .key("process/4/1")
+        .processInstanceId("4")
+        .formData(FormDataDto.builder().data(smallData).build())
+        .build());
+
+    assertThat(redisTemplate.keys("bpm-form-submissions:process/4/1:chunk:*")).isEmpty();
+    assertThat(chunkingFormDataRepository.getFormData("process/4/1").get().getData())
+        .isEqualTo(smallData);
+
+    chunkingFormDataRepository.putFormData(FormDataInputWrapperDto.builder()
+        .key("process/4/1")
+        .processInstanceId("4")
+        .formData(FormDataDto.builder().data(largeData).build())
+        .build());
+    chunkingFormDataRepository.delete(chunkingFormDataRepository.getKeysBySearchParams(
+        RedisKeysSearchParams.builder().processInstanceId("4").build()));
+
+    assertThat(redisTemplate.keys("bpm-form-submissions:process/4/1*")).isEmpty();
+    redisTemplate.delete("bpm-form-submissions");
+  }
+
+  @Test
+  void shouldDeleteChunksReplacedByConcurrentWrites() {
+    var keyValueTemplate = new RedisKeyValueTemplate(
+        new RedisKeyValueAdapter(redisTemplate), new RedisMappingContext());
+    var keyValueRepository = new RedisRepositoryFactory(keyValueTemplate)
+        .getRepository(FormDataKeyValueRepository.class);
+    var chunker = new RedisFormDataChunker(64, 16);
+    var chunkingFormDataRepository = RedisFormDataRepository.builder()
+        .template(redisTemplate)
+        .repository(keyValueRepository)
+        .chunker(chunker)
+        .objectMapper(new ObjectMapper())
+        .build();
+    var largeData = new LinkedHashMap<String, Object>(Map.of("field", "\u0457".repeat(100)));
+    var hashKey = "bpm-form-submissions:process/5/1";
+
+    var putLargeData = (Runnable) () -> chunkingFormDataRepository.putFormData(
+        FormDataInputWrapperDto.builder()
+            .key("process/5/1")
+            .processInstanceId("5")
+            .formData(FormDataDto.builder().data(largeData).build())
+            .build());
+    putLargeData.run();
+
+    // the first writer reads the chunk references before the second one and saves after it
+    chunker.registerReferencedChunks(redisTemplate, hashKey);
+    var firstWrite = chunker.split(redisTemplate, FormDataRedis.builder()
+        .id("process/5/1")
+        .data("{\"field\":\"" + "x".repeat(100) + "\"}")
+        .build());
+    putLargeData.run();
+    keyValueRepository.save(firstWrite);
+    chunker.deleteUnreferencedChunks(redisTemplate, hashKey, firstWrite);
+
+    assertThat(redisTemplate.keys(hashKey + ":chunk:*")).hasSize(firstWrite.getChunkCount())
+        .allMatch(chunkKey -> chunkKey.contains(firstWrite.getChunkId()));
+    assertThat(chunkingFormDataRepository.getFormData("process/5/1").get().getData())
+        .isEqualTo(Map.of("field", "x".repeat(100)));
+
+    chunkingFormDataRepository.delete(chunkingFormDataRepository.getKeysBySearchParams(
+        RedisKeysSearchParams.builder().processInstanceId("5").build()));
+
+    assertThat(redisTemplate.keys(hashKey + "*")).isEmpty();
+    redisTemplate.delete("bpm-form-submissions");
+  }
+
   @Test
   void expectDeleteMethodRemoveAllPassedKeys() {
     redisTemplate.opsForValue().set("bpm-form-submissions:process/1/1", "foo");
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.storage.form.config.HedgingConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.model.CephKeysSearchParams;
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.Tracer.SpanInScope;
+
+@ExtendWith(MockitoExtension.class)
+class HedgingFormDataRepositoryTest {
+
+  private static final FormDataDto PRIMARY = FormDataDto.builder().signature("primary").build();
+  private static final FormDataDto ALTERNATE = FormDataDto.builder().signature("alternate").build();
+
+  @Mock
+  private FormDataRepository<CephKeysSearchParams> primary;
+  @Mock
+  private FormDataRepository<CephKeysSearchParams> alternate;
+  @Mock
+  private Tracer tracer;
+  @Mock
+  private Span span;
+  @Mock
+  private SpanInScope spanInScope;
+  private HedgingConfiguration configuration;
+  private SimpleMeterRegistry meterRegistry;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void init() {
+    configuration = new HedgingConfiguration();
+    configuration.setMaxDelay(Duration.ofMillis(20));
+    configuration.setBudgetPercent(100);
+    meterRegistry = new SimpleMeterRegistry();
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldNotHedgeFastRead() {
+    when(primary.getFormData("key")).thenReturn(Optional.of(PRIMARY));
+
+    assertThat(newRepository().getFormData("key")).contains(PRIMARY);
+    verify(alternate, never()).getFormData("key");
+  }
+
+  @Test
+  void shouldUseAlternateResultIfPrimaryIsSlow() {
+    when(primary.getFormData("key")).thenAnswer(invocation -> {
+      Thread.sleep(1000);
+      return Optional.of(PRIMARY);
+    });
+    when(alternate.getFormData("key")).thenReturn(Optional.of(ALTERNATE));
+
+    assertThat(newRepository().getFormData("key")).contains(ALTERNATE);
+    assertThat(meterRegistry.get("form.data.storage.hedging.wins").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldNotHedgeReadCompletedWithinDelay() {
+    when(primary.getFormData("key")).thenReturn(Optional.of(PRIMARY));
+
+    assertThat(newRepository().getFormData("key")).contains(PRIMARY);
+    verify(alternate, after(100).never()).getFormData("key");
+  }
+
+  @Test
+  void shouldUseAlternateResultIfPrimaryIgnoresInterruption() {
+    var primaryReleased = new CountDownLatch(1);
+    when(primary.getFormData("key")).thenAnswer(invocation -> {
+      Uninterruptibles.awaitUninterruptibly(primaryReleased);
+      return Optional.of(PRIMARY);
+    });
+    when(alternate.getFormData("key")).thenReturn(Optional.of(ALTERNATE));
+
+    try {
+      assertThat(newRepository().getFormData("key")).contains(ALTERNATE);
+    } finally {
+      primaryReleased.countDown();
+    }
+  }
+
+  @Test
+  void shouldPropagateTracingSpanToHedgeWithoutInterruptingCaller() {
+    var hedgeThread = new AtomicReference<Thread>();
+    when(tracer.currentSpan()).thenReturn(span);
+    when(tracer.withSpan(span)).thenAnswer(invocation -> {
+      hedgeThread.set(Thread.currentThread());
+      return spanInScope;
+    });
+    when(primary.getFormData("key")).thenAnswer(invocation -> {
+      Thread.sleep(1000);
+      return Optional.of(PRIMARY);
+    });
+    when(alternate.getFormData("key")).thenReturn(Optional.of(ALTERNATE));
+    var repository = new HedgingFormDataRepository<>(primary, alternate, configuration, executor,
+        meterRegistry, tracer);
+
+    assertThat(repository.getFormData("key")).contains(ALTERNATE);
+    assertThat(hedgeThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+    verify(spanInScope, timeout(1000).atLeastOnce()).close();
+    assertThat(Thread.currentThread().isInterrupted()).isFalse();
+  }
+
+  @Test
+  void shouldWaitForPrimaryIfBudgetIsExhausted() {
+    configuration.setBudgetPercent(0);
+    when(primary.getFormData("key")).thenAnswer(invocation -> {
+      Thread.sleep(100);
+      return Optional.of(PRIMARY);
+    });
+
+    assertThat(newRepository().getFormData("key")).contains(PRIMARY);
+    verify(alternate, never()).getFormData("key");
+  }
+
+  @Test
+  void shouldFailIfBothReadsFail() {
+    when(primary.getFormData("key")).thenAnswer(invocation -> {
+      Thread.sleep(100);
+      throw new IllegalStateException("primary");
+    });
+    when(alternate.getFormData("key")).thenThrow(new IllegalStateException("alternate"));
+
+    var ex = assertThrows(IllegalStateException.class, () -> newRepository().getFormData("key"));
+    assertThat(ex.getMessage()).isEqualTo("primary");
+  }
+
+  @Test
+  void shouldAdaptDelayToObservedLatency() {
+    configuration.setWindow(10);
+    configuration.setMaxDelay(Duration.ofSeconds(1));
+    when(primary.getFormData("key")).thenReturn(Optional.of(PRIMARY));
+    var repository = newRepository();
+
+    for (var i = 0; i < 20; i++) {
+      repository.getFormData("key");
+    }
+
+    assertThat(repository.getDelayNanos()).isLessThan(Duration.ofSeconds(1).toNanos());
+  }
+
+  private HedgingFormDataRepository<CephKeysSearchParams> newRepository() {
+    return new HedgingFormDataRepository<>(primary, alternate, configuration, executor,
+        meterRegistry);
+  }
+}
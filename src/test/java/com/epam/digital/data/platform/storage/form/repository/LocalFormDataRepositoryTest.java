@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalFormDataRepositoryTest {
+
+  @TempDir
+  Path directory;
+  private LocalStorageConfiguration configuration;
+  private final List<LocalFormDataRepository> repositories = new ArrayList<>();
+
+  @BeforeEach
+  void init() {
+    configuration = new LocalStorageConfiguration();
+    configuration.setDirectory(directory.toString());
+    configuration.setSegmentSize(1024);
+  }
+
+  @AfterEach
+  void tearDown() {
+    repositories.forEach(LocalFormDataRepository::close);
+  }
+
+  @Test
+  void shouldPutGetAndSearchFormData() {
+    var repository = open();
+
+    repository.putFormData(input("process/1/task/a", "1", "a"));
+    repository.putFormData(input("process/1/task/b", "1", "b"));
+    repository.putFormData(input("process/2/task/a", "2", "c"));
+    repository.putFormData(input("lowcode_1_system_signature_ceph_key", null, "d"));
+
+    assertThat(repository.getFormData("process/1/task/b")).contains(formData("b"));
+    assertThat(repository.getFormData("process/3/task/a")).isEmpty();
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId("1").build()))
+        .containsExactlyInAnyOrder("process/1/task/a", "process/1/task/b");
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().prefix("lowcode_1").build()))
+        .containsExactly("lowcode_1_system_signature_ceph_key");
+  }
+
+  @Test
+  void shouldDeleteFormData() {
+    var repository = open();
+    repository.putFormData(input("process/1/task/a", "1", "a"));
+
+    repository.delete(Set.of("process/1/task/a", "unknown"));
+
+    assertThat(repository.getFormData("process/1/task/a")).isEmpty();
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId("1").build())).isEmpty();
+  }
+
+  @Test
+  void shouldRecoverIndexFromSegments() {
+    var repository = open();
+    for (var i = 0; i < 50; i++) {
+      repository.putFormData(input("process/1/task/" + i, "1", "value" + i));
+    }
+    repository.putFormData(input("process/1/task/0", null, "updated"));
+    repository.delete(Set.of("process/1/task/1"));
+    repository.close();
+
+    var recovered = open();
+
+    assertThat(recovered.getFormData("process/1/task/0")).contains(formData("updated"));
+    assertThat(recovered.getFormData("process/1/task/1")).isEmpty();
+    assertThat(recovered.getFormData("process/1/task/49")).contains(formData("value49"));
+    assertThat(recovered.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId("1").build())).hasSize(49);
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldDiscardTornRecordOnRecovery() {
+    var repository = open();
+    repository.putFormData(input("process/1/task/a", "1", "a"));
+    repository.close();
+    try (var file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+      var end = 8 + 9 + "process/1/task/a".length() + 1
+          + new ObjectMapper().writeValueAsBytes(formData("a")).length;
+      file.seek(end);
+      file.writeInt(100);
+      file.writeInt(12345);
+    }
+
+    var recovered = open();
+    recovered.putFormData(input("process/1/task/b", "1", "b"));
+    recovered.close();
+
+    var reopened = open();
+    assertThat(reopened.getFormData("process/1/task/a")).contains(formData("a"));
+    assertThat(reopened.getFormData("process/1/task/b")).contains(formData("b"));
+  }
+
+  @Test
+  void shouldCompactSegmentsWithStaleData() {
+    var repository = open();
+    for (var i = 0; i < 100; i++) {
+      repository.putFormData(input("process/1/task/a", "1", "value" + i));
+    }
+    repository.putFormData(input("process/1/task/b", "1", "b"));
+    repository.delete(Set.of("process/1/task/b"));
+    var segmentsBefore = segmentFiles().size();
+
+    repository.compact();
+
+    assertThat(segmentFiles()).hasSizeLessThan(segmentsBefore);
+    assertThat(repository.getFormData("process/1/task/a")).contains(formData("value99"));
+    repository.close();
+
+    var recovered = open();
+    assertThat(recovered.getFormData("process/1/task/a")).contains(formData("value99"));
+    assertThat(recovered.getFormData("process/1/task/b")).isEmpty();
+  }
+
+  private LocalFormDataRepository open() {
+    var repository = new LocalFormDataRepository(configuration, new ObjectMapper());
+    repositories.add(repository);
+    return repository;
+  }
+
+  @SneakyThrows
+  private List<Path> segmentFiles() {
+    try (var files = Files.list(directory)) {
+      return files.sorted().collect(Collectors.toList());
+    }
+  }
+
+  private FormDataInputWrapperDto input(String key, String processInstanceId, String value) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(processInstanceId)
+        .formData(formData(value))
+        .build();
+  }
+
+  private FormDataDto formData(String value) {
+    return FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("field", value)))
+        .build();
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.storage.form.config.OffHeapStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.OffHeapStorageConfiguration.OverflowPolicy;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryCapacityExceededException;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OffHeapFormDataRepositoryTest {
+
+  private OffHeapStorageConfiguration configuration;
+
+  @BeforeEach
+  void init() {
+    configuration = new OffHeapStorageConfiguration();
+    configuration.setCapacity(4 * 64);
+    configuration.setPageSize(64);
+    configuration.setSlabSize(128);
+  }
+
+  @Test
+  void shouldPutGetAndSearchFormData() {
+    var repository = new OffHeapFormDataRepository(configuration, new ObjectMapper());
+    var large = formData("x".repeat(100));
+
+    repository.putFormData(input("process/1/task/a", "1", large));
+    repository.putFormData(input("process/1/task/b", "1", formData("b")));
+
+    assertThat(repository.getFormData("process/1/task/a")).contains(large);
+    assertThat(repository.getFormData("process/1/task/b")).contains(formData("b"));
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId("1").build()))
+        .containsExactlyInAnyOrder("process/1/task/a", "process/1/task/b");
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().prefix("process/1/task/b").build()))
+        .containsExactly("process/1/task/b");
+  }
+
+  @Test
+  void shouldReleaseMemoryOnDelete() {
+    var repository = new OffHeapFormDataRepository(configuration, new ObjectMapper());
+    repository.putFormData(input("process/1/task/a", "1", formData("a")));
+
+    repository.delete(Set.of("process/1/task/a"));
+
+    assertThat(repository.getUsedBytes()).isZero();
+    assertThat(repository.getFormData("process/1/task/a")).isEmpty();
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId("1").build())).isEmpty();
+  }
+
+  @Test
+  void shouldRejectWriteOnOverflow() {
+    var repository = new OffHeapFormDataRepository(configuration, new ObjectMapper());
+    for (var i = 0; i < 4; i++) {
+      repository.putFormData(input("key" + i, null, formData("value")));
+    }
+
+    assertThrows(FormDataRepositoryCapacityExceededException.class,
+        () -> repository.putFormData(input("key4", null, formData("value"))));
+    repository.putFormData(input("key0", null, formData("updated")));
+    assertThat(repository.getFormData("key0")).contains(formData("updated"));
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedOnOverflow() {
+    configuration.setOverflowPolicy(OverflowPolicy.EVICT);
+    var repository = new OffHeapFormDataRepository(configuration, new ObjectMapper());
+    for (var i = 0; i < 4; i++) {
+      repository.putFormData(input("key" + i, null, formData("value")));
+    }
+    repository.getFormData("key0");
+
+    repository.putFormData(input("key4", null, formData("value")));
+
+    assertThat(repository.getFormData("key1")).isEmpty();
+    assertThat(repository.getFormData("key0")).isPresent();
+    assertThat(repository.getFormData("key4")).isPresent();
+  }
+
+  private FormDataInputWrapperDto input(String key, String processInstanceId,
+      FormDataDto formData) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId(processInstanceId)
+        .formData(formData)
+        .build();
+  }
+
+  private FormDataDto formData(String value) {
+    return FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("field", value)))
+        .build();
+  }
+}
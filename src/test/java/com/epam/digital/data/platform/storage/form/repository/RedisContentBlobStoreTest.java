@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
+import com.epam.digital.data.platform.storage.form.service.FormDataKeyProviderImpl;
+import com.epam.digital.data.platform.storage.form.service.RedisFormDataStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.RedisKeyValueTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.repository.support.RedisRepositoryFactory;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+class RedisContentBlobStoreTest {
+
+  private static final String DOCUMENT = "d".repeat(32);
+  private static final String BLOB_KEY_PATTERN = RedisContentBlobStore.KEY_PREFIX + ":*";
+
+  private static RedisServer redisServer;
+  private static LettuceConnectionFactory connectionFactory;
+  private static RedisTemplate<String, Object> redisTemplate;
+  private FormDataRepository<RedisKeysSearchParams> repository;
+
+  @BeforeAll
+  static void setUp() {
+    redisServer = new RedisServer(1502);
+    redisServer.start();
+    var clientConfiguration = LettuceClientConfiguration.builder()
+        .clientOptions(ClientOptions.builder().autoReconnect(false).build())
+        .build();
+    connectionFactory = new LettuceConnectionFactory(
+        new RedisStandaloneConfiguration("localhost", 1502), clientConfiguration);
+    connectionFactory.afterPropertiesSet();
+    redisTemplate = new RedisTemplate<>();
+    redisTemplate.setConnectionFactory(connectionFactory);
+    redisTemplate.setKeySerializer(new StringRedisSerializer());
+    redisTemplate.setValueSerializer(new StringRedisSerializer());
+    redisTemplate.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    connectionFactory.destroy();
+    redisServer.stop();
+  }
+
+  @BeforeEach
+  void init() {
+    var keyValueTemplate = new RedisKeyValueTemplate(
+        new RedisKeyValueAdapter(redisTemplate), new RedisMappingContext());
+    var redisRepository = RedisFormDataRepository.builder()
+        .repository(new RedisRepositoryFactory(keyValueTemplate)
+            .getRepository(FormDataKeyValueRepository.class))
+        .template(redisTemplate)
+        .objectMapper(new ObjectMapper())
+        .build();
+    repository = new DeduplicatingFormDataRepository<>(redisRepository,
+        new RedisContentBlobStore(redisTemplate, null), 32);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    redisTemplate.delete(redisTemplate.keys("*"));
+  }
+
+  @Test
+  void shouldKeepBlobWhileReferencedByAnyForm() {
+    repository.putFormData(input("process/1/task/first", DOCUMENT));
+    repository.putFormData(input("process/1/task/second", DOCUMENT));
+    assertThat(redisTemplate.keys(BLOB_KEY_PATTERN)).hasSize(4);
+
+    repository.putFormData(input("process/1/task/first", "changed"));
+    assertThat(repository.getFormData("process/1/task/second").get().getData())
+        .isEqualTo(data(DOCUMENT));
+
+    repository.putFormData(input("process/1/task/second", "changed"));
+    assertThat(redisTemplate.keys(BLOB_KEY_PATTERN)).isEmpty();
+    assertThat(repository.getFormData("process/1/task/second").get().getData())
+        .isEqualTo(data("changed"));
+  }
+
+  @Test
+  void shouldReleaseBlobsOfDeletedForms() {
+    repository.putFormData(input("process/1/task/first", DOCUMENT));
+    repository.putFormData(input("process/1/task/second", DOCUMENT));
+
+    repository.delete(Set.of("process/1/task/first", "process/1/task/second"));
+
+    assertThat(redisTemplate.keys(BLOB_KEY_PATTERN)).isEmpty();
+  }
+
+  @Test
+  void shouldReleaseBlobsOnDeleteByProcessInstance() {
+    var storageService = RedisFormDataStorageService.builder()
+        .repository(repository)
+        .keyProvider(new FormDataKeyProviderImpl())
+        .build();
+    storageService.putFormData("first", "1", FormDataDto.builder().data(data(DOCUMENT)).build());
+    storageService.putFormData("second", "1", FormDataDto.builder().data(data(DOCUMENT)).build());
+    storageService.putFormData("first", "2", FormDataDto.builder().data(data(DOCUMENT)).build());
+
+    storageService.deleteByProcessInstance("1");
+
+    assertThat(storageService.getFormData("first", "1")).isEmpty();
+    assertThat(storageService.getFormData("first", "2").get().getData())
+        .isEqualTo(data(DOCUMENT));
+
+    storageService.deleteByProcessInstance("2");
+
+    assertThat(redisTemplate.keys(BLOB_KEY_PATTERN)).isEmpty();
+  }
+
+  private static FormDataInputWrapperDto input(String key, String content) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId("1")
+        .formData(FormDataDto.builder().data(data(content)).build())
+        .build();
+  }
+
+  private static LinkedHashMap<String, Object> data(String content) {
+    var file = new LinkedHashMap<String, Object>();
+    file.put("content", content);
+    return new LinkedHashMap<>(Map.of("files", List.of(file)));
+  }
+}
@@ -19,6 +19,8 @@ package com.epam.digital.data.platform.storage.form.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +30,9 @@ import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryC
 import com.epam.digital.data.platform.storage.form.model.FormDataRedis;
 import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -37,7 +42,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
 
 @ExtendWith(MockitoExtension.class)
 class RedisFormDataRepositoryTest {
@@ -46,6 +53,12 @@ class RedisFormDataRepositoryTest {
   private FormDataKeyValueRepository repository;
   @Mock
   private RedisTemplate<String, Object> template;
+  @Mock
+  private FormDataKeyValueRepository replicaRepository;
+  @Mock
+  private RedisTemplate<String, Object> replicaTemplate;
+  @Mock
+  private SetOperations<String, Object> setOperations;
   private FormDataRepository<RedisKeysSearchParams> formDataRepository;
 
   @BeforeEach
@@ -125,4 +138,121 @@ class RedisFormDataRepositoryTest {
     assertThat(result).isPresent();
     assertThat(result.get().getSignature()).isEqualTo("signature");
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldReadFromReplicaAndFallbackToMasterOnMiss() {
+    var replicaFormDataRepository = RedisFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .template(template)
+        .repository(repository)
+        .replicaRepository(replicaRepository)
+        .build();
+    var formData = FormDataRedis.builder().signature("signature").id("key").build();
+
+    when(replicaRepository.findById("key")).thenReturn(Optional.empty());
+    when(repository.findById("key")).thenReturn(Optional.of(formData));
+
+    var result = replicaFormDataRepository.getFormData("key");
+
+    assertThat(result).isPresent();
+    assertThat(result.get().getSignature()).isEqualTo("signature");
+    verify(replicaRepository).findById("key");
+  }
+
+  @Test
+  void shouldReadProcessInstanceKeysFromMaster() {
+    var replicaFormDataRepository = RedisFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .template(template)
+        .repository(repository)
+        .replicaRepository(replicaRepository)
+        .replicaTemplate(replicaTemplate)
+        .build();
+    when(template.opsForSet()).thenReturn(setOperations);
+    when(setOperations.members("bpm-form-submissions:process-instance-id:1"))
+        .thenReturn(Set.of("bpm-form-submissions:process/1/task/a",
+            "bpm-form-submissions:process/1/task/b"));
+
+    var keys = replicaFormDataRepository.getKeysBySearchParams(
+        RedisKeysSearchParams.builder().processInstanceId("1").build());
+
+    assertThat(keys).containsExactlyInAnyOrder("bpm-form-submissions:process/1/task/a",
+        "bpm-form-submissions:process/1/task/b", "bpm-form-submissions:process-instance-id:1");
+    verify(replicaTemplate, never()).opsForSet();
+  }
+
+  @Test
+  void shouldReadFromMasterWithinReadYourWritesWindow() {
+    var replicaFormDataRepository = RedisFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .template(template)
+        .repository(repository)
+        .replicaRepository(replicaRepository)
+        .readYourWritesFence(new ReadYourWritesFence(Duration.ofMinutes(1)))
+        .build();
+    var formDataDto = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("testField", "testValue")))
+        .build();
+    var formData = FormDataRedis.builder().data("{\"testField\":\"testValue\"}").id("key").build();
+
+    replicaFormDataRepository.putFormData(
+        FormDataInputWrapperDto.builder().key("key").formData(formDataDto).build());
+    when(repository.findById("key")).thenReturn(Optional.of(formData));
+
+    var result = replicaFormDataRepository.getFormData("key");
+
+    assertThat(result).isPresent();
+    verify(replicaRepository, never()).findById(any());
+  }
+
+  @Test
+  void shouldSkipPutOfUnchangedFormData() {
+    var meterRegistry = new SimpleMeterRegistry();
+    var fingerprintFilter = new FingerprintWriteFilter("redis", meterRegistry);
+    var fingerprintingFormDataRepository = RedisFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .template(template)
+        .repository(repository)
+        .fingerprintFilter(fingerprintFilter)
+        .build();
+    var data = "{\"testField\":\"testValue\"}";
+    var formDataDto = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("testField", "testValue")))
+        .build();
+    when(template.execute(any(RedisCallback.class))).thenReturn(
+        fingerprintFilter.fingerprint(data, null, null).getBytes(StandardCharsets.UTF_8));
+
+    fingerprintingFormDataRepository.putFormData(
+        FormDataInputWrapperDto.builder().key("key").formData(formDataDto).build());
+
+    verify(repository, never()).save(any());
+    assertThat(meterRegistry.get("form.data.storage.fingerprint.bytes.skipped").counter().count())
+        .isEqualTo(data.length());
+  }
+
+  @Test
+  void shouldStoreFingerprintWithChangedFormData() {
+    var fingerprintFilter = new FingerprintWriteFilter("redis", new SimpleMeterRegistry());
+    var fingerprintingFormDataRepository = RedisFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .template(template)
+        .repository(repository)
+        .fingerprintFilter(fingerprintFilter)
+        .build();
+    var formDataDto = FormDataDto.builder()
+        .data(new LinkedHashMap<>(Map.of("testField", "testValue")))
+        .build();
+    when(template.execute(any(RedisCallback.class))).thenReturn(
+        "outdated".getBytes(StandardCharsets.UTF_8));
+
+    fingerprintingFormDataRepository.putFormData(
+        FormDataInputWrapperDto.builder().key("key").formData(formDataDto).build());
+
+    var data = "{\"testField\":\"testValue\"}";
+    verify(repository).save(FormDataRedis.builder()
+        .id("key")
+        .data(data)
+        .fingerprint(fingerprintFilter.fingerprint(data, null, null))
+        .build());
+  }
+}
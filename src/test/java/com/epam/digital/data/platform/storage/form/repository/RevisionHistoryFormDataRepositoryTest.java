@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.config.RevisionHistoryConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RevisionHistoryFormDataRepositoryTest {
+
+  private static final String KEY = "process/1/task/a";
+
+  @TempDir
+  Path directory;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final RevisionHistoryConfiguration historyConfiguration =
+      new RevisionHistoryConfiguration();
+  private LocalFormDataRepository delegate;
+  private RevisionHistoryFormDataRepository<LocalKeysSearchParams> repository;
+
+  @BeforeEach
+  void init() {
+    var configuration = new LocalStorageConfiguration();
+    configuration.setDirectory(directory.toString());
+    delegate = new LocalFormDataRepository(configuration, objectMapper);
+    repository = new RevisionHistoryFormDataRepository<>(delegate, historyConfiguration,
+        objectMapper);
+  }
+
+  @AfterEach
+  void tearDown() {
+    delegate.close();
+  }
+
+  @Test
+  void shouldRebuildPreviousRevisionsFromDeltas() {
+    var first = form(Map.of("name", "first", "rows", List.of("a", "b")), null);
+    var second = form(Map.of("name", "second", "rows", List.of("a", "b", "c")), null);
+    var third = form(Map.of("rows", List.of("a")), "signature");
+
+    repository.putFormData(input(first));
+    repository.putFormData(input(second));
+    repository.putFormData(input(third));
+
+    assertThat(repository.getRevisions(KEY)).containsExactly(1, 2, 3);
+    assertThat(repository.getFormData(KEY)).contains(third);
+    assertThat(repository.getFormDataRevision(KEY, 3)).contains(third);
+    assertThat(repository.getFormDataRevision(KEY, 2)).contains(second);
+    assertThat(repository.getFormDataRevision(KEY, 1)).contains(first);
+    assertThat(repository.getFormDataRevision(KEY, 4)).isEmpty();
+  }
+
+  @Test
+  void shouldStoreOnlyChangesOfPreviousRevisions() {
+    var data = new LinkedHashMap<String, Object>();
+    data.put("document", "x".repeat(10_000));
+    data.put("status", "draft");
+    repository.putFormData(input(form(data, null)));
+    var changed = new LinkedHashMap<>(data);
+    changed.put("status", "approved");
+
+    repository.putFormData(input(form(changed, null)));
+
+    var delta = delegate.getFormData(KEY + "~revisions/1").get();
+    assertThat(objectMapper.valueToTree(delta.getData()).toString()).hasSizeLessThan(200)
+        .contains("draft");
+    assertThat(repository.getFormDataRevision(KEY, 1).get().getData()).isEqualTo(data);
+  }
+
+  @Test
+  void shouldNotCreateRevisionOfUnchangedForm() {
+    repository.putFormData(input(form(Map.of("name", "first"), null)));
+    repository.putFormData(input(form(Map.of("name", "first"), null)));
+
+    assertThat(repository.getRevisions(KEY)).containsExactly(1);
+  }
+
+  @Test
+  void shouldDropOldestRevisionsOverLimits() {
+    historyConfiguration.setMaxRevisions(2);
+    for (var i = 1; i <= 5; i++) {
+      repository.putFormData(input(form(Map.of("version", i), null)));
+    }
+
+    assertThat(repository.getRevisions(KEY)).containsExactly(3, 4, 5);
+    assertThat(delegate.getFormData(KEY + "~revisions/2")).isEmpty();
+    assertThat(repository.getFormDataRevision(KEY, 3).get().getData())
+        .containsEntry("version", 3);
+
+    historyConfiguration.setMaxBytes(1);
+    repository.putFormData(input(form(Map.of("version", 6), null)));
+
+    assertThat(repository.getRevisions(KEY)).containsExactly(6);
+  }
+
+  @Test
+  void shouldRestartHistoryIfFormWasWrittenWithoutIt() {
+    repository.putFormData(input(form(Map.of("version", 1), null)));
+    repository.putFormData(input(form(Map.of("version", 2), null)));
+    delegate.putFormData(input(form(Map.of("version", 3), null)));
+
+    assertThat(repository.getFormDataRevision(KEY, 1)).isEmpty();
+
+    repository.putFormData(input(form(Map.of("version", 4), null)));
+
+    assertThat(repository.getRevisions(KEY)).containsExactly(3, 4);
+    assertThat(repository.getFormDataRevision(KEY, 3).get().getData())
+        .containsEntry("version", 3);
+    assertThat(repository.getFormDataRevision(KEY, 1)).isEmpty();
+    assertThat(delegate.getFormData(KEY + "~revisions/1")).isPresent();
+
+    repository.delete(Set.of(KEY));
+
+    assertThat(delegate.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().prefix("process/1/").build())).isEmpty();
+  }
+
+  @Test
+  void shouldDeleteHistoryOfFormsWithConcurrentIndexReads() {
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var concurrentRepository = new RevisionHistoryFormDataRepository<>(delegate,
+          historyConfiguration, objectMapper, executor);
+      var keys = new HashSet<String>();
+      for (var i = 0; i < 5; i++) {
+        var key = "process/1/task/" + i;
+        keys.add(key);
+        concurrentRepository.putFormData(input(key, form(Map.of("version", 1), null)));
+        concurrentRepository.putFormData(input(key, form(Map.of("version", 2), null)));
+      }
+
+      concurrentRepository.delete(keys);
+
+      assertThat(delegate.getKeysBySearchParams(
+          LocalKeysSearchParams.builder().prefix("process/1/").build())).isEmpty();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void shouldDeleteHistoryWithForm() {
+    repository.putFormData(input(form(Map.of("version", 1), null)));
+    repository.putFormData(input(form(Map.of("version", 2), null)));
+
+    repository.delete(Set.of(KEY));
+
+    assertThat(repository.getRevisions(KEY)).isEmpty();
+    assertThat(delegate.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().prefix("process/1/").build())).isEmpty();
+  }
+
+  @Test
+  void shouldDiffAndPatchJsonDocuments() {
+    var source = objectMapper.createObjectNode();
+    source.put("a/b", 1).put("c~d", "x").putArray("list").add(1).add(2).add(3);
+    source.putObject("nested").put("removed", true);
+    var target = objectMapper.createObjectNode();
+    target.put("a/b", 2).putArray("list").add(1).add(5);
+    target.putObject("nested").put("added", "y");
+    target.put("number", 1.5);
+
+    var patch = JsonPatches.diff(source, target);
+
+    assertThat(JsonPatches.apply(source, patch)).isEqualTo(target);
+    assertThat(JsonPatches.apply(target, JsonPatches.diff(target, source))).isEqualTo(source);
+    assertThat(JsonPatches.diff(source, source.deepCopy())).isEmpty();
+  }
+
+  private FormDataDto form(Map<String, Object> data, String signature) {
+    return FormDataDto.builder()
+        .data(new LinkedHashMap<>(data))
+        .accessToken("token")
+        .signature(signature)
+        .build();
+  }
+
+  private FormDataInputWrapperDto input(FormDataDto formData) {
+    return input(KEY, formData);
+  }
+
+  private FormDataInputWrapperDto input(String key, FormDataDto formData) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId("1")
+        .formData(formData)
+        .build();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.epam.digital.data.platform.storage.form.config.LocalStorageConfiguration;
+import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.dto.FormDataInputWrapperDto;
+import com.epam.digital.data.platform.storage.form.model.LocalKeysSearchParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SignatureSeparatingFormDataRepositoryTest {
+
+  private static final String KEY = "process/1/task/a";
+
+  @TempDir
+  Path directory;
+  private LocalFormDataRepository delegate;
+  private SignatureSeparatingFormDataRepository<LocalKeysSearchParams> repository;
+
+  @BeforeEach
+  void init() {
+    var configuration = new LocalStorageConfiguration();
+    configuration.setDirectory(directory.toString());
+    delegate = new LocalFormDataRepository(configuration, new ObjectMapper());
+    repository = new SignatureSeparatingFormDataRepository<>(delegate);
+  }
+
+  @AfterEach
+  void tearDown() {
+    delegate.close();
+  }
+
+  @Test
+  void shouldStoreSignatureSeparately() {
+    repository.putFormData(input(KEY, "signature"));
+
+    assertThat(delegate.getFormData(KEY).get().getSignature())
+        .startsWith(SignatureSeparatingFormDataRepository.SIGNATURE_REFERENCE);
+    assertThat(delegate.getFormData(KEY + "~signature").get().getSignature())
+        .isEqualTo("signature");
+    assertThat(repository.getFormData(KEY).get().getSignature()).isNull();
+    assertThat(repository.getFormData(KEY).get().getData()).isEqualTo(data());
+    assertThat(repository.getFormDataWithSignature(KEY).get().getSignature())
+        .isEqualTo("signature");
+    assertThat(repository.getSignature(KEY)).contains("signature");
+    assertThat(repository.getKeysBySearchParams(
+        LocalKeysSearchParams.builder().processInstanceId("1").build()))
+        .containsExactlyInAnyOrder(KEY, KEY + "~signature");
+  }
+
+  @Test
+  void shouldNotWriteSignatureKeyOnUnsignedPut() {
+    var spiedDelegate = spy(delegate);
+    var spiedRepository = new SignatureSeparatingFormDataRepository<>(spiedDelegate);
+
+    spiedRepository.putFormData(input(KEY, null));
+
+    verify(spiedDelegate).putFormData(input(KEY, null));
+    verifyNoMoreInteractions(spiedDelegate);
+  }
+
+  @Test
+  void shouldTreatFormOfTaskNamedSignatureAsForm() {
+    var key = "process/1/task/signature";
+    repository.putFormData(input(key, "signature"));
+
+    assertThat(SignatureSeparatingFormDataRepository.isSignatureKey(key)).isFalse();
+    assertThat(repository.getFormData(key).get().getData()).isEqualTo(data());
+    assertThat(repository.getSignature(key)).contains("signature");
+  }
+
+  @Test
+  void shouldIgnoreSignatureOfOverwrittenUnsignedForm() {
+    repository.putFormData(input(KEY, "signature"));
+    repository.putFormData(input(KEY, null));
+
+    assertThat(repository.getSignature(KEY)).isEmpty();
+    assertThat(repository.getFormDataWithSignature(KEY).get().getData()).isEqualTo(data());
+  }
+
+  @Test
+  void shouldIgnoreSignatureNotMatchingReference() {
+    repository.putFormData(input(KEY, "signature"));
+    delegate.putFormData(input(KEY + "~signature", "other"));
+
+    assertThat(repository.getSignature(KEY)).isEmpty();
+    assertThat(repository.getFormDataWithSignature(KEY).get().getSignature()).isNull();
+  }
+
+  @Test
+  void shouldReadInlineSignatureOfFormStoredBeforeSeparation() {
+    delegate.putFormData(input(KEY, "signature"));
+
+    assertThat(repository.getFormData(KEY).get().getSignature()).isEqualTo("signature");
+    assertThat(repository.getSignature(KEY)).contains("signature");
+  }
+
+  @Test
+  void shouldDeleteSignatureWithForm() {
+    repository.putFormData(input(KEY, "signature"));
+
+    repository.delete(Set.of(KEY));
+
+    assertThat(delegate.getFormData(KEY)).isEmpty();
+    assertThat(delegate.getFormData(KEY + "~signature")).isEmpty();
+  }
+
+  private static FormDataInputWrapperDto input(String key, String signature) {
+    return FormDataInputWrapperDto.builder()
+        .key(key)
+        .processInstanceId("1")
+        .formData(FormDataDto.builder().data(data()).signature(signature).build())
+        .build();
+  }
+
+  private static LinkedHashMap<String, Object> data() {
+    return new LinkedHashMap<>(Map.of("field", "value"));
+  }
+}
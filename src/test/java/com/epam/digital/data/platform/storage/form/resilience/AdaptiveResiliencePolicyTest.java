@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.epam.digital.data.platform.storage.form.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.storage.form.config.ResilienceConfiguration;
+import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveResiliencePolicyTest {
+
+  private ResilienceConfiguration configuration;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void init() {
+    configuration = new ResilienceConfiguration();
+    configuration.setRetryBackoff(Duration.ZERO);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void shouldRetryTransientFailures() {
+    configuration.setMaxAttempts(3);
+    var policy = new AdaptiveResiliencePolicy("redis", configuration, meterRegistry);
+    var attempts = new AtomicInteger();
+
+    var result = policy.execute(() -> {
+      if (attempts.incrementAndGet() < 3) {
+        throw new IllegalStateException("failed");
+      }
+      return "result";
+    }, IllegalStateException.class::isInstance);
+
+    assertThat(result).isEqualTo("result");
+    assertThat(attempts).hasValue(3);
+    assertThat(meterRegistry.get("form.data.storage.concurrency.retries").tag("backend", "redis")
+        .counter().count()).isEqualTo(2.0);
+    assertThat(policy.getLimiter().getInFlight()).isZero();
+  }
+
+  @Test
+  void shouldNotRetryPermanentFailures() {
+    configuration.setMaxAttempts(3);
+    var policy = new AdaptiveResiliencePolicy("ceph", configuration, meterRegistry);
+    var attempts = new AtomicInteger();
+
+    assertThrows(IllegalArgumentException.class, () -> policy.execute(() -> {
+      attempts.incrementAndGet();
+      throw new IllegalArgumentException("failed");
+    }, IllegalStateException.class::isInstance));
+    assertThat(attempts).hasValue(1);
+  }
+
+  @Test
+  void shouldShedRequestsAboveConcurrencyLimit() {
+    configuration.setInitialLimit(1);
+    configuration.setMinLimit(1);
+    var policy = new AdaptiveResiliencePolicy("ceph", configuration, meterRegistry);
+
+    var result = policy.execute(() -> assertThrows(FormDataRepositoryOverloadedException.class,
+        () -> policy.execute(() -> "nested", ex -> false)), ex -> false);
+
+    assertThat(result).hasMessageContaining("ceph");
+    assertThat(meterRegistry.get("form.data.storage.concurrency.rejected").tag("backend", "ceph")
+        .counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("form.data.storage.concurrency.limit").tag("backend", "ceph")
+        .gauge().value()).isGreaterThanOrEqualTo(1.0);
+  }
+}
@@ -31,11 +31,14 @@ import com.epam.digital.data.platform.storage.form.exception.FormDataRepositoryM
 import com.epam.digital.data.platform.storage.form.repository.CephFormDataRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -141,7 +144,38 @@ class CephFormDataStorageServiceTest {
 
     storageService.deleteByProcessInstance(procInstId);
 
-    verify(cephService).delete(bucketName, Set.of(formDataKey, systemSignKey));
+    verify(cephService).delete(bucketName, Set.of(formDataKey, systemSignKey,
+        formDataKey + "~fingerprint", systemSignKey + "~fingerprint"));
+  }
+
+  @Test
+  void shouldDeleteByProcInstIdInBatches() {
+    var procInstId = "id";
+    var formDataPrefix = formDataKeyProvider.getKeyPrefixByProcessInstanceId(procInstId);
+    var formDataKeys = Set.of(
+        formDataKeyProvider.generateKey(procInstId, "taskDefId1"),
+        formDataKeyProvider.generateKey(procInstId, "taskDefId2"));
+    var systemSignPrefix = formDataKeyProvider.getSystemSignatureKeyPrefix(procInstId);
+    var systemSignKey = formDataKeyProvider.generateSystemSignatureKey(procInstId, procInstId);
+    var batchingStorageService = CephFormDataStorageService.builder()
+        .keyProvider(formDataKeyProvider)
+        .repository(CephFormDataRepository.builder()
+            .objectMapper(new ObjectMapper())
+            .cephBucketName(bucketName)
+            .cephService(cephService)
+            .build())
+        .deleteBatchSize(2)
+        .build();
+
+    when(cephService.getKeys(bucketName, formDataPrefix)).thenReturn(formDataKeys);
+    when(cephService.getKeys(bucketName, systemSignPrefix)).thenReturn(Set.of(systemSignKey));
+
+    batchingStorageService.deleteByProcessInstance(procInstId);
+
+    verify(cephService).delete(bucketName, formDataKeys.stream()
+        .flatMap(key -> Stream.of(key, key + "~fingerprint"))
+        .collect(Collectors.toSet()));
+    verify(cephService).delete(bucketName, Set.of(systemSignKey, systemSignKey + "~fingerprint"));
   }
 
   @Test
@@ -190,12 +224,31 @@ class CephFormDataStorageServiceTest {
         () -> storageService.deleteByProcessInstance(procInstId));
   }
 
+  @Test
+  void shouldPageStartFormKeys() {
+    var prefix = formDataKeyProvider.getStartFormKeyPrefix("procDefKey");
+    var first = formDataKeyProvider.generateStartFormKey("procDefKey", "a");
+    var second = formDataKeyProvider.generateStartFormKey("procDefKey", "b");
+    var third = formDataKeyProvider.generateStartFormKey("procDefKey", "c");
+
+    when(cephService.getKeys(bucketName, prefix))
+        .thenReturn(Set.of(third, first, second, first + "~fingerprint"));
+
+    var firstPage = storageService.getStartFormKeys("procDefKey", null, 2);
+    assertThat(firstPage.getKeys()).isEqualTo(List.of(first, second));
+    assertThat(firstPage.getCursor()).isNotNull();
+
+    var lastPage = storageService.getStartFormKeys("procDefKey", firstPage.getCursor(), 2);
+    assertThat(lastPage.getKeys()).isEqualTo(List.of(third));
+    assertThat(lastPage.getCursor()).isNull();
+  }
+
   @Test
   void shouldDelete() {
-    var keys = Set.of(formDataKeyProvider.generateSystemSignatureKey("procInstId", "procInstId"));
+    var key = formDataKeyProvider.generateSystemSignatureKey("procInstId", "procInstId");
 
-    storageService.delete(keys);
+    storageService.delete(Set.of(key));
 
-    verify(cephService).delete(bucketName, keys);
+    verify(cephService).delete(bucketName, Set.of(key, key + "~fingerprint"));
   }
 }
\ No newline at end of file
@@ -18,21 +18,29 @@
 package com.epam.digital.data.platform.storage.form.service;
 
 import com.epam.digital.data.platform.storage.form.dto.FormDataDto;
+import com.epam.digital.data.platform.storage.form.model.FormDataKeyPage;
 import com.epam.digital.data.platform.storage.form.model.FormDataRedis;
+import com.epam.digital.data.platform.storage.form.model.RedisKeysSearchParams;
 import com.epam.digital.data.platform.storage.form.repository.FormDataKeyValueRepository;
 import com.epam.digital.data.platform.storage.form.repository.RedisFormDataRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
+import lombok.experimental.SuperBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.SetOperations;
 
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -42,8 +50,10 @@ import java.util.stream.Collectors;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -130,9 +140,13 @@ class RedisFormDataStorageServiceTest {
     var formDataStr = "{\"testField\":\"testValue\"}";
     var key = formDataKeyProvider.generateStartFormKey(procDefKey, uuid);
 
+    when(redisTemplate.opsForSet()).thenReturn(redisSetOperationsMock);
+
     storageService.putStartFormData(procDefKey, uuid, formData);
     verify(redisKeyValueRepository).save(FormDataRedis.builder().id(key).data(formDataStr).build());
-    verify(redisSetOperationsMock, never()).add(anyString(), any());
+    verify(redisSetOperationsMock)
+        .add("bpm-form-submissions:process-definition-key:procDefKey", key);
+    verifyNoMoreInteractions(redisSetOperationsMock);
   }
 
   @Test
@@ -164,9 +178,8 @@ class RedisFormDataStorageServiceTest {
             .map(key -> REDIS_KEY_PREFIX + key)
             .collect(Collectors.toSet());
 
-    when(redisTemplate.opsForSet()).thenReturn(redisSetOperationsMock);
-    when(redisSetOperationsMock.members("bpm-form-submissions:process-instance-id:id"))
-        .thenReturn(new HashSet<>(redisExistingKeys));
+    when(redisTemplate.execute(any(RedisCallback.class)))
+        .thenReturn(FormDataKeyPage.builder().keys(List.copyOf(redisExistingKeys)).build());
 
     storageService.deleteByProcessInstance(procInstId, startFormKey);
 
@@ -175,6 +188,15 @@ class RedisFormDataStorageServiceTest {
                     .collect(Collectors.toSet());
     redisKeysToDelete.add("bpm-form-submissions:process-instance-id:id");
     verify(redisTemplate).delete(redisKeysToDelete);
+    var indexUpdate = ArgumentCaptor.forClass(RedisCallback.class);
+    verify(redisTemplate).executePipelined(indexUpdate.capture());
+    var connection = mock(RedisConnection.class);
+    var setCommands = mock(RedisSetCommands.class);
+    when(connection.setCommands()).thenReturn(setCommands);
+    indexUpdate.getValue().doInRedis(connection);
+    verify(setCommands).sRem(
+        "bpm-form-submissions:process-definition-key:procDefKey".getBytes(StandardCharsets.UTF_8),
+        startFormKey.getBytes(StandardCharsets.UTF_8));
   }
 
   @Test
@@ -215,4 +237,31 @@ class RedisFormDataStorageServiceTest {
 
     verify(redisTemplate).delete(keysToDelete);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldDeleteByProcInstIdWithServiceOverridingOnlyFindKeys() {
+    var repository = RedisFormDataRepository.builder()
+        .objectMapper(new ObjectMapper())
+        .repository(redisKeyValueRepository)
+        .template(redisTemplate)
+        .build();
+    var customStorageService = FindKeysFormDataStorageService.builder()
+        .keyProvider(formDataKeyProvider)
+        .repository(repository)
+        .build();
+
+    customStorageService.deleteByProcessInstance("id");
+
+    verify(redisTemplate).delete(Set.of(REDIS_KEY_PREFIX + "process/id/task/taskDefId"));
+  }
+
+  @SuperBuilder
+  static class FindKeysFormDataStorageService
+      extends FormDataStorageService<RedisKeysSearchParams> {
+
+    @Override
+    protected Set<String> findKeysByProcessInstanceId(String processInstanceId) {
+      return Set.of("process/" + processInstanceId + "/task/taskDefId");
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FormDataStorageEventTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldRecordStorageOperations() throws Exception {
+    List<RecordedEvent> events;
+    try (var recording = new Recording()) {
+      recording.enable(FormDataStorageEvent.NAME).withThreshold(Duration.ZERO);
+      recording.start();
+
+      FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, "redis",
+          FormDataStorageEvent.GET, "process/1/task/a", event -> {
+            event.setPayloadBytes(() -> 42);
+            return Optional.of("data");
+          });
+      FormDataStorageEvent.call(FormDataStorageEvent.SERVICE, "redis",
+          FormDataStorageEvent.GET, "process/1/task/b", event -> Optional.empty());
+      assertThrows(IllegalStateException.class,
+          () -> FormDataStorageEvent.run(FormDataStorageEvent.SERVICE, "ceph",
+              FormDataStorageEvent.DELETE, Set.of("a", "b"), () -> {
+                throw new IllegalStateException();
+              }));
+
+      recording.stop();
+      var file = tempDir.resolve("recording.jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    }
+
+    assertThat(events).hasSize(3);
+    var found = events.get(0);
+    assertThat(found.getString("layer")).isEqualTo(FormDataStorageEvent.REPOSITORY);
+    assertThat(found.getString("backend")).isEqualTo("redis");
+    assertThat(found.getString("operation")).isEqualTo(FormDataStorageEvent.GET);
+    assertThat(found.getString("keyFamily")).isEqualTo("task");
+    assertThat(found.getLong("payloadBytes")).isEqualTo(42);
+    assertThat(found.getString("outcome")).isEqualTo(FormDataStorageEvent.SUCCESS);
+    assertThat(found.getDuration()).isNotNull();
+
+    assertThat(events.get(1).getString("outcome")).isEqualTo(FormDataStorageEvent.NOT_FOUND);
+
+    var failed = events.get(2);
+    assertThat(failed.getInt("keyCount")).isEqualTo(2);
+    assertThat(failed.getString("outcome")).isEqualTo(FormDataStorageEvent.ERROR);
+    assertThat(failed.getString("error")).isEqualTo(IllegalStateException.class.getName());
+  }
+
+  @Test
+  void shouldNotComputePayloadSizeIfNotRecording() {
+    var result = FormDataStorageEvent.call(FormDataStorageEvent.REPOSITORY, "redis",
+        FormDataStorageEvent.PUT, "process/1/task/a", event -> {
+          event.setPayloadBytes(() -> {
+            throw new AssertionError("payload size computed without recording");
+          });
+          return "done";
+        });
+
+    assertThat(result).isEqualTo("done");
+  }
+}
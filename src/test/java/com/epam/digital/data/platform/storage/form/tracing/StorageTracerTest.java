@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.epam.digital.data.platform.storage.form.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+
+@ExtendWith(MockitoExtension.class)
+class StorageTracerTest {
+
+  @Mock
+  private Tracer tracer;
+  @Mock(answer = Answers.RETURNS_SELF)
+  private Span span;
+  private StorageTracer storageTracer;
+
+  @BeforeEach
+  void init() {
+    when(tracer.nextSpan()).thenReturn(span);
+    when(tracer.withSpan(span)).thenReturn(mock(Tracer.SpanInScope.class));
+    storageTracer = new StorageTracer(tracer, "redis");
+  }
+
+  @Test
+  void shouldRecordPhaseSpanWithAttributes() {
+    var result = storageTracer.call("form-data.serialize", "process/1/task/a", phase -> {
+      phase.tag(StorageTracer.PAYLOAD_BYTES, 42);
+      return "serialized";
+    });
+
+    assertThat(result).isEqualTo("serialized");
+    verify(span).name("form-data.serialize");
+    verify(span).tag(StorageTracer.BACKEND, "redis");
+    verify(span).tag(StorageTracer.KEY_FAMILY, "task");
+    verify(span).tag(StorageTracer.PAYLOAD_BYTES, "42");
+    verify(span).start();
+    verify(span).end();
+    verify(span, never()).error(any());
+  }
+
+  @Test
+  void shouldComputeTagValueOnlyForRecordedSpan() {
+    storageTracer.run("form-data.serialize", "process/1/task/a",
+        phase -> phase.tag(StorageTracer.PAYLOAD_BYTES, () -> 42));
+    StorageTracer.NOOP.run("form-data.serialize", "process/1/task/a",
+        phase -> phase.tag(StorageTracer.PAYLOAD_BYTES, () -> {
+          throw new AssertionError("tag value computed without recording");
+        }));
+
+    verify(span).tag(StorageTracer.PAYLOAD_BYTES, "42");
+  }
+
+  @Test
+  void shouldRecordKeyCountAndErrorOfFailedPhase() {
+    var failure = new IllegalStateException("failed");
+
+    assertThrows(IllegalStateException.class, () -> storageTracer.run("redis.delete",
+        List.of("a", "b"), () -> {
+          throw failure;
+        }));
+
+    verify(span).tag(StorageTracer.KEY_COUNT, "2");
+    verify(span).error(failure);
+    verify(span).end();
+  }
+}